@@ -0,0 +1,106 @@
+package com.giraone.s3.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of growable byte buffers, into which documents are generated in memory. A buffer keeps its grown array, when
+ * it is released, so after the first documents no further arrays are allocated. When the pool is empty, a new buffer
+ * is created. Buffers released to a full pool or grown beyond the maximum retained size are left to the garbage
+ * collector.
+ */
+public class BufferPool {
+
+    /**
+     * A byte buffer of the pool. The content is read without copying it.
+     */
+    public static final class PooledBuffer extends ByteArrayOutputStream {
+
+        private final BufferPool pool;
+
+        private PooledBuffer(BufferPool pool, int initialCapacity) {
+            super(initialCapacity);
+            this.pool = pool;
+        }
+
+        /**
+         * @return a new stream on the content, so each retry of an upload can read it from the beginning
+         */
+        public InputStream newInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+
+        /**
+         * @return a read-only view on the content
+         */
+        public ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count).asReadOnlyBuffer();
+        }
+
+        /**
+         * @return the internal array without copying it, the content are its first size() bytes
+         */
+        public byte[] array() {
+            return buf;
+        }
+
+        /**
+         * Return the buffer to its pool. The content must not be used afterwards.
+         */
+        public void release() {
+            pool.release(this);
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+    }
+
+    private final BlockingQueue<PooledBuffer> freeBuffers;
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+    private final LongAdder allocated = new LongAdder();
+
+    /**
+     * @param maxPooledBuffers    The maximum number of buffers kept in the pool.
+     * @param initialCapacity     The initial size of a new buffer in bytes.
+     * @param maxRetainedCapacity Buffers, which grew beyond this size, are not returned to the pool.
+     */
+    public BufferPool(int maxPooledBuffers, int initialCapacity, int maxRetainedCapacity) {
+        this.freeBuffers = new ArrayBlockingQueue<>(Math.max(1, maxPooledBuffers));
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+    }
+
+    /**
+     * @return an empty buffer from the pool or a new one, if the pool is empty
+     */
+    public PooledBuffer acquire() {
+        PooledBuffer buffer = freeBuffers.poll();
+        if (buffer == null) {
+            allocated.increment();
+            buffer = new PooledBuffer(this, initialCapacity);
+        }
+        return buffer;
+    }
+
+    /**
+     * @return the number of buffers allocated so far
+     */
+    public long getAllocatedCount() {
+        return allocated.sum();
+    }
+
+    private void release(PooledBuffer buffer) {
+        if (buffer.capacity() > maxRetainedCapacity) {
+            return;
+        }
+        buffer.reset();
+        freeBuffers.offer(buffer);
+    }
+}
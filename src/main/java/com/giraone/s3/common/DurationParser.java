@@ -0,0 +1,38 @@
+package com.giraone.s3.common;
+
+/**
+ * Parsing of human readable durations used on the command line, e.g. "500ms", "30s", "5m", "2h" or "1d".
+ */
+public class DurationParser {
+
+    // Class has only static methods
+    private DurationParser() {
+    }
+
+    /**
+     * Parse a duration. A number without unit is interpreted as seconds.
+     *
+     * @param text the duration, e.g. "90s" or "2h"
+     * @return the duration in milliseconds
+     */
+    public static long parseMillis(String text) {
+        String value = text.trim().toLowerCase();
+        try {
+            if (value.endsWith("ms")) {
+                return Long.parseLong(value.substring(0, value.length() - 2).trim());
+            } else if (value.endsWith("s")) {
+                return Long.parseLong(value.substring(0, value.length() - 1).trim()) * 1000L;
+            } else if (value.endsWith("m")) {
+                return Long.parseLong(value.substring(0, value.length() - 1).trim()) * 60_000L;
+            } else if (value.endsWith("h")) {
+                return Long.parseLong(value.substring(0, value.length() - 1).trim()) * 3_600_000L;
+            } else if (value.endsWith("d")) {
+                return Long.parseLong(value.substring(0, value.length() - 1).trim()) * 86_400_000L;
+            } else {
+                return Long.parseLong(value) * 1000L;
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration \"" + text + "\"! Use e.g. 500ms, 30s, 5m, 2h or 1d.");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.giraone.s3.common;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reservoir, which records every value of the whole run in an HdrHistogram with 3 significant digits.
+ * The default reservoir of Dropwizard timers keeps only a sample, biased towards the last 5 minutes,
+ * so its percentiles of a long test run miss most of the outliers.
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    private final Histogram histogram = new ConcurrentHistogram(3);
+
+    /**
+     * @return the timer with the given name, which is created with an HdrHistogramReservoir, if it does not exist
+     */
+    public static Timer timer(MetricRegistry metrics, String name) {
+        return metrics.timer(name, () -> new Timer(new HdrHistogramReservoir()));
+    }
+
+    /**
+     * Print count, throughput and latency of a timer. The timers record nanoseconds, the latency is printed in msecs.
+     *
+     * @param durationMillis The time, in which the operations were measured, to calculate the throughput.
+     */
+    public static void printTimerStatistics(Timer timer, String name, long durationMillis) {
+        Snapshot snapshot = timer.getSnapshot();
+        System.out.println("* " + name);
+        System.out.println("* Count      = " + timer.getCount());
+        System.out.format("* Throughput = %.1f ops/s%n", durationMillis > 0 ? 1000.0 * timer.getCount() / durationMillis : 0.0);
+        System.out.format("* Latency    = min %.3f, p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, max %.3f, mean %.3f msecs%n",
+                snapshot.getMin() / 1_000_000.0, snapshot.getMedian() / 1_000_000.0, snapshot.getValue(0.90) / 1_000_000.0,
+                snapshot.get99thPercentile() / 1_000_000.0, snapshot.get999thPercentile() / 1_000_000.0,
+                snapshot.getMax() / 1_000_000.0, snapshot.getMean() / 1_000_000.0);
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount());
+    }
+
+    @Override
+    public void update(long value) {
+        histogram.recordValue(Math.max(0L, value));
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return new HdrSnapshot(histogram.copy());
+    }
+
+    /**
+     * A copy of the histogram at the time of the snapshot. The histogram of two snapshots can be subtracted to get
+     * the values recorded between them.
+     */
+    public static final class HdrSnapshot extends Snapshot {
+
+        private final Histogram histogram;
+
+        private HdrSnapshot(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        public Histogram getHistogram() {
+            return histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            return histogram.getValueAtPercentile(quantile * 100.0);
+        }
+
+        @Override
+        public long[] getValues() {
+            // All recorded values, each one represented by the value of its bucket
+            long[] values = new long[size()];
+            int i = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                for (long n = 0; n < value.getCountAtValueIteratedTo() && i < values.length; n++) {
+                    values[i++] = histogram.highestEquivalentValue(value.getValueIteratedTo());
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount());
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getTotalCount() == 0L ? 0L : histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getTotalCount() == 0L ? 0.0 : histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getTotalCount() == 0L ? 0L : histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getTotalCount() == 0L ? 0.0 : histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (long value : getValues()) {
+                    writer.println(value);
+                }
+            }
+        }
+    }
+}
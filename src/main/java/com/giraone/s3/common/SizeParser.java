@@ -0,0 +1,40 @@
+package com.giraone.s3.common;
+
+/**
+ * Parsing of human readable sizes used on the command line, e.g. "512", "2KB", "64MB" or "1GB" (binary multiples).
+ */
+public class SizeParser {
+
+    // Class has only static methods
+    private SizeParser() {
+    }
+
+    /**
+     * Parse a size. A number without unit is interpreted as bytes.
+     *
+     * @param text the size, e.g. "2KB" or "200MB"
+     * @return the size in bytes
+     */
+    public static long parseBytes(String text) {
+        String value = text.trim().toUpperCase();
+        if (value.endsWith("B")) {
+            value = value.substring(0, value.length() - 1);
+        }
+        long factor = 1L;
+        if (value.endsWith("K")) {
+            factor = 1024L;
+        } else if (value.endsWith("M")) {
+            factor = 1024L * 1024L;
+        } else if (value.endsWith("G")) {
+            factor = 1024L * 1024L * 1024L;
+        }
+        if (factor > 1L) {
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            return Math.round(Double.parseDouble(value.trim()) * factor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid size \"" + text + "\"! Use e.g. 512, 2KB, 64MB or 1GB.");
+        }
+    }
+}
@@ -1,52 +1,149 @@
-package com.giraone.s3.objectstore.authentication;
-
-import com.amazonaws.ClientConfiguration;
-import com.amazonaws.Protocol;
-import com.amazonaws.auth.AWSCredentials;
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
-import com.amazonaws.auth.BasicAWSCredentials;
-import com.amazonaws.client.builder.AwsClientBuilder;
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
-import com.giraone.s3.objectstore.config.ObjectStorageEnvironment;
-import com.giraone.s3.objectstore.config.ServiceProperties;
-
-public class Authenticator {
-    private Authenticator() {
-    }
-
-    public static AmazonS3 init(ObjectStorageEnvironment env) {
-
-        ServiceProperties serviceProperties = env.getServiceProperties();
-        AWSCredentials awsCredentials = new BasicAWSCredentials(serviceProperties.getUserName(), serviceProperties.getPassword());
-
-        ClientConfiguration clientConfiguration = new ClientConfiguration();
-
-        // HTTP/HTTPS Proxy
-        if (serviceProperties.isUseProxy()) {
-            clientConfiguration.setProtocol(Protocol.HTTP);
-            clientConfiguration.setProxyHost("localhost");
-            clientConfiguration.setProxyPort(8080);
-        }
-
-        /*
-        if (serviceProperties.isSignerOverwrite()) {
-            clientConfiguration.setSignerOverride("S3SignerType");
-        }
-        */
-
-        return AmazonS3ClientBuilder
-                .standard()
-                .withEndpointConfiguration(
-                        new AwsClientBuilder.EndpointConfiguration(
-                                serviceProperties.getServiceEndpoint(),
-                                serviceProperties.getRegion()))
-                .withClientConfiguration(clientConfiguration)
-                .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
-                .withPathStyleAccessEnabled(true) // virtual-host vs. path-style
-                //.withPayloadSigningEnabled(true) // Default=false: Full payload signing can be expensive, if transferring large payloads in a single chunk.
-                .withChunkedEncodingDisabled(true) // Default=false: Enabling this option has performance implications since the checksum for the payload will have
-                // to be pre-calculated before sending the data.
-                .build();
-    }
+package com.giraone.s3.objectstore.authentication;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.Protocol;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.giraone.s3.objectstore.config.ObjectStorageEnvironment;
+import com.giraone.s3.objectstore.config.ServiceProperties;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.ProxyConfiguration;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.net.URI;
+
+public class Authenticator {
+    private Authenticator() {
+    }
+
+    public static AmazonS3 init(ObjectStorageEnvironment env) {
+        return init(env, ClientConfiguration.DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * @param env            the object store environment
+     * @param maxConnections the size of the HTTP connection pool, e.g. when one client is shared by many threads
+     */
+    public static AmazonS3 init(ObjectStorageEnvironment env, int maxConnections) {
+        return init(env, maxConnections, PredefinedRetryPolicies.DEFAULT_MAX_ERROR_RETRY);
+    }
+
+    /**
+     * @param env            the object store environment
+     * @param maxConnections the size of the HTTP connection pool, e.g. when one client is shared by many threads
+     * @param maxErrorRetry  the number of retries within the SDK, 0, when the caller retries itself
+     */
+    public static AmazonS3 init(ObjectStorageEnvironment env, int maxConnections, int maxErrorRetry) {
+        return init(env, maxConnections, maxErrorRetry, null);
+    }
+
+    /**
+     * @param env              the object store environment
+     * @param maxConnections   the size of the HTTP connection pool, e.g. when one client is shared by many threads
+     * @param maxErrorRetry    the number of retries within the SDK, 0, when the caller retries itself
+     * @param sslSocketFactory the factory for https connections or null for the default one of the SDK
+     */
+    public static AmazonS3 init(ObjectStorageEnvironment env, int maxConnections, int maxErrorRetry, ConnectionSocketFactory sslSocketFactory) {
+
+        ServiceProperties serviceProperties = env.getServiceProperties();
+        AWSCredentials awsCredentials = new BasicAWSCredentials(serviceProperties.getUserName(), serviceProperties.getPassword());
+
+        ClientConfiguration clientConfiguration = new ClientConfiguration();
+        clientConfiguration.setMaxConnections(maxConnections);
+        clientConfiguration.setMaxErrorRetry(maxErrorRetry);
+        if (sslSocketFactory != null) {
+            clientConfiguration.getApacheHttpClientConfig().setSslSocketFactory(sslSocketFactory);
+        }
+
+        // HTTP/HTTPS Proxy
+        if (serviceProperties.isUseProxy()) {
+            clientConfiguration.setProtocol(Protocol.HTTP);
+            clientConfiguration.setProxyHost("localhost");
+            clientConfiguration.setProxyPort(8080);
+        }
+
+        /*
+        if (serviceProperties.isSignerOverwrite()) {
+            clientConfiguration.setSignerOverride("S3SignerType");
+        }
+        */
+
+        return AmazonS3ClientBuilder
+                .standard()
+                .withEndpointConfiguration(
+                        new AwsClientBuilder.EndpointConfiguration(
+                                serviceProperties.getServiceEndpoint(),
+                                serviceProperties.getRegion()))
+                .withClientConfiguration(clientConfiguration)
+                .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
+                .withPathStyleAccessEnabled(true) // virtual-host vs. path-style
+                //.withPayloadSigningEnabled(true) // Default=false: Full payload signing can be expensive, if transferring large payloads in a single chunk.
+                .withChunkedEncodingDisabled(true) // Default=false: Enabling this option has performance implications since the checksum for the payload will have
+                // to be pre-calculated before sending the data.
+                .build();
+    }
+
+    /**
+     * Build a non-blocking S3 client (AWS SDK version 2), whose requests are multiplexed on a few event loop threads.
+     *
+     * @param env                      the object store environment
+     * @param maxConcurrency           the maximum number of concurrent HTTP connections
+     * @param numberOfEventLoopThreads the number of Netty event loop threads
+     * @param numRetries               the number of retries within the SDK, 0, when the caller retries itself
+     * @param metricPublisher          receives the metrics of each API call or null, when no metrics are collected
+     */
+    public static S3AsyncClient initAsync(ObjectStorageEnvironment env, int maxConcurrency, int numberOfEventLoopThreads, int numRetries,
+                                          MetricPublisher metricPublisher) {
+
+        ServiceProperties serviceProperties = env.getServiceProperties();
+        AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(serviceProperties.getUserName(), serviceProperties.getPassword());
+
+        NettyNioAsyncHttpClient.Builder httpClientBuilder = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConcurrency)
+                // Requests beyond maxConcurrency wait for a connection instead of failing
+                .maxPendingConnectionAcquires(Integer.MAX_VALUE)
+                .eventLoopGroupBuilder(SdkEventLoopGroup.builder().numberOfThreads(numberOfEventLoopThreads));
+
+        // HTTP/HTTPS Proxy
+        if (serviceProperties.isUseProxy()) {
+            httpClientBuilder.proxyConfiguration(ProxyConfiguration.builder()
+                    .scheme("http")
+                    .host("localhost")
+                    .port(8080)
+                    .build());
+        }
+
+        ClientOverrideConfiguration.Builder overrideConfiguration = ClientOverrideConfiguration.builder()
+                .retryPolicy(RetryPolicy.builder().numRetries(numRetries).build());
+        if (metricPublisher != null) {
+            overrideConfiguration.addMetricPublisher(metricPublisher);
+        }
+
+        return S3AsyncClient
+                .builder()
+                .endpointOverride(URI.create(serviceProperties.getServiceEndpoint()))
+                .region(serviceProperties.getRegion() != null ? Region.of(serviceProperties.getRegion()) : Region.US_EAST_1)
+                .httpClientBuilder(httpClientBuilder)
+                .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
+                .overrideConfiguration(overrideConfiguration.build())
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true) // virtual-host vs. path-style
+                        .chunkedEncodingEnabled(false) // same as withChunkedEncodingDisabled(true) of version 1
+                        .build())
+                .build();
+    }
 }
\ No newline at end of file
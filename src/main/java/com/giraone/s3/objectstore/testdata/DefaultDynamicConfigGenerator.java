@@ -1,52 +1,132 @@
-package com.giraone.s3.objectstore.testdata;
-
-import com.giraone.s3.testdocuments.TestDocumentContent;
-
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Random;
-
-public class DefaultDynamicConfigGenerator implements DynamicConfigGenerator {
-
-    private static int MilliSecondsOfAYear = 1000 * 3600 * 24 * 365;
-    private static Random random = new Random();
-
-    private long startDate = System.currentTimeMillis() - MilliSecondsOfAYear * 2;
-
-    private static final String[] TYPE_NAMES = new String[]{
-            "Rechnungsbeleg", "Spendenquittung", "Sonstiger Beleg"
-    };
-
-    private static final String[] PATH_NAMES = new String[]{
-            "Steuer 2014/Handwerkerrechnungen", "Steuer 2014/Arbeitsmittel",
-            "Steuer 2014/Spendenquittungen", "Steuer 2014/Sonderausgaben", "Steuer 2014/Sonstige Einkünfte",
-            "Steuer 2015/Handwerkerrechnungen", "Steuer 2015/Arbeitsmittel",
-            "Steuer 2015/Spendenquittungen", "Steuer 2015/Sonderausgaben", "Steuer 2015/Sonstige Einkünfte"
-    };
-
-    public String buildContainerName(int containerIndex) {
-        return String.format("Container-%07d", containerIndex);
-    }
-
-    public String buildPathNames(int containerIndex, int documentIndex) {
-        return PATH_NAMES[documentIndex % PATH_NAMES.length];
-    }
-
-    public TestDocumentContent buildTestDocumentContent(int containerIndex, int documentIndex) {
-        final long time = startDate + random.nextInt(MilliSecondsOfAYear);
-        final String dateString = new SimpleDateFormat("yyyy-MM-dd").format(new Date(time));
-        final int taxYear = random.nextInt(1) + 2014;
-        final String type = TYPE_NAMES[documentIndex % TYPE_NAMES.length];
-        final String title = type + "-" + dateString + "-" + String.format("%06d", documentIndex) + ".pdf";
-
-        final HashMap<String, String> metaData = new HashMap<>();
-        metaData.put("title", title);
-        metaData.put("status", "ADDED");
-        metaData.put("taxYear", Integer.toString(taxYear));
-        metaData.put("type", type);
-        metaData.put("dateString", dateString);
-
-        return new TestDocumentContent(documentIndex, title, time, metaData);
-    }
-}
+package com.giraone.s3.objectstore.testdata;
+
+import com.giraone.s3.testdocuments.PayloadGenerator;
+import com.giraone.s3.testdocuments.TestDocumentContent;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Generates the names and the content of the test documents. Every field of a document is derived from the seed,
+ * the container index and the document index with its own SplittableRandom, so the threads share no random generator
+ * and the same seed reproduces the same dataset, independent of the number of threads and the order of the documents.
+ */
+public class DefaultDynamicConfigGenerator implements DynamicConfigGenerator {
+
+    private static final long MILLISECONDS_OF_A_DAY = 1000L * 3600L * 24L;
+    private static final long MILLISECONDS_OF_A_YEAR = MILLISECONDS_OF_A_DAY * 365L;
+    // Start of the dates of a seeded dataset, so it does not depend on the day of the run (2014-01-01T00:00:00Z)
+    private static final long SEEDED_START_DATE = 1388534400000L;
+
+    // Distinguishes the random values of the size from those of the content of the same document
+    private static final long SIZE_STREAM = 0x5173L;
+
+    private long seed = System.nanoTime() ^ System.currentTimeMillis();
+    private long startDate = System.currentTimeMillis() - MILLISECONDS_OF_A_YEAR * 2;
+
+    // Without a size distribution, the documents are uploaded in the size of the generated PDF
+    private SizeDistribution sizeDistribution;
+    private PayloadGenerator payloadGenerator = new PayloadGenerator(0.0);
+
+    private static final String[] TYPE_NAMES = new String[]{
+            "Rechnungsbeleg", "Spendenquittung", "Sonstiger Beleg"
+    };
+
+    private static final String[] PATH_NAMES = new String[]{
+            "Steuer 2014/Handwerkerrechnungen", "Steuer 2014/Arbeitsmittel",
+            "Steuer 2014/Spendenquittungen", "Steuer 2014/Sonderausgaben", "Steuer 2014/Sonstige Einkünfte",
+            "Steuer 2015/Handwerkerrechnungen", "Steuer 2015/Arbeitsmittel",
+            "Steuer 2015/Spendenquittungen", "Steuer 2015/Sonderausgaben", "Steuer 2015/Sonstige Einkünfte"
+    };
+
+    public String buildContainerName(int containerIndex) {
+        return "Container-" + zeroPadded(containerIndex, 7);
+    }
+
+    public String buildPathNames(int containerIndex, int documentIndex) {
+        return PATH_NAMES[documentIndex % PATH_NAMES.length];
+    }
+
+    public TestDocumentContent buildTestDocumentContent(int containerIndex, int documentIndex) {
+        final SplittableRandom random = random(containerIndex, documentIndex, 0L);
+        final long time = startDate + random.nextLong(MILLISECONDS_OF_A_YEAR);
+        final String dateString = LocalDate.ofEpochDay(Math.floorDiv(time, MILLISECONDS_OF_A_DAY)).toString();
+        final int taxYear = random.nextInt(1) + 2014;
+        final String type = TYPE_NAMES[documentIndex % TYPE_NAMES.length];
+        final String title = type + "-" + dateString + "-" + zeroPadded(documentIndex, 6) + ".pdf";
+        // Version 4 (random) UUID from the generator instead of the shared SecureRandom of UUID.randomUUID()
+        final String uuid = new UUID((random.nextLong() & ~0xF000L) | 0x4000L,
+                (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L).toString();
+
+        final HashMap<String, String> metaData = new HashMap<>();
+        metaData.put("title", title);
+        metaData.put("status", "ADDED");
+        metaData.put("taxYear", Integer.toString(taxYear));
+        metaData.put("type", type);
+        metaData.put("dateString", dateString);
+
+        return new TestDocumentContent(documentIndex, uuid, title, time, metaData);
+    }
+
+    @Override
+    public long buildDocumentSize(int containerIndex, int documentIndex) {
+        return sizeDistribution != null ? sizeDistribution.sample(random(containerIndex, documentIndex, SIZE_STREAM)) : -1L;
+    }
+
+    @Override
+    public PayloadGenerator getPayloadGenerator() {
+        return payloadGenerator;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Generate a reproducible dataset. The dates of the documents are in 2014 instead of relative to the current date.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.startDate = SEEDED_START_DATE;
+    }
+
+    public SizeDistribution getSizeDistribution() {
+        return sizeDistribution;
+    }
+
+    public void setSizeDistribution(SizeDistribution sizeDistribution) {
+        this.sizeDistribution = sizeDistribution;
+    }
+
+    public void setPayloadGenerator(PayloadGenerator payloadGenerator) {
+        this.payloadGenerator = payloadGenerator;
+    }
+
+    //---------------------------------------------------------------------------------------------
+
+    private SplittableRandom random(int containerIndex, int documentIndex, long stream) {
+        long index = ((long) containerIndex << 32) | (documentIndex & 0xFFFFFFFFL);
+        return new SplittableRandom(mix(mix(seed ^ stream) + index));
+    }
+
+    // The finalizer of SplitMix64, so neighboring indexes get unrelated seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String zeroPadded(int value, int width) {
+        String digits = Integer.toString(value);
+        if (digits.length() >= width) {
+            return digits;
+        }
+        StringBuilder padded = new StringBuilder(width);
+        for (int i = digits.length(); i < width; i++) {
+            padded.append('0');
+        }
+        return padded.append(digits).toString();
+    }
+}
@@ -1,11 +1,27 @@
-package com.giraone.s3.objectstore.testdata;
-
-import com.giraone.s3.testdocuments.TestDocumentContent;
-
-public interface DynamicConfigGenerator {
-    public String buildContainerName(int containerIndex);
-
-    public String buildPathNames(int containerIndex, int documentIndex);
-
-    public TestDocumentContent buildTestDocumentContent(int containerIndex, int documentIndex);
+package com.giraone.s3.objectstore.testdata;
+
+import com.giraone.s3.testdocuments.PayloadGenerator;
+import com.giraone.s3.testdocuments.TestDocumentContent;
+
+public interface DynamicConfigGenerator {
+    public String buildContainerName(int containerIndex);
+
+    public String buildPathNames(int containerIndex, int documentIndex);
+
+    public TestDocumentContent buildTestDocumentContent(int containerIndex, int documentIndex);
+
+    /**
+     * @return the size of the object in bytes or -1, to upload the generated PDF as it is. A PDF smaller than the
+     * size is padded with the bytes of the payload generator.
+     */
+    public default long buildDocumentSize(int containerIndex, int documentIndex) {
+        return -1L;
+    }
+
+    /**
+     * @return the generator of the bytes, with which the PDFs are padded to the size of buildDocumentSize
+     */
+    public default PayloadGenerator getPayloadGenerator() {
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.giraone.s3.objectstore.testdata;
+
+import com.giraone.s3.common.SizeParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The distribution of the object sizes. Specifications:
+ * <ul>
+ * <li>"fixed:2MB" - all objects have the same size</li>
+ * <li>"uniform:2KB-200MB" - uniformly distributed between the two sizes</li>
+ * <li>"lognormal:64KB,1.5" - log-normal distribution with median and sigma, optionally capped, e.g. "lognormal:64KB,1.5,200MB"</li>
+ * <li>"histogram:sizes.txt" - empirical distribution from a file with one bucket per line: a size or a size range and its weight,
+ * e.g. "2KB-16KB 70", "1MB-5MB 25", "200MB 5". Within a range, the sizes are uniformly distributed.</li>
+ * </ul>
+ */
+public interface SizeDistribution {
+
+    /**
+     * @return the size of the next object in bytes
+     */
+    long sample(SplittableRandom random);
+
+    static SizeDistribution parse(String spec) {
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Invalid size distribution \"" + spec + "\"! Use fixed, uniform, lognormal or histogram.");
+        }
+        String type = spec.substring(0, colon).trim().toLowerCase();
+        String parameters = spec.substring(colon + 1).trim();
+        switch (type) {
+            case "fixed":
+                return new Fixed(SizeParser.parseBytes(parameters));
+            case "uniform":
+                String[] range = parameters.split("-");
+                if (range.length != 2) {
+                    throw new IllegalArgumentException("Invalid uniform size range \"" + parameters + "\"! Use e.g. uniform:2KB-200MB");
+                }
+                return new Uniform(SizeParser.parseBytes(range[0]), SizeParser.parseBytes(range[1]));
+            case "lognormal":
+                String[] values = parameters.split(",");
+                if (values.length < 2 || values.length > 3) {
+                    throw new IllegalArgumentException("Invalid log-normal distribution \"" + parameters + "\"! Use e.g. lognormal:64KB,1.5");
+                }
+                return new LogNormal(SizeParser.parseBytes(values[0]), Double.parseDouble(values[1].trim()),
+                        values.length > 2 ? SizeParser.parseBytes(values[2]) : Long.MAX_VALUE);
+            case "histogram":
+                try {
+                    return Histogram.read(new File(parameters));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Cannot read size histogram \"" + parameters + "\"!", e);
+                }
+            default:
+                throw new IllegalArgumentException("Invalid size distribution type \"" + type + "\"! Use fixed, uniform, lognormal or histogram.");
+        }
+    }
+
+    final class Fixed implements SizeDistribution {
+        private final long size;
+
+        Fixed(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public long sample(SplittableRandom random) {
+            return size;
+        }
+    }
+
+    final class Uniform implements SizeDistribution {
+        private final long min;
+        private final long max;
+
+        Uniform(long min, long max) {
+            if (min > max) {
+                throw new IllegalArgumentException("Invalid size range " + min + "-" + max + "!");
+            }
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public long sample(SplittableRandom random) {
+            return min + (long) (random.nextDouble() * (max - min + 1L));
+        }
+    }
+
+    final class LogNormal implements SizeDistribution {
+        private final double mu;
+        private final double sigma;
+        private final long max;
+
+        LogNormal(long median, double sigma, long max) {
+            this.mu = Math.log(median);
+            this.sigma = sigma;
+            this.max = max;
+        }
+
+        @Override
+        public long sample(SplittableRandom random) {
+            // Box-Muller transform, SplittableRandom has no nextGaussian() in Java 8
+            double gaussian = Math.sqrt(-2.0 * Math.log(1.0 - random.nextDouble())) * Math.cos(2.0 * Math.PI * random.nextDouble());
+            return Math.max(1L, Math.min(max, Math.round(Math.exp(mu + sigma * gaussian))));
+        }
+    }
+
+    final class Histogram implements SizeDistribution {
+        private final long[] from;
+        private final long[] to;
+        // Cumulative weights, the last one is the total
+        private final double[] cumulativeWeights;
+
+        private Histogram(List<long[]> ranges, List<Double> weights) {
+            this.from = new long[ranges.size()];
+            this.to = new long[ranges.size()];
+            this.cumulativeWeights = new double[ranges.size()];
+            double total = 0.0;
+            for (int i = 0; i < ranges.size(); i++) {
+                from[i] = ranges.get(i)[0];
+                to[i] = ranges.get(i)[1];
+                total += weights.get(i);
+                cumulativeWeights[i] = total;
+            }
+        }
+
+        static Histogram read(File file) throws IOException {
+            List<long[]> ranges = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("[\\s,;]+");
+                if (columns.length != 2) {
+                    throw new IllegalArgumentException("Invalid line \"" + line + "\" in size histogram! Use e.g. \"2KB-16KB 70\".");
+                }
+                String[] range = columns[0].split("-");
+                long from = SizeParser.parseBytes(range[0]);
+                long to = range.length > 1 ? SizeParser.parseBytes(range[1]) : from;
+                if (from > to) {
+                    throw new IllegalArgumentException("Invalid size range \"" + columns[0] + "\" in size histogram!");
+                }
+                ranges.add(new long[]{from, to});
+                weights.add(Double.parseDouble(columns[1]));
+            }
+            if (ranges.isEmpty()) {
+                throw new IllegalArgumentException("Size histogram \"" + file + "\" has no buckets!");
+            }
+            return new Histogram(ranges, weights);
+        }
+
+        @Override
+        public long sample(SplittableRandom random) {
+            double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            int bucket = 0;
+            while (bucket < cumulativeWeights.length - 1 && value >= cumulativeWeights[bucket]) {
+                bucket++;
+            }
+            return from[bucket] + (long) (random.nextDouble() * (to[bucket] - from[bucket] + 1L));
+        }
+    }
+}
@@ -1,107 +1,520 @@
-package com.giraone.s3.objectstore.testdata;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.giraone.s3.objectstore.testloader.ObjectStoreTestLoaderS3;
-
-/**
- * Overall test configuration
- */
-public class TestConfig {
-
-    private Class testRunner;
-    private String propertiesPath;
-    private String bucketName;
-    private String rootContainerName;
-    private int numberOfContainers;
-    private int numberOfDocumentsPerContainer;
-
-    private int numberOfThreads;
-
-    private DynamicConfigGenerator dynamicConfigGenerator;
-
-    public TestConfig() {
-
-        this.testRunner = ObjectStoreTestLoaderS3.class;
-        this.propertiesPath = "res:s3/cred.json";
-        this.bucketName = null;
-        this.rootContainerName = null;
-        this.dynamicConfigGenerator = new DefaultDynamicConfigGenerator();
-        this.numberOfContainers = 10;
-        this.numberOfDocumentsPerContainer = 100;
-        this.numberOfThreads = 1;
-    }
-
-    public Class getTestRunner() {
-        return testRunner;
-    }
-
-    public void setTestRunner(Class testRunner) {
-        this.testRunner = testRunner;
-    }
-
-    public String getPropertiesPath() {
-        return propertiesPath;
-    }
-
-    public void setPropertiesPath(String propertiesPath) {
-        this.propertiesPath = propertiesPath;
-    }
-
-    public String getBucketName() {
-        return bucketName;
-    }
-
-    public void setBucketName(String bucketName) {
-        this.bucketName = bucketName;
-    }
-
-    public String getRootContainerName() {
-        return rootContainerName;
-    }
-
-    public void setRootContainerName(String rootContainerName) {
-        this.rootContainerName = rootContainerName;
-    }
-
-    public int getNumberOfContainers() {
-        return numberOfContainers;
-    }
-
-    public void setNumberOfContainers(int numberOfContainers) {
-        this.numberOfContainers = numberOfContainers;
-    }
-
-    public int getNumberOfDocumentsPerContainer() {
-        return numberOfDocumentsPerContainer;
-    }
-
-    public void setNumberOfDocumentsPerContainer(int numberOfDocumentsPerContainer) {
-        this.numberOfDocumentsPerContainer = numberOfDocumentsPerContainer;
-    }
-
-    public int getNumberOfThreads() {
-        return numberOfThreads;
-    }
-
-    public void setNumberOfThreads(int numberOfThreads) {
-        this.numberOfThreads = numberOfThreads;
-    }
-
-    public DynamicConfigGenerator getDynamicConfigGenerator() {
-        return dynamicConfigGenerator;
-    }
-
-    public void setDynamicConfigGenerator(DynamicConfigGenerator dynamicConfigGenerator) {
-        this.dynamicConfigGenerator = dynamicConfigGenerator;
-    }
-
-    public String toString() {
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            return mapper.writeValueAsString(this);
-        } catch (JsonProcessingException e) {
-            return this.getClass().getSimpleName() + this.hashCode();
-        }
-    }
+package com.giraone.s3.objectstore.testdata;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giraone.s3.objectstore.testloader.ObjectStoreTestLoaderS3;
+
+/**
+ * Overall test configuration
+ */
+public class TestConfig {
+
+    private Class testRunner;
+    private String propertiesPath;
+    private String bucketName;
+    private String rootContainerName;
+    private int numberOfContainers;
+    private int numberOfDocumentsPerContainer;
+
+    private int numberOfThreads;
+    private int chunkSize;
+    private String executor;
+    private String loadProfile;
+    private int adaptiveMinConcurrency;
+    private int adaptiveMaxConcurrency;
+    private String workloadMix;
+    private int keyLimit;
+    private boolean readBenchmark;
+    private String keyDistribution;
+    private String readPrefix;
+    private String journalPath;
+    private int maxAttempts;
+    private long retryBaseDelayMillis;
+    private long retryMaxDelayMillis;
+    private double breakerErrorRate;
+    private long maxFailures;
+    private double maxFailureRate;
+    private String failureFile;
+    private long reportIntervalMillis;
+    private String reportFile;
+    private int metricsPort;
+    private boolean phaseTiming;
+    private String resultFile;
+    private int numberOfTemplates;
+    private String corpusPath;
+    private boolean generateCorpus;
+    private long breakerCooldownMillis;
+    private int numberOfWorkers;
+    private int coordinatorPort;
+    private String coordinator;
+    private boolean resume;
+    private long durationMillis;
+    private long warmupMillis;
+
+    private boolean pipeline;
+    private int numberOfGeneratorThreads;
+    private int queueCapacity;
+
+    private double rate;
+    private String arrivals;
+
+    private String backend;
+    private int maxInFlight;
+    private int numberOfEventLoopThreads;
+
+    private DynamicConfigGenerator dynamicConfigGenerator;
+
+    public TestConfig() {
+
+        this.testRunner = ObjectStoreTestLoaderS3.class;
+        this.propertiesPath = "res:s3/cred.json";
+        this.bucketName = null;
+        this.rootContainerName = null;
+        this.dynamicConfigGenerator = new DefaultDynamicConfigGenerator();
+        this.numberOfContainers = 10;
+        this.numberOfDocumentsPerContainer = 100;
+        this.numberOfThreads = 1;
+        this.chunkSize = 8;
+        this.executor = "platform";
+        this.loadProfile = null;
+        this.adaptiveMinConcurrency = 1;
+        this.adaptiveMaxConcurrency = 0;
+        this.workloadMix = null;
+        this.keyLimit = 100000;
+        this.readBenchmark = false;
+        this.keyDistribution = "uniform";
+        this.readPrefix = null;
+        this.journalPath = null;
+        this.maxAttempts = 3;
+        this.retryBaseDelayMillis = 100L;
+        this.retryMaxDelayMillis = 10000L;
+        this.breakerErrorRate = 0.5;
+        this.breakerCooldownMillis = 5000L;
+        this.maxFailures = -1L;
+        this.maxFailureRate = -1.0;
+        this.failureFile = null;
+        this.reportIntervalMillis = 0L;
+        this.reportFile = null;
+        this.metricsPort = 0;
+        this.phaseTiming = false;
+        this.resultFile = null;
+        this.numberOfTemplates = 0;
+        this.corpusPath = null;
+        this.generateCorpus = false;
+        this.numberOfWorkers = 2;
+        this.coordinatorPort = 7070;
+        this.coordinator = null;
+        this.resume = false;
+        this.durationMillis = 0L;
+        this.warmupMillis = 0L;
+        this.pipeline = false;
+        this.numberOfGeneratorThreads = Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = 64;
+        this.rate = 0.0;
+        this.arrivals = "constant";
+        this.backend = "s3";
+        this.maxInFlight = 1000;
+        this.numberOfEventLoopThreads = 2;
+    }
+
+    public Class getTestRunner() {
+        return testRunner;
+    }
+
+    public void setTestRunner(Class testRunner) {
+        this.testRunner = testRunner;
+    }
+
+    public String getPropertiesPath() {
+        return propertiesPath;
+    }
+
+    public void setPropertiesPath(String propertiesPath) {
+        this.propertiesPath = propertiesPath;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public void setBucketName(String bucketName) {
+        this.bucketName = bucketName;
+    }
+
+    public String getRootContainerName() {
+        return rootContainerName;
+    }
+
+    public void setRootContainerName(String rootContainerName) {
+        this.rootContainerName = rootContainerName;
+    }
+
+    public int getNumberOfContainers() {
+        return numberOfContainers;
+    }
+
+    public void setNumberOfContainers(int numberOfContainers) {
+        this.numberOfContainers = numberOfContainers;
+    }
+
+    public int getNumberOfDocumentsPerContainer() {
+        return numberOfDocumentsPerContainer;
+    }
+
+    public void setNumberOfDocumentsPerContainer(int numberOfDocumentsPerContainer) {
+        this.numberOfDocumentsPerContainer = numberOfDocumentsPerContainer;
+    }
+
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    public void setNumberOfThreads(int numberOfThreads) {
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public String getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(String executor) {
+        this.executor = executor;
+    }
+
+    public int getAdaptiveMinConcurrency() {
+        return adaptiveMinConcurrency;
+    }
+
+    public void setAdaptiveMinConcurrency(int adaptiveMinConcurrency) {
+        this.adaptiveMinConcurrency = adaptiveMinConcurrency;
+    }
+
+    public int getAdaptiveMaxConcurrency() {
+        return adaptiveMaxConcurrency;
+    }
+
+    public void setAdaptiveMaxConcurrency(int adaptiveMaxConcurrency) {
+        this.adaptiveMaxConcurrency = adaptiveMaxConcurrency;
+    }
+
+    public String getLoadProfile() {
+        return loadProfile;
+    }
+
+    public void setLoadProfile(String loadProfile) {
+        this.loadProfile = loadProfile;
+    }
+
+    public String getWorkloadMix() {
+        return workloadMix;
+    }
+
+    public void setWorkloadMix(String workloadMix) {
+        this.workloadMix = workloadMix;
+    }
+
+    public int getKeyLimit() {
+        return keyLimit;
+    }
+
+    public void setKeyLimit(int keyLimit) {
+        this.keyLimit = keyLimit;
+    }
+
+    public boolean isReadBenchmark() {
+        return readBenchmark;
+    }
+
+    public void setReadBenchmark(boolean readBenchmark) {
+        this.readBenchmark = readBenchmark;
+    }
+
+    public String getKeyDistribution() {
+        return keyDistribution;
+    }
+
+    public void setKeyDistribution(String keyDistribution) {
+        this.keyDistribution = keyDistribution;
+    }
+
+    public String getReadPrefix() {
+        return readPrefix;
+    }
+
+    public void setReadPrefix(String readPrefix) {
+        this.readPrefix = readPrefix;
+    }
+
+    public int getNumberOfWorkers() {
+        return numberOfWorkers;
+    }
+
+    public void setNumberOfWorkers(int numberOfWorkers) {
+        this.numberOfWorkers = numberOfWorkers;
+    }
+
+    public int getCoordinatorPort() {
+        return coordinatorPort;
+    }
+
+    public void setCoordinatorPort(int coordinatorPort) {
+        this.coordinatorPort = coordinatorPort;
+    }
+
+    public String getCoordinator() {
+        return coordinator;
+    }
+
+    public void setCoordinator(String coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getRetryBaseDelayMillis() {
+        return retryBaseDelayMillis;
+    }
+
+    public void setRetryBaseDelayMillis(long retryBaseDelayMillis) {
+        this.retryBaseDelayMillis = retryBaseDelayMillis;
+    }
+
+    public long getRetryMaxDelayMillis() {
+        return retryMaxDelayMillis;
+    }
+
+    public void setRetryMaxDelayMillis(long retryMaxDelayMillis) {
+        this.retryMaxDelayMillis = retryMaxDelayMillis;
+    }
+
+    public double getBreakerErrorRate() {
+        return breakerErrorRate;
+    }
+
+    public void setBreakerErrorRate(double breakerErrorRate) {
+        this.breakerErrorRate = breakerErrorRate;
+    }
+
+    public long getBreakerCooldownMillis() {
+        return breakerCooldownMillis;
+    }
+
+    public void setBreakerCooldownMillis(long breakerCooldownMillis) {
+        this.breakerCooldownMillis = breakerCooldownMillis;
+    }
+
+    public long getMaxFailures() {
+        return maxFailures;
+    }
+
+    public void setMaxFailures(long maxFailures) {
+        this.maxFailures = maxFailures;
+    }
+
+    public double getMaxFailureRate() {
+        return maxFailureRate;
+    }
+
+    public void setMaxFailureRate(double maxFailureRate) {
+        this.maxFailureRate = maxFailureRate;
+    }
+
+    public String getFailureFile() {
+        return failureFile;
+    }
+
+    public void setFailureFile(String failureFile) {
+        this.failureFile = failureFile;
+    }
+
+    public long getReportIntervalMillis() {
+        return reportIntervalMillis;
+    }
+
+    public void setReportIntervalMillis(long reportIntervalMillis) {
+        this.reportIntervalMillis = reportIntervalMillis;
+    }
+
+    public String getReportFile() {
+        return reportFile;
+    }
+
+    public void setReportFile(String reportFile) {
+        this.reportFile = reportFile;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public void setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    public boolean isPhaseTiming() {
+        return phaseTiming;
+    }
+
+    public void setPhaseTiming(boolean phaseTiming) {
+        this.phaseTiming = phaseTiming;
+    }
+
+    public String getResultFile() {
+        return resultFile;
+    }
+
+    public void setResultFile(String resultFile) {
+        this.resultFile = resultFile;
+    }
+
+    public int getNumberOfTemplates() {
+        return numberOfTemplates;
+    }
+
+    public void setNumberOfTemplates(int numberOfTemplates) {
+        this.numberOfTemplates = numberOfTemplates;
+    }
+
+    public String getCorpusPath() {
+        return corpusPath;
+    }
+
+    public void setCorpusPath(String corpusPath) {
+        this.corpusPath = corpusPath;
+    }
+
+    public boolean isGenerateCorpus() {
+        return generateCorpus;
+    }
+
+    public void setGenerateCorpus(boolean generateCorpus) {
+        this.generateCorpus = generateCorpus;
+    }
+
+    public String getJournalPath() {
+        return journalPath;
+    }
+
+    public void setJournalPath(String journalPath) {
+        this.journalPath = journalPath;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    public void setWarmupMillis(long warmupMillis) {
+        this.warmupMillis = warmupMillis;
+    }
+
+    public boolean isPipeline() {
+        return pipeline;
+    }
+
+    public void setPipeline(boolean pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    public int getNumberOfGeneratorThreads() {
+        return numberOfGeneratorThreads;
+    }
+
+    public void setNumberOfGeneratorThreads(int numberOfGeneratorThreads) {
+        this.numberOfGeneratorThreads = numberOfGeneratorThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public String getArrivals() {
+        return arrivals;
+    }
+
+    public void setArrivals(String arrivals) {
+        this.arrivals = arrivals;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getNumberOfEventLoopThreads() {
+        return numberOfEventLoopThreads;
+    }
+
+    public void setNumberOfEventLoopThreads(int numberOfEventLoopThreads) {
+        this.numberOfEventLoopThreads = numberOfEventLoopThreads;
+    }
+
+    public DynamicConfigGenerator getDynamicConfigGenerator() {
+        return dynamicConfigGenerator;
+    }
+
+    public void setDynamicConfigGenerator(DynamicConfigGenerator dynamicConfigGenerator) {
+        this.dynamicConfigGenerator = dynamicConfigGenerator;
+    }
+
+    public String toString() {
+        ObjectMapper mapper = new ObjectMapper();
+        try {
+            return mapper.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            return this.getClass().getSimpleName() + this.hashCode();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.giraone.s3.objectstore.testloader;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Searches the sustainable concurrency with additive increase and multiplicative decrease (AIMD): once per interval
+ * the limit grows by one, as long as the store does not throttle and the latency stays close to the lowest latency
+ * seen so far. Overload signals of the store, i.e. throttling responses (503 SlowDown, 429) and timeouts, halve the
+ * limit, a latency above LATENCY_TOLERANCE times the baseline reduces it by 10 %. Other failed documents, e.g. a
+ * failed generation, do not change the limit. The limit of each interval is logged.
+ */
+class AdaptiveConcurrencyController extends LoadControllerBase {
+
+    private static final long INTERVAL_MILLIS = 1000L;
+    // The p90 latency of an interval may be up to this factor above the baseline, before the limit is reduced
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double OVERLOAD_DECREASE = 0.5;
+    private static final double LATENCY_DECREASE = 0.9;
+    // Intervals with fewer documents have no meaningful latency
+    private static final long MIN_SAMPLES = 10L;
+
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final LongSupplier overloadCounter;
+
+    // Written by the controller thread only
+    private long baselineMicros = Long.MAX_VALUE;
+    private int increases;
+    private int overloadDecreases;
+    private int latencyDecreases;
+    private double bestThroughput;
+    private int bestThroughputLimit;
+
+    /**
+     * @param overloadCounter Returns the number of throttling responses and timeouts so far.
+     */
+    AdaptiveConcurrencyController(int minConcurrency, int maxConcurrency, LongSupplier overloadCounter, StopSignal stopSignal) {
+        super(Math.max(1, minConcurrency), stopSignal, "adaptive-concurrency");
+        this.minConcurrency = Math.max(1, minConcurrency);
+        this.maxConcurrency = Math.max(this.minConcurrency, maxConcurrency);
+        this.overloadCounter = overloadCounter;
+    }
+
+    @Override
+    public void printStatistics() {
+        System.out.println("* AdaptiveConcurrency");
+        System.out.println("* Limit range          = " + minConcurrency + " - " + maxConcurrency + ", final limit " + limiter.getLimit());
+        System.out.println("* Adjustments          = " + increases + " increases, " + overloadDecreases + " overload decreases, "
+                + latencyDecreases + " latency decreases");
+        System.out.format("* Latency baseline     = p90 %.3f msecs%n", baselineMicros == Long.MAX_VALUE ? 0.0 : baselineMicros / 1000.0);
+        System.out.format("* Sustainable          = %.1f docs/s at limit %d%n", bestThroughput, bestThroughputLimit);
+    }
+
+    @Override
+    void control() {
+        // Reset the counters, so the first interval starts with empty statistics
+        latencyRecorder.getIntervalHistogram();
+        long lastOverloaded = overloadCounter.getAsLong();
+        long intervalStart = System.currentTimeMillis();
+        while (!stopSignal.isStopped()) {
+            try {
+                Thread.sleep(INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long overloaded = overloadCounter.getAsLong();
+            adjust(now - intervalStart, overloaded - lastOverloaded);
+            lastOverloaded = overloaded;
+            intervalStart = now;
+        }
+    }
+
+    private void adjust(long durationMillis, long overloaded) {
+        Histogram histogram = latencyRecorder.getIntervalHistogram();
+        long ok = documentsOk.sumThenReset();
+        long failed = documentsFailed.sumThenReset();
+        double throughput = durationMillis > 0 ? 1000.0 * ok / durationMillis : 0.0;
+        long p90Micros = histogram.getValueAtPercentile(90.0);
+        int limit = limiter.getLimit();
+
+        String decision;
+        int newLimit;
+        if (overloaded > 0L) {
+            newLimit = Math.max(minConcurrency, (int) (limit * OVERLOAD_DECREASE));
+            overloadDecreases++;
+            decision = "overloaded";
+        } else if (histogram.getTotalCount() < MIN_SAMPLES) {
+            newLimit = limit;
+            decision = "too few samples";
+        } else {
+            if (throughput > bestThroughput) {
+                bestThroughput = throughput;
+                bestThroughputLimit = limit;
+            }
+            baselineMicros = Math.min(baselineMicros, p90Micros);
+            if (p90Micros > LATENCY_TOLERANCE * baselineMicros) {
+                newLimit = Math.max(minConcurrency, (int) (limit * LATENCY_DECREASE));
+                latencyDecreases++;
+                decision = "latency";
+            } else {
+                newLimit = Math.min(maxConcurrency, limit + 1);
+                if (newLimit > limit) {
+                    increases++;
+                }
+                decision = "increase";
+            }
+        }
+        limiter.setLimit(newLimit);
+        System.out.format("* Adaptive limit %4d -> %4d (%s), ok = %6d, failed = %4d, overloaded = %4d, "
+                        + "throughput = %8.1f docs/s, p90 = %8.3f msecs%n",
+                limit, newLimit, decision, ok, failed, overloaded, throughput, p90Micros / 1000.0);
+    }
+}
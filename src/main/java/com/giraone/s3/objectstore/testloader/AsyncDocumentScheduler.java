@@ -0,0 +1,100 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scheduler for non-blocking backends: the documents are generated on a small CPU sized pool and the uploads are
+ * started without waiting for their completion. The number of uploads in flight is bounded by a semaphore.
+ */
+class AsyncDocumentScheduler implements DocumentScheduler {
+
+    /**
+     * The work done for a single document, which completes asynchronously.
+     */
+    @FunctionalInterface
+    interface AsyncDocumentAction {
+        /**
+         * @return a future completing with true, if the document was processed successfully
+         */
+        CompletableFuture<Boolean> process(int containerIndex, int documentIndex);
+    }
+
+    private final ExecutorService generatorExecutor;
+    private final int maxInFlight;
+    private final Semaphore inFlightPermits;
+    private final StopSignal stopSignal;
+
+    private volatile int maxObservedInFlight;
+
+    AsyncDocumentScheduler(int numberOfGeneratorThreads, int maxInFlight, StopSignal stopSignal) {
+        this.generatorExecutor = Executors.newFixedThreadPool(numberOfGeneratorThreads);
+        this.maxInFlight = maxInFlight;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.stopSignal = stopSignal;
+    }
+
+    @Override
+    public int schedule(DocumentIndexSpace indexSpace, long fromIndex, long toIndex, DocumentAction action) {
+        return scheduleAsync(indexSpace, fromIndex, toIndex,
+                (containerIndex, documentIndex) -> CompletableFuture.completedFuture(action.process(containerIndex, documentIndex)));
+    }
+
+    /**
+     * Process all documents of the given index range with at most maxInFlight documents at the same time
+     * and wait for the completion.
+     *
+     * @return the number of successfully processed documents
+     */
+    int scheduleAsync(DocumentIndexSpace indexSpace, long fromIndex, long toIndex, AsyncDocumentAction action) {
+        final AtomicInteger count = new AtomicInteger();
+        try {
+            for (long index = fromIndex; index < toIndex && !stopSignal.isStopped(); index++) {
+                inFlightPermits.acquire();
+                maxObservedInFlight = Math.max(maxObservedInFlight, maxInFlight - inFlightPermits.availablePermits());
+
+                final int containerIndex = indexSpace.containerIndex(index);
+                final int documentIndex = indexSpace.documentIndex(index);
+                generatorExecutor.execute(() -> {
+                    CompletableFuture<Boolean> future;
+                    try {
+                        future = action.process(containerIndex, documentIndex);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                        inFlightPermits.release();
+                        return;
+                    }
+                    future.whenComplete((ok, throwable) -> {
+                        if (throwable != null) {
+                            throwable.printStackTrace();
+                        } else if (ok) {
+                            count.incrementAndGet();
+                        }
+                        inFlightPermits.release();
+                    });
+                });
+            }
+            // All permits are available again, when the last document is completed
+            inFlightPermits.acquire(maxInFlight);
+            inFlightPermits.release(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return count.get();
+    }
+
+    @Override
+    public void shutdown() {
+        generatorExecutor.shutdown();
+    }
+
+    @Override
+    public void printStatistics(long durationMillis) {
+        System.out.println("* AsyncScheduler");
+        System.out.println("* Max in-flight          = " + maxInFlight);
+        System.out.println("* Max observed in-flight = " + maxObservedInFlight);
+    }
+}
@@ -0,0 +1,131 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Splits the flattened (containerIndex, documentIndex) space into small chunks, which the threads of a fork/join pool
+ * take in ascending order from a shared cursor. All threads stay busy, independent of the ratio between containers
+ * and threads, and the documents are created from the lowest index on, also in the unbounded index space of a
+ * --duration run.
+ */
+class ChunkedForkJoinDocumentScheduler implements DocumentScheduler {
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final StopSignal stopSignal;
+
+    private final Queue<WorkerStatistics> workerStatistics = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<WorkerStatistics> currentWorkerStatistics = ThreadLocal.withInitial(() -> {
+        WorkerStatistics statistics = new WorkerStatistics(Thread.currentThread().getName());
+        workerStatistics.add(statistics);
+        return statistics;
+    });
+
+    ChunkedForkJoinDocumentScheduler(int numberOfThreads, int chunkSize, StopSignal stopSignal) {
+        this.pool = new ForkJoinPool(numberOfThreads);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.stopSignal = stopSignal;
+    }
+
+    @Override
+    public int schedule(DocumentIndexSpace indexSpace, long fromIndex, long toIndex, DocumentAction action) {
+        AtomicLong cursor = new AtomicLong(fromIndex);
+        List<Callable<Integer>> workers = new ArrayList<>();
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            workers.add(() -> processChunks(indexSpace, cursor, toIndex, action));
+        }
+        int count = 0;
+        for (Future<Integer> worker : pool.invokeAll(workers)) {
+            try {
+                count += worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public void resetStatistics() {
+        for (WorkerStatistics statistics : workerStatistics) {
+            statistics.busyNanos.reset();
+            statistics.chunks.reset();
+            statistics.documents.reset();
+        }
+    }
+
+    @Override
+    public void printStatistics(long durationMillis) {
+        System.out.println("* ChunkedForkJoinScheduler");
+        System.out.println("* Parallelism = " + pool.getParallelism());
+        System.out.println("* Chunk size  = " + chunkSize);
+        for (WorkerStatistics statistics : workerStatistics) {
+            double busyMillis = statistics.busyNanos.sum() / 1_000_000.0;
+            System.out.format("* %-32s chunks = %6d, documents = %8d, busy = %10.1f msecs, utilization = %5.1f %%%n",
+                    statistics.workerName, statistics.chunks.sum(), statistics.documents.sum(), busyMillis,
+                    durationMillis > 0 ? 100.0 * busyMillis / durationMillis : 0.0);
+        }
+    }
+
+    /**
+     * Take the next chunk from the cursor, until the index space is exhausted or the run is stopped.
+     */
+    private int processChunks(DocumentIndexSpace indexSpace, AtomicLong cursor, long toIndex, DocumentAction action) {
+        int count = 0;
+        while (!stopSignal.isStopped()) {
+            long fromIndex = cursor.getAndAdd(chunkSize);
+            if (fromIndex >= toIndex) {
+                break;
+            }
+            count += processChunk(indexSpace, fromIndex, Math.min(toIndex, fromIndex + chunkSize), action);
+        }
+        return count;
+    }
+
+    private int processChunk(DocumentIndexSpace indexSpace, long fromIndex, long toIndex, DocumentAction action) {
+        WorkerStatistics statistics = currentWorkerStatistics.get();
+        statistics.chunks.increment();
+        int count = 0;
+        for (long index = fromIndex; index < toIndex && !stopSignal.isStopped(); index++) {
+            // The busy time is added per document, so a reset at the end of the warm-up splits a chunk
+            long start = System.nanoTime();
+            try {
+                if (action.process(indexSpace.containerIndex(index), indexSpace.documentIndex(index))) {
+                    count++;
+                }
+            } finally {
+                statistics.busyNanos.add(System.nanoTime() - start);
+                statistics.documents.increment();
+            }
+        }
+        return count;
+    }
+
+    private static class WorkerStatistics {
+        private final String workerName;
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder chunks = new LongAdder();
+        private final LongAdder documents = new LongAdder();
+
+        WorkerStatistics(String workerName) {
+            this.workerName = workerName;
+        }
+    }
+}
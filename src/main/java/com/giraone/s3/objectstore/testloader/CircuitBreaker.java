@@ -0,0 +1,126 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pauses all requests, when the error rate within the current window exceeds a threshold, e.g. because the store
+ * answers with 503 SlowDown. After the cooldown, requests are let through again and a new window starts.
+ * <p>
+ * Every request of every worker is recorded, so the window is counted with striped counters. The monitor is only
+ * taken, when a window ends or the breaker opens.
+ */
+class CircuitBreaker {
+
+    // Length of the window, in which the error rate is measured
+    private static final long WINDOW_MILLIS = 5000L;
+    // The breaker is not opened, before a window has a meaningful number of requests
+    private static final int MIN_REQUESTS = 20;
+
+    private final double errorRateThreshold;
+    private final long cooldownMillis;
+
+    private volatile long windowStart = System.currentTimeMillis();
+    private final LongAdder windowRequests = new LongAdder();
+    private final LongAdder windowFailures = new LongAdder();
+    private volatile long openUntil;
+
+    private int numberOfOpenings;
+    private long totalOpenMillis;
+
+    /**
+     * @param errorRateThreshold The error rate (0.0 - 1.0), above which the breaker opens. 0 disables the breaker.
+     * @param cooldownMillis     The time, for which the breaker stays open.
+     */
+    CircuitBreaker(double errorRateThreshold, long cooldownMillis) {
+        this.errorRateThreshold = errorRateThreshold;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    /**
+     * @return the time in milliseconds, until the breaker closes again or 0, if it is closed
+     */
+    long remainingOpenMillis() {
+        return Math.max(0L, openUntil - System.currentTimeMillis());
+    }
+
+    /**
+     * Block the calling thread, while the breaker is open.
+     */
+    void awaitClosed() throws InterruptedException {
+        long remaining;
+        while ((remaining = remainingOpenMillis()) > 0L) {
+            Thread.sleep(remaining);
+        }
+    }
+
+    void recordSuccess() {
+        record(false);
+    }
+
+    void recordFailure() {
+        record(true);
+    }
+
+    synchronized void resetStatistics() {
+        numberOfOpenings = 0;
+        totalOpenMillis = 0L;
+    }
+
+    synchronized void printStatistics() {
+        if (errorRateThreshold <= 0.0) {
+            System.out.println("* Circuit breaker      = disabled");
+        } else {
+            System.out.format("* Circuit breaker      = opened %d times above %.0f %% errors, open for %d msecs in total%n",
+                    numberOfOpenings, errorRateThreshold * 100.0, totalOpenMillis);
+        }
+    }
+
+    private void record(boolean failure) {
+        if (errorRateThreshold <= 0.0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - windowStart > WINDOW_MILLIS) {
+            startWindow(windowStart, now);
+        }
+        windowRequests.increment();
+        if (!failure) {
+            return;
+        }
+        windowFailures.increment();
+        // Only a failure can raise the error rate above the threshold
+        if (now >= openUntil && exceedsThreshold()) {
+            open(now);
+        }
+    }
+
+    private boolean exceedsThreshold() {
+        long requests = windowRequests.sum();
+        return requests >= MIN_REQUESTS && windowFailures.sum() > errorRateThreshold * requests;
+    }
+
+    private synchronized void startWindow(long expectedStart, long now) {
+        // Another thread may have started the window already
+        if (windowStart == expectedStart) {
+            windowRequests.reset();
+            windowFailures.reset();
+            windowStart = now;
+        }
+    }
+
+    private void open(long now) {
+        synchronized (this) {
+            if (now < openUntil || !exceedsThreshold()) {
+                return;
+            }
+            openUntil = now + cooldownMillis;
+            numberOfOpenings++;
+            totalOpenMillis += cooldownMillis;
+            // The requests after the cooldown start a new window
+            windowRequests.reset();
+            windowFailures.reset();
+            windowStart = openUntil;
+        }
+        ObjectStoreTestLoaderBase.printState("CIRCUIT BREAKER opened for " + cooldownMillis + " msecs");
+    }
+}
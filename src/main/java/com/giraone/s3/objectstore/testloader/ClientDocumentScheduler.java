@@ -0,0 +1,101 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a fixed number of simulated clients, each one as a single long-running task on the given executor.
+ * The clients take chunks of documents from a shared cursor until the index range is exhausted.
+ * With a virtual thread executor, tens of thousands of clients can be simulated without one OS thread per client.
+ */
+class ClientDocumentScheduler implements DocumentScheduler {
+
+    private final ExecutorService executor;
+    private final String executorType;
+    private final int numberOfClients;
+    private final int chunkSize;
+    private final StopSignal stopSignal;
+
+    private volatile long minDocumentsPerClient;
+    private volatile long maxDocumentsPerClient;
+    private final AtomicLong maxBusyNanos = new AtomicLong();
+    private final AtomicLong totalBusyNanos = new AtomicLong();
+
+    ClientDocumentScheduler(ExecutorService executor, String executorType, int numberOfClients, int chunkSize, StopSignal stopSignal) {
+        this.executor = executor;
+        this.executorType = executorType;
+        this.numberOfClients = numberOfClients;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.stopSignal = stopSignal;
+    }
+
+    @Override
+    public int schedule(DocumentIndexSpace indexSpace, long fromIndex, long toIndex, DocumentAction action) {
+
+        final AtomicLong cursor = new AtomicLong(fromIndex);
+        final long[] documentsPerClient = new long[numberOfClients];
+
+        List<Future<Integer>> resultList = new ArrayList<>();
+        for (int client = 0; client < numberOfClients; client++) {
+            final int clientIndex = client;
+            resultList.add(executor.submit(() -> {
+                long start = System.nanoTime();
+                int count = 0;
+                long chunkStart;
+                while (!stopSignal.isStopped() && (chunkStart = cursor.getAndAdd(chunkSize)) < toIndex) {
+                    long chunkEnd = Math.min(chunkStart + chunkSize, toIndex);
+                    for (long index = chunkStart; index < chunkEnd && !stopSignal.isStopped(); index++) {
+                        if (action.process(indexSpace.containerIndex(index), indexSpace.documentIndex(index))) {
+                            count++;
+                        }
+                    }
+                    documentsPerClient[clientIndex] += chunkEnd - chunkStart;
+                }
+                long busyNanos = System.nanoTime() - start;
+                totalBusyNanos.addAndGet(busyNanos);
+                maxBusyNanos.accumulateAndGet(busyNanos, Math::max);
+                return count;
+            }));
+        }
+
+        int totalCount = 0;
+        for (Future<Integer> future : resultList) {
+            // because Future.get() waits for task to get completed, we can sum up the total number of created documents
+            try {
+                totalCount += future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = 0L;
+        for (long documents : documentsPerClient) {
+            min = Math.min(min, documents);
+            max = Math.max(max, documents);
+        }
+        minDocumentsPerClient = min;
+        maxDocumentsPerClient = max;
+        return totalCount;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void printStatistics(long durationMillis) {
+        System.out.println("* ClientScheduler");
+        System.out.println("* Executor             = " + executorType);
+        System.out.println("* Simulated clients    = " + numberOfClients);
+        System.out.println("* Chunk size           = " + chunkSize);
+        System.out.println("* Documents per client = min " + minDocumentsPerClient + ", max " + maxDocumentsPerClient);
+        System.out.format("* Client busy time     = mean %.1f msecs, max %.1f msecs%n",
+                totalBusyNanos.get() / 1_000_000.0 / numberOfClients, maxBusyNanos.get() / 1_000_000.0);
+    }
+}
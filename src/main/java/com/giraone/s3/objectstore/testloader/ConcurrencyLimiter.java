@@ -0,0 +1,71 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A semaphore, whose number of permits can be changed while threads are waiting.
+ * Uses a ReentrantLock instead of synchronized, so waiting virtual threads do not pin their carrier thread.
+ */
+final class ConcurrencyLimiter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    private int limit;
+    private int inUse;
+
+    ConcurrencyLimiter(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inUse >= limit) {
+                permitAvailable.await();
+            }
+            inUse++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release() {
+        lock.lock();
+        try {
+            inUse--;
+            permitAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void setLimit(int limit) {
+        lock.lock();
+        try {
+            this.limit = Math.max(1, limit);
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getInUse() {
+        lock.lock();
+        try {
+            return inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
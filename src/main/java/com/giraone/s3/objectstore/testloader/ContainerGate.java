@@ -0,0 +1,172 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+/**
+ * Creates each container exactly once, on the worker thread that first needs it. Workers processing other documents
+ * of the same container wait for the creation, documents of other containers are not blocked. So the upload of a
+ * container's documents starts as soon as its folder marker exists, instead of after the creation of all containers.
+ * Containers without documents are created by a small background pool, which competes with the workers for each
+ * container.
+ */
+class ContainerGate {
+
+    /**
+     * The creation of a single container. Waiting uses a latch instead of a CompletableFuture, because
+     * CompletableFuture.join() in a ForkJoinPool worker starts compensation threads, which exceed the configured
+     * number of threads.
+     */
+    private static final class Creation {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean ok;
+
+        void complete(boolean ok) {
+            this.ok = ok;
+            done.countDown();
+        }
+
+        boolean isDone() {
+            return done.getCount() == 0L;
+        }
+
+        boolean await() {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return ok;
+        }
+    }
+
+    private final IntPredicate containerCreator;
+    private final boolean stopOnFailure;
+    private final ConcurrentMap<Integer, Creation> containers = new ConcurrentHashMap<>();
+
+    // Once a container creation failed, no further containers are created, unless failures are tolerated
+    private volatile boolean failed;
+
+    private volatile ExecutorService backgroundCreation;
+
+    private volatile long firstStartNanos;
+    private volatile long lastEndNanos;
+
+    /**
+     * @param containerCreator Creates the container with the given index and returns true on success.
+     * @param stopOnFailure    If true, no further containers are created after the first failed one.
+     */
+    ContainerGate(IntPredicate containerCreator, boolean stopOnFailure) {
+        this.containerCreator = containerCreator;
+        this.stopOnFailure = stopOnFailure;
+    }
+
+    /**
+     * Create the container, if this was not done before, or wait until another thread has created it.
+     *
+     * @return true, if the container exists
+     */
+    boolean awaitContainer(int containerIndex) {
+        Creation existing = containers.get(containerIndex);
+        if (existing == null) {
+            Creation creation = new Creation();
+            existing = containers.putIfAbsent(containerIndex, creation);
+            if (existing == null) {
+                existing = creation;
+                creation.complete(createContainer(containerIndex));
+            }
+        }
+        return existing.await();
+    }
+
+    /**
+     * Create the containers of the given range in the background, also those without any document, e.g. with --docs 0.
+     * Workers still wait for a container with awaitContainer and create it themselves, when they need it first.
+     *
+     * @param toContainer The container after the last one (exclusive).
+     */
+    void createInBackground(int fromContainer, int toContainer, int numberOfThreads) {
+        if (fromContainer >= toContainer) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(numberOfThreads, toContainer - fromContainer)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "container-creator");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        for (int containerIndex = fromContainer; containerIndex < toContainer; containerIndex++) {
+            final int index = containerIndex;
+            executor.execute(() -> awaitContainer(index));
+        }
+        executor.shutdown();
+        this.backgroundCreation = executor;
+    }
+
+    /**
+     * Wait, until the containers of createInBackground are created.
+     */
+    void awaitBackgroundCreation() {
+        ExecutorService executor = backgroundCreation;
+        if (executor == null) {
+            return;
+        }
+        try {
+            while (!executor.awaitTermination(1L, TimeUnit.SECONDS)) {
+                // Wait for the remaining containers
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    int getNumberOfCreatedContainers() {
+        int count = 0;
+        for (Creation creation : containers.values()) {
+            if (creation.isDone() && creation.await()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the time between the start of the first and the end of the last container creation
+     */
+    long getDurationMillis() {
+        return firstStartNanos == 0L ? 0L : (lastEndNanos - firstStartNanos) / 1_000_000L;
+    }
+
+    private boolean createContainer(int containerIndex) {
+        if (failed) {
+            return false;
+        }
+        long start = System.nanoTime();
+        synchronized (this) {
+            if (firstStartNanos == 0L) {
+                firstStartNanos = start;
+            }
+        }
+        boolean ok;
+        try {
+            ok = containerCreator.test(containerIndex);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            ok = false;
+        }
+        if (!ok && stopOnFailure) {
+            failed = true;
+        }
+        long end = System.nanoTime();
+        synchronized (this) {
+            lastEndNanos = Math.max(lastEndNanos, end);
+        }
+        return ok;
+    }
+}
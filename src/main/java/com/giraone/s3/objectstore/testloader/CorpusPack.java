@@ -0,0 +1,245 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.giraone.s3.objectstore.testdata.DocumentMetaData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A corpus of pre-generated documents, written by --run generate-corpus and replayed by a load with --corpus.
+ * <p>
+ * The pack file contains the bytes of the documents one after the other. The index file (name of the pack file with
+ * ".idx") has one JSON line per document with its indexes, offset and length in the pack, object path and meta data.
+ * Both files are only appended, so a generation can be resumed with --journal. A document written again replaces
+ * the former one.
+ * <p>
+ * For the replay, the pack and the index are memory mapped. Only the offsets are kept on the heap, the object path
+ * and the meta data are parsed from the mapped index line, when a document is uploaded.
+ */
+class CorpusPack {
+
+    static final String INDEX_SUFFIX = ".idx";
+
+    // A single mapping is limited to 2 GB, larger packs are mapped in regions of about this size
+    private static final long REGION_SIZE = 1024L * 1024L * 1024L;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * The position of a document in the pack and of its line in the index.
+     */
+    private static final class Entry {
+        private final long key;
+        private final long offset;
+        private final int length;
+        private final int lineOffset;
+        private final int lineLength;
+        private int region;
+        private int position;
+
+        Entry(long key, long offset, int length, int lineOffset, int lineLength) {
+            this.key = key;
+            this.offset = offset;
+            this.length = length;
+            this.lineOffset = lineOffset;
+            this.lineLength = lineLength;
+        }
+    }
+
+    private final File packFile;
+    // Sorted by key
+    private final Entry[] entries;
+    private final MappedByteBuffer[] regions;
+    private final MappedByteBuffer index;
+    private final long packSize;
+
+    private CorpusPack(File packFile, Entry[] entries, MappedByteBuffer[] regions, MappedByteBuffer index, long packSize) {
+        this.packFile = packFile;
+        this.entries = entries;
+        this.regions = regions;
+        this.index = index;
+        this.packSize = packSize;
+    }
+
+    static File indexFile(File packFile) {
+        return new File(packFile.getPath() + INDEX_SUFFIX);
+    }
+
+    /**
+     * @return the index line of a document, terminated by a line feed
+     */
+    static byte[] indexLine(GeneratedDocument document, long offset, long length) throws IOException {
+        ObjectNode line = MAPPER.createObjectNode();
+        line.put("containerIndex", document.getContainerIndex());
+        line.put("documentIndex", document.getDocumentIndex());
+        line.put("offset", offset);
+        line.put("length", length);
+        line.put("objectPath", document.getObjectPath());
+        line.set("metaData", MAPPER.valueToTree(document.getMetaData()));
+        byte[] json = MAPPER.writeValueAsBytes(line);
+        byte[] bytes = Arrays.copyOf(json, json.length + 1);
+        bytes[json.length] = '\n';
+        return bytes;
+    }
+
+    /**
+     * Read the index and map the pack file.
+     */
+    static CorpusPack open(File packFile) throws IOException {
+
+        MappedByteBuffer index;
+        try (FileChannel channel = FileChannel.open(indexFile(packFile).toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The index of corpus " + packFile + " is larger than 2 GB!");
+            }
+            index = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+        }
+
+        List<Entry> lines = new ArrayList<>();
+        byte[] line = new byte[1024];
+        int lineStart = 0;
+        for (int i = 0; i < index.limit(); i++) {
+            if (index.get(i) != '\n') {
+                continue;
+            }
+            int lineLength = i - lineStart;
+            if (lineLength > line.length) {
+                line = new byte[lineLength];
+            }
+            index.position(lineStart);
+            index.get(line, 0, lineLength);
+            JsonNode node = MAPPER.readTree(new String(line, 0, lineLength, StandardCharsets.UTF_8));
+            long length = node.get("length").asLong();
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Document " + node.get("containerIndex") + "/" + node.get("documentIndex")
+                        + " of corpus " + packFile + " is larger than 2 GB!");
+            }
+            lines.add(new Entry(key(node.get("containerIndex").asInt(), node.get("documentIndex").asInt()),
+                    node.get("offset").asLong(), (int) length, lineStart, lineLength));
+            lineStart = i + 1;
+        }
+
+        // The sort is stable, so the last line of a document, which was written again, wins
+        lines.sort(Comparator.comparingLong(entry -> entry.key));
+        List<Entry> unique = new ArrayList<>(lines.size());
+        for (Entry entry : lines) {
+            if (!unique.isEmpty() && unique.get(unique.size() - 1).key == entry.key) {
+                unique.set(unique.size() - 1, entry);
+            } else {
+                unique.add(entry);
+            }
+        }
+        Entry[] entries = unique.toArray(new Entry[0]);
+
+        // Each document lies completely within one region
+        Entry[] byOffset = entries.clone();
+        Arrays.sort(byOffset, Comparator.comparingLong(entry -> entry.offset));
+        List<long[]> regionBounds = new ArrayList<>();
+        for (Entry entry : byOffset) {
+            long[] bounds = regionBounds.isEmpty() ? null : regionBounds.get(regionBounds.size() - 1);
+            long end = entry.offset + entry.length;
+            if (bounds == null || end - bounds[0] > Math.max(REGION_SIZE, entry.length)) {
+                bounds = new long[]{entry.offset, end};
+                regionBounds.add(bounds);
+            }
+            bounds[1] = Math.max(bounds[1], end);
+            entry.region = regionBounds.size() - 1;
+            entry.position = (int) (entry.offset - bounds[0]);
+        }
+
+        MappedByteBuffer[] regions = new MappedByteBuffer[regionBounds.size()];
+        long packSize;
+        // The mappings stay valid, when the channel is closed
+        try (FileChannel channel = FileChannel.open(packFile.toPath(), StandardOpenOption.READ)) {
+            packSize = channel.size();
+            for (int i = 0; i < regions.length; i++) {
+                long[] bounds = regionBounds.get(i);
+                if (bounds[1] > packSize) {
+                    throw new IllegalArgumentException("The index of corpus " + packFile + " points behind the end of the pack!");
+                }
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[0], bounds[1] - bounds[0]);
+            }
+        }
+        return new CorpusPack(packFile, entries, regions, index, packSize);
+    }
+
+    int getNumberOfDocuments() {
+        return entries.length;
+    }
+
+    long getPackSize() {
+        return packSize;
+    }
+
+    File getPackFile() {
+        return packFile;
+    }
+
+    boolean contains(int containerIndex, int documentIndex) {
+        return find(key(containerIndex, documentIndex)) >= 0;
+    }
+
+    /**
+     * @return the document as slice of the mapped pack or null, if the corpus does not contain it
+     */
+    GeneratedDocument document(int containerIndex, int documentIndex) {
+        int found = find(key(containerIndex, documentIndex));
+        if (found < 0) {
+            return null;
+        }
+        Entry entry = entries[found];
+
+        byte[] line = new byte[entry.lineLength];
+        ByteBuffer indexView = index.duplicate();
+        indexView.position(entry.lineOffset);
+        indexView.get(line);
+        JsonNode node;
+        DocumentMetaData metaData;
+        try {
+            node = MAPPER.readTree(line);
+            metaData = MAPPER.treeToValue(node.get("metaData"), DocumentMetaData.class);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        ByteBuffer slice = regions[entry.region].duplicate();
+        slice.position(entry.position);
+        slice.limit(entry.position + entry.length);
+        return new GeneratedDocument(containerIndex, documentIndex, node.get("objectPath").asText(), metaData, slice.slice());
+    }
+
+    private int find(long key) {
+        int low = 0;
+        int high = entries.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = entries[middle].key;
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // Documents of the root container have the container index -1
+    private static long key(int containerIndex, int documentIndex) {
+        return ((long) containerIndex << 32) | (documentIndex & 0xFFFFFFFFL);
+    }
+}
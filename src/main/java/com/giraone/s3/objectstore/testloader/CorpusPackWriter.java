@@ -0,0 +1,113 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.codahale.metrics.Timer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loader backend of --run generate-corpus: instead of uploading the generated documents, it appends them to the pack
+ * file of a corpus (see CorpusPack). The documents are generated by the same threads and with the same options as in
+ * a load, e.g. templates, size distribution and seed. Each document reserves its range at the end of the pack, so
+ * the threads write concurrently. Its index line is appended after its bytes are written. Both are forced to the
+ * disk, before the document is reported as done, so a document marked in the --journal is durable.
+ */
+class CorpusPackWriter extends ObjectStoreTestLoaderBase {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final ThreadLocal<byte[]> copyBuffers = ThreadLocal.withInitial(() -> new byte[COPY_BUFFER_SIZE]);
+    private FileChannel pack;
+    private FileChannel index;
+    private AtomicLong packEnd;
+    private final AtomicLong documents = new AtomicLong();
+
+    CorpusPackWriter() {
+        super();
+    }
+
+    private synchronized void open() throws IOException {
+        if (this.pack != null) {
+            return;
+        }
+        File packFile = new File(testConfig.getCorpusPath());
+        this.pack = FileChannel.open(packFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.index = FileChannel.open(CorpusPack.indexFile(packFile).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        // A resumed generation appends to the existing pack
+        this.packEnd = new AtomicLong(this.pack.size());
+    }
+
+    @Override
+    boolean createContainer(int containerIndex) {
+        // The containers are created by the load, which replays the corpus
+        resultInfo.addContainerResultOk(containerIndex);
+        return true;
+    }
+
+    @Override
+    boolean checkRootContainer(String name) {
+        return true;
+    }
+
+    /**
+     * @return the offset of the document in the pack as "ETag"
+     */
+    @Override
+    String createDocument(String rootContainerName, GeneratedDocument document) {
+
+        final Timer.Context context = monitorDocumentUpload.time();
+        try {
+            open();
+            long length = document.getSize();
+            long offset = packEnd.getAndAdd(length);
+            byte[] buffer = copyBuffers.get();
+            long position = offset;
+            try (InputStream in = document.newInputStream()) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                    while (bytes.hasRemaining()) {
+                        position += pack.write(bytes, position);
+                    }
+                }
+            }
+            // The index line must not point to bytes, which are lost on a crash
+            pack.force(false);
+            ByteBuffer line = ByteBuffer.wrap(CorpusPack.indexLine(document, offset, length));
+            synchronized (this) {
+                while (line.hasRemaining()) {
+                    index.write(line);
+                }
+                index.force(false);
+            }
+            documents.incrementAndGet();
+            return Long.toString(offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write document to corpus " + testConfig.getCorpusPath() + "!", e);
+        } finally {
+            context.stop();
+        }
+    }
+
+    @Override
+    void shutdown() {
+        if (this.pack == null) {
+            return;
+        }
+        try {
+            this.pack.close();
+            this.index.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        System.out.format("* Corpus %s: %d documents written, pack size %.1f MB%n", testConfig.getCorpusPath(),
+                documents.get(), packEnd.get() / 1024.0 / 1024.0);
+    }
+}
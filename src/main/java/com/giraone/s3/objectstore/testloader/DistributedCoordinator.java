@@ -0,0 +1,147 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.giraone.s3.objectstore.testdata.TestConfig;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+/**
+ * Coordinator of a distributed load: waits for a number of worker processes (started with --run worker), splits the
+ * index space into one contiguous shard per worker, starts all workers at the same time and merges their results.
+ * <p>
+ * Line protocol over TCP:
+ * <ul>
+ * <li>worker: "HELLO containers=N documents=M"</li>
+ * <li>coordinator: "SHARD workerIndex fromIndex toIndex startAtEpochMillis"</li>
+ * <li>worker: "RESULT documents failed durationMillis base64(compressed latency histogram in micros)"</li>
+ * </ul>
+ * The workers use their own command line for everything else, so they must be started with the same --containers,
+ * --docs and --duration as the coordinator.
+ */
+class DistributedCoordinator {
+
+    // Time between handing out the shards and the common start, so that all workers receive their shard
+    private static final long START_DELAY_MILLIS = 2000L;
+
+    private static final class WorkerResult {
+        private final String name;
+        private final long fromIndex;
+        private final long toIndex;
+        private long documents;
+        private long failed;
+        private long durationMillis;
+
+        WorkerResult(String name, long fromIndex, long toIndex) {
+            this.name = name;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+    }
+
+    // Class has only static methods
+    private DistributedCoordinator() {
+    }
+
+    public static void run(TestConfig testConfig) throws IOException, DataFormatException {
+
+        int numberOfWorkers = testConfig.getNumberOfWorkers();
+        DocumentIndexSpace indexSpace = testConfig.getDurationMillis() > 0L
+                ? DocumentIndexSpace.unbounded(testConfig.getNumberOfContainers())
+                : new DocumentIndexSpace(testConfig.getNumberOfContainers(), testConfig.getNumberOfDocumentsPerContainer());
+
+        List<Socket> sockets = new ArrayList<>();
+        List<BufferedReader> readers = new ArrayList<>();
+        List<WorkerResult> results = new ArrayList<>();
+        Histogram mergedLatency = new Histogram(3);
+
+        try (ServerSocket serverSocket = new ServerSocket(testConfig.getCoordinatorPort())) {
+            System.out.println("Coordinator waiting for " + numberOfWorkers + " workers on port " + serverSocket.getLocalPort()
+                    + " to load " + indexSpace.describe());
+            while (sockets.size() < numberOfWorkers) {
+                Socket socket = serverSocket.accept();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                String hello = reader.readLine();
+                String expected = "HELLO " + indexSpace.describe();
+                if (!expected.equals(hello)) {
+                    System.out.println("Rejected worker " + socket.getRemoteSocketAddress() + " with \"" + hello
+                            + "\", expected \"" + expected + "\"");
+                    socket.close();
+                    continue;
+                }
+                System.out.println("Worker " + sockets.size() + " connected from " + socket.getRemoteSocketAddress());
+                sockets.add(socket);
+                readers.add(reader);
+            }
+
+            // Contiguous shards, the last shard takes the remainder
+            long startAt = System.currentTimeMillis() + START_DELAY_MILLIS;
+            long shardSize = indexSpace.size() / numberOfWorkers;
+            for (int i = 0; i < numberOfWorkers; i++) {
+                long fromIndex = i * shardSize;
+                long toIndex = i == numberOfWorkers - 1 ? indexSpace.size() : fromIndex + shardSize;
+                results.add(new WorkerResult(sockets.get(i).getRemoteSocketAddress().toString(), fromIndex, toIndex));
+                PrintWriter writer = new PrintWriter(new OutputStreamWriter(sockets.get(i).getOutputStream(), StandardCharsets.UTF_8), true);
+                writer.println("SHARD " + i + " " + fromIndex + " " + toIndex + " " + startAt);
+            }
+            ObjectStoreTestLoaderBase.printState("DISTRIBUTED RUN STARTED");
+
+            for (int i = 0; i < numberOfWorkers; i++) {
+                String line = readers.get(i).readLine();
+                String[] parts = line == null ? new String[0] : line.split(" ");
+                if (parts.length != 5 || !"RESULT".equals(parts[0])) {
+                    System.out.println("Worker " + i + " failed with \"" + line + "\"");
+                    continue;
+                }
+                WorkerResult result = results.get(i);
+                result.documents = Long.parseLong(parts[1]);
+                result.failed = Long.parseLong(parts[2]);
+                result.durationMillis = Long.parseLong(parts[3]);
+                byte[] encoded = Base64.getDecoder().decode(parts[4]);
+                mergedLatency.add(Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), 0L));
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+
+        printStatistics(results, mergedLatency);
+    }
+
+    private static void printStatistics(List<WorkerResult> results, Histogram mergedLatency) {
+        ObjectStoreTestLoaderBase.printState("DISTRIBUTED RUN FINISHED");
+        long documents = 0L;
+        long failed = 0L;
+        long maxDurationMillis = 0L;
+        for (int i = 0; i < results.size(); i++) {
+            WorkerResult result = results.get(i);
+            System.out.format("* Worker %-3d %-24s shard [%d, %d), documents = %d, failed = %d, %.1f docs/s%n",
+                    i, result.name, result.fromIndex, result.toIndex, result.documents, result.failed,
+                    result.durationMillis > 0L ? 1000.0 * result.documents / result.durationMillis : 0.0);
+            documents += result.documents;
+            failed += result.failed;
+            maxDurationMillis = Math.max(maxDurationMillis, result.durationMillis);
+        }
+        // The workers start together, so the slowest one determines the duration of the whole run
+        System.out.println("* Total documents = " + documents + ", failed = " + failed);
+        System.out.format("* Throughput      = %.1f docs/s%n", maxDurationMillis > 0L ? 1000.0 * documents / maxDurationMillis : 0.0);
+        System.out.format("* Upload latency  = p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, max %.3f msecs%n",
+                mergedLatency.getValueAtPercentile(50.0) / 1000.0,
+                mergedLatency.getValueAtPercentile(90.0) / 1000.0,
+                mergedLatency.getValueAtPercentile(99.0) / 1000.0,
+                mergedLatency.getValueAtPercentile(99.9) / 1000.0,
+                mergedLatency.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.giraone.s3.objectstore.testloader;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Worker side of a distributed load (see DistributedCoordinator): receives the shard of the index space and reports
+ * the result of the shard back to the coordinator.
+ */
+class DistributedWorker implements AutoCloseable {
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final PrintWriter writer;
+
+    private int workerIndex;
+    private long fromIndex;
+    private long toIndex;
+
+    private DistributedWorker(Socket socket) throws IOException {
+        this.socket = socket;
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+    }
+
+    /**
+     * Connect to the coordinator and wait for the shard and the common start time.
+     *
+     * @param coordinator host:port of the coordinator
+     */
+    static DistributedWorker connect(String coordinator, DocumentIndexSpace indexSpace) throws IOException {
+        int colon = coordinator.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Invalid coordinator \"" + coordinator + "\"! Use host:port.");
+        }
+        Socket socket = new Socket(coordinator.substring(0, colon), Integer.parseInt(coordinator.substring(colon + 1)));
+        DistributedWorker worker = new DistributedWorker(socket);
+        worker.writer.println("HELLO " + indexSpace.describe());
+        worker.awaitShard();
+        return worker;
+    }
+
+    int getWorkerIndex() {
+        return workerIndex;
+    }
+
+    long getFromIndex() {
+        return fromIndex;
+    }
+
+    long getToIndex() {
+        return toIndex;
+    }
+
+    void sendResult(long documents, long failed, long durationMillis, Histogram latencyMicros) {
+        ByteBuffer buffer = ByteBuffer.allocate(latencyMicros.getNeededByteBufferCapacity());
+        int length = latencyMicros.encodeIntoCompressedByteBuffer(buffer);
+        String encoded = Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+        writer.println("RESULT " + documents + " " + failed + " " + durationMillis + " " + encoded);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private void awaitShard() throws IOException {
+        String line = reader.readLine();
+        String[] parts = line == null ? new String[0] : line.split(" ");
+        if (parts.length != 5 || !"SHARD".equals(parts[0])) {
+            socket.close();
+            throw new IOException("Coordinator rejected the worker or sent \"" + line + "\"");
+        }
+        workerIndex = Integer.parseInt(parts[1]);
+        fromIndex = Long.parseLong(parts[2]);
+        toIndex = Long.parseLong(parts[3]);
+        long startAt = Long.parseLong(parts[4]);
+        ObjectStoreTestLoaderBase.printState("WORKER " + workerIndex + " shard [" + fromIndex + ", " + toIndex + ")");
+        long waitMillis = startAt - System.currentTimeMillis();
+        if (waitMillis > 0L) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
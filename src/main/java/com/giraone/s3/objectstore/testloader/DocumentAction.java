@@ -0,0 +1,15 @@
+package com.giraone.s3.objectstore.testloader;
+
+/**
+ * The work done for a single document, identified by its container index and its document index.
+ */
+@FunctionalInterface
+interface DocumentAction {
+
+    /**
+     * @param containerIndex The container index or -1, when the default container is used.
+     * @param documentIndex  The document index within the container starting with 1.
+     * @return true, if the document was processed successfully
+     */
+    boolean process(int containerIndex, int documentIndex);
+}
@@ -0,0 +1,105 @@
+package com.giraone.s3.objectstore.testloader;
+
+/**
+ * The (containerIndex, documentIndex) space of a test run flattened into a single range of long values,
+ * so it can be split into chunks independent of the number of containers.
+ */
+final class DocumentIndexSpace {
+
+    private final int numberOfContainers;
+    private final int numberOfDocumentsPerContainer;
+    private final boolean unbounded;
+
+    /**
+     * @param numberOfContainers            A number of containers or 0, when a single default container is used.
+     * @param numberOfDocumentsPerContainer The number of documents within each container.
+     */
+    DocumentIndexSpace(int numberOfContainers, int numberOfDocumentsPerContainer) {
+        this.numberOfContainers = numberOfContainers;
+        this.numberOfDocumentsPerContainer = numberOfDocumentsPerContainer;
+        this.unbounded = false;
+    }
+
+    private DocumentIndexSpace(int numberOfContainers) {
+        this.numberOfContainers = numberOfContainers;
+        this.numberOfDocumentsPerContainer = Integer.MAX_VALUE;
+        this.unbounded = true;
+    }
+
+    /**
+     * Index space for duration-bounded runs: the documents are distributed round-robin over the containers,
+     * so all containers grow evenly until the run is stopped.
+     *
+     * @param numberOfContainers A number of containers or 0, when a single default container is used.
+     */
+    static DocumentIndexSpace unbounded(int numberOfContainers) {
+        return new DocumentIndexSpace(numberOfContainers);
+    }
+
+    int getNumberOfContainers() {
+        return numberOfContainers;
+    }
+
+    int getNumberOfDocumentsPerContainer() {
+        return numberOfDocumentsPerContainer;
+    }
+
+    /**
+     * @return a description of the index space, which is equal for equal index spaces
+     */
+    String describe() {
+        return "containers=" + numberOfContainers + " documents=" + (unbounded ? "unbounded" : Integer.toString(numberOfDocumentsPerContainer));
+    }
+
+    long size() {
+        return (long) Math.max(1, numberOfContainers) * numberOfDocumentsPerContainer;
+    }
+
+    /**
+     * @return the first container of the documents in the index range. In an index space without documents per
+     * container or with round-robin distribution, each range has all containers.
+     */
+    int firstContainer(long fromIndex, long toIndex) {
+        if (numberOfContainers == 0 || unbounded || numberOfDocumentsPerContainer == 0 || fromIndex >= toIndex) {
+            return 0;
+        }
+        return containerIndex(fromIndex);
+    }
+
+    /**
+     * @return the container after the last container of the documents in the index range (exclusive)
+     */
+    int endContainer(long fromIndex, long toIndex) {
+        if (numberOfContainers == 0) {
+            return 0;
+        }
+        if (unbounded || numberOfDocumentsPerContainer == 0) {
+            return numberOfContainers;
+        }
+        return fromIndex < toIndex ? containerIndex(toIndex - 1L) + 1 : 0;
+    }
+
+    int containerIndex(long index) {
+        if (numberOfContainers == 0) {
+            return -1;
+        }
+        return (int) (unbounded ? index % numberOfContainers : index / numberOfDocumentsPerContainer);
+    }
+
+    /**
+     * @return the index of the given document, the inverse of containerIndex() and documentIndex()
+     */
+    long index(int containerIndex, int documentIndex) {
+        if (unbounded) {
+            return (long) (documentIndex - 1) * Math.max(1, numberOfContainers) + Math.max(0, containerIndex);
+        }
+        return (long) Math.max(0, containerIndex) * numberOfDocumentsPerContainer + documentIndex - 1;
+    }
+
+    int documentIndex(long index) {
+        if (unbounded) {
+            return (int) (index / Math.max(1, numberOfContainers)) + 1;
+        }
+        return (int) (index % numberOfDocumentsPerContainer) + 1;
+    }
+}
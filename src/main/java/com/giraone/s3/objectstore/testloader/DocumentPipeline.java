@@ -0,0 +1,192 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.giraone.s3.common.BufferPool;
+import com.giraone.s3.common.HdrHistogramReservoir;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * A two stage pipeline: the CPU bound document generation runs on the generator scheduler and feeds a bounded queue,
+ * which is drained by a separate pool of upload threads. The queue depth and the wait times on both sides of the
+ * queue show, which stage is the bottleneck.
+ */
+class DocumentPipeline {
+
+    /**
+     * Generation of a single document - the first stage of the pipeline.
+     */
+    @FunctionalInterface
+    interface DocumentGenerator {
+        /**
+         * @return the generated document or null, if the generation failed
+         */
+        GeneratedDocument generate(int containerIndex, int documentIndex);
+    }
+
+    // Marker to stop an upload thread
+    private static final GeneratedDocument END_OF_QUEUE = new GeneratedDocument(-1, -1, null, null, (BufferPool.PooledBuffer) null);
+
+    private final ExecutorService uploadExecutor;
+    private final int numberOfUploadThreads;
+    private final BlockingQueue<GeneratedDocument> queue;
+
+    private final MetricRegistry metrics;
+    private volatile Histogram monitorQueueDepth;
+    private volatile Timer monitorGeneratorBlocked;
+    private volatile Timer monitorUploaderIdle;
+    private volatile Timer monitorQueueResidence;
+    // Documents, for which the uploader threw an exception instead of recording a result
+    private final LongAdder uploadErrors = new LongAdder();
+
+    DocumentPipeline(MetricRegistry metrics, ExecutorService uploadExecutor, int numberOfUploadThreads, int queueCapacity) {
+        this.uploadExecutor = uploadExecutor;
+        this.numberOfUploadThreads = numberOfUploadThreads;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.metrics = metrics;
+        createMonitors();
+    }
+
+    private void createMonitors() {
+        this.monitorQueueDepth = metrics.histogram(MetricRegistry.name(DocumentPipeline.class, "QueueDepth"));
+        this.monitorGeneratorBlocked = HdrHistogramReservoir.timer(metrics, MetricRegistry.name(DocumentPipeline.class, "GeneratorBlocked"));
+        this.monitorUploaderIdle = HdrHistogramReservoir.timer(metrics, MetricRegistry.name(DocumentPipeline.class, "UploaderIdle"));
+        this.monitorQueueResidence = HdrHistogramReservoir.timer(metrics, MetricRegistry.name(DocumentPipeline.class, "QueueResidence"));
+    }
+
+    /**
+     * Start the statistics again, e.g. after the warm-up.
+     */
+    void resetStatistics() {
+        metrics.removeMatching((name, metric) -> name.startsWith(DocumentPipeline.class.getName() + "."));
+        createMonitors();
+        uploadErrors.reset();
+    }
+
+    /**
+     * Generate and upload all documents of the given index range and wait for the completion.
+     *
+     * @param generatorScheduler The scheduler on which the generation stage runs.
+     * @param indexSpace         The index space of the test run.
+     * @param fromIndex          The first index of the range (inclusive).
+     * @param toIndex            The last index of the range (exclusive).
+     * @param generator          The first stage, called for each document.
+     * @param uploader           The second stage, called for each successfully generated document.
+     * @return the number of successfully uploaded documents
+     */
+    int run(DocumentScheduler generatorScheduler, DocumentIndexSpace indexSpace, long fromIndex, long toIndex,
+            DocumentGenerator generator, Predicate<GeneratedDocument> uploader) {
+
+        List<Future<Integer>> uploadResults = new ArrayList<>();
+        for (int i = 0; i < numberOfUploadThreads; i++) {
+            uploadResults.add(uploadExecutor.submit(() -> drainQueue(uploader)));
+        }
+
+        try {
+            generatorScheduler.schedule(indexSpace, fromIndex, toIndex, (containerIndex, documentIndex) -> {
+                GeneratedDocument document = generator.generate(containerIndex, documentIndex);
+                return document != null && enqueue(document);
+            });
+        } finally {
+            stopUploaders();
+        }
+
+        int totalCount = 0;
+        for (Future<Integer> future : uploadResults) {
+            try {
+                totalCount += future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+        uploadExecutor.shutdown();
+        return totalCount;
+    }
+
+    void printStatistics() {
+        Snapshot depth = monitorQueueDepth.getSnapshot();
+        System.out.println("* DocumentPipeline");
+        System.out.println("* Upload threads          = " + numberOfUploadThreads);
+        System.out.println("* Queue capacity          = " + (queue.size() + queue.remainingCapacity()));
+        System.out.format("* Queue depth             = mean %.1f, max %d%n", depth.getMean(), depth.getMax());
+        printWaitTime("Generator blocked (put)", monitorGeneratorBlocked);
+        printWaitTime("Uploader idle (take)", monitorUploaderIdle);
+        printWaitTime("Queue residence", monitorQueueResidence);
+        System.out.println("* Upload errors           = " + uploadErrors.sum());
+
+        long generatorBlocked = totalNanos(monitorGeneratorBlocked);
+        long uploaderIdle = totalNanos(monitorUploaderIdle);
+        System.out.println("* Bottleneck              = " + (generatorBlocked > uploaderIdle ? "upload stage" : "generate stage"));
+    }
+
+    private boolean enqueue(GeneratedDocument document) {
+        monitorQueueDepth.update(queue.size());
+        final Timer.Context context = monitorGeneratorBlocked.time();
+        try {
+            document.setEnqueuedNanos(System.nanoTime());
+            queue.put(document);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            context.stop();
+        }
+    }
+
+    private void stopUploaders() {
+        try {
+            for (int i = 0; i < numberOfUploadThreads; i++) {
+                queue.put(END_OF_QUEUE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int drainQueue(Predicate<GeneratedDocument> uploader) throws InterruptedException {
+        int count = 0;
+        while (true) {
+            final Timer.Context context = monitorUploaderIdle.time();
+            GeneratedDocument document = queue.take();
+            context.stop();
+            if (document == END_OF_QUEUE) {
+                return count;
+            }
+            monitorQueueResidence.update(System.nanoTime() - document.getEnqueuedNanos(), TimeUnit.NANOSECONDS);
+            // An uploader, which stopped taking from the queue, would block the generators and stopUploaders() forever
+            try {
+                if (uploader.test(document)) {
+                    count++;
+                }
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                uploadErrors.increment();
+                document.release();
+            }
+        }
+    }
+
+    private static void printWaitTime(String name, Timer timer) {
+        Snapshot snapshot = timer.getSnapshot();
+        System.out.format("* %-23s = total %.1f msecs, mean %.3f msecs, p99 %.3f msecs%n", name,
+                totalNanos(timer) / 1_000_000.0, snapshot.getMean() / 1_000_000.0, snapshot.get99thPercentile() / 1_000_000.0);
+    }
+
+    // Estimated from the reservoir, since Dropwizard timers do not keep a sum
+    private static long totalNanos(Timer timer) {
+        return (long) (timer.getSnapshot().getMean() * timer.getCount());
+    }
+}
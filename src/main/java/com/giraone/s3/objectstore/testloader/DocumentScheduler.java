@@ -0,0 +1,31 @@
+package com.giraone.s3.objectstore.testloader;
+
+/**
+ * Strategy for distributing the documents of a test run on the available workers.
+ */
+interface DocumentScheduler {
+
+    /**
+     * Process all documents of the given index range and wait for the completion.
+     *
+     * @param indexSpace The index space of the test run.
+     * @param fromIndex  The first index of the range (inclusive).
+     * @param toIndex    The last index of the range (exclusive).
+     * @param action     The action called for each document.
+     * @return the number of successfully processed documents
+     */
+    int schedule(DocumentIndexSpace indexSpace, long fromIndex, long toIndex, DocumentAction action);
+
+    void shutdown();
+
+    /**
+     * Discard the statistics collected so far, e.g. at the end of the warm-up.
+     */
+    default void resetStatistics() {
+    }
+
+    /**
+     * @param durationMillis The wall clock duration of the scheduled run after the warm-up.
+     */
+    void printStatistics(long durationMillis);
+}
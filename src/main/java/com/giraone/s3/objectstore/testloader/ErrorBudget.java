@@ -0,0 +1,137 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Allows a run to continue past failed containers and documents up to an absolute number of failures or up to a
+ * failure rate. The failed items are appended to a failure file as tab-separated lines
+ * "container|document containerIndex documentIndex reason". Once the budget is exceeded, the run is stopped.
+ */
+class ErrorBudget {
+
+    // A failure rate is checked only after this number of items, so the first failure does not exceed it
+    private static final long MIN_ITEMS_FOR_RATE = 100L;
+
+    private final long maxFailures;
+    private final double maxFailureRate;
+    private final File failureFile;
+    private final StopSignal stopSignal;
+    private final BufferedWriter writer;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param maxFailures    The absolute number of allowed failures or -1.
+     * @param maxFailureRate The allowed rate of failures between 0 and 1 or -1.
+     * @param failureFile    The file for the failed items or null.
+     */
+    ErrorBudget(long maxFailures, double maxFailureRate, File failureFile, StopSignal stopSignal) {
+        this.maxFailures = maxFailures;
+        this.maxFailureRate = maxFailureRate;
+        this.failureFile = failureFile;
+        this.stopSignal = stopSignal;
+        if (failureFile != null) {
+            try {
+                this.writer = Files.newBufferedWriter(failureFile.toPath(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create failure file \"" + failureFile + "\"!", e);
+            }
+        } else {
+            this.writer = null;
+        }
+    }
+
+    /**
+     * @return true, if failures are tolerated up to the budget, false, if the first failure stops the current container
+     */
+    boolean isEnabled() {
+        return maxFailures >= 0L || maxFailureRate >= 0.0;
+    }
+
+    void recordSuccess() {
+        successes.increment();
+    }
+
+    void recordContainerFailure(int containerIndex, String reason) {
+        recordFailure("container\t" + containerIndex + "\t-\t" + reason);
+    }
+
+    void recordDocumentFailure(int containerIndex, int documentIndex, String reason) {
+        recordFailure("document\t" + containerIndex + "\t" + documentIndex + "\t" + reason);
+    }
+
+    /**
+     * Start the counting again, e.g. after the warm-up, so the budget applies to the measured part of the run. The
+     * failure file keeps the failed items of the warm-up.
+     */
+    void resetStatistics() {
+        successes.reset();
+        failures.reset();
+    }
+
+    void close() {
+        if (writer != null) {
+            synchronized (writer) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    void printStatistics() {
+        System.out.println("* ErrorBudget");
+        System.out.println("* Budget               = " + describe());
+        System.out.println("* Failures             = " + failures.sum() + " of " + (failures.sum() + successes.sum()) + " items");
+        if (failureFile != null) {
+            System.out.println("* Failure file         = " + failureFile);
+        }
+    }
+
+    private void recordFailure(String line) {
+        failures.increment();
+        if (writer != null) {
+            synchronized (writer) {
+                try {
+                    writer.write(line);
+                    writer.newLine();
+                    // Failures are rare, so each one is written at once and survives an aborted run
+                    writer.flush();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        checkBudget();
+    }
+
+    private void checkBudget() {
+        long failed = failures.sum();
+        long total = failed + successes.sum();
+        if (maxFailures >= 0L && failed > maxFailures) {
+            stopSignal.stop("error budget of " + describe() + " exceeded with " + failed + " failures of " + total + " items");
+        } else if (maxFailureRate >= 0.0 && total >= MIN_ITEMS_FOR_RATE && (double) failed / total > maxFailureRate) {
+            stopSignal.stop("error budget of " + describe() + " exceeded with " + failed + " failures of " + total + " items");
+        }
+    }
+
+    private String describe() {
+        if (maxFailures >= 0L) {
+            return maxFailures + " failures";
+        } else if (maxFailureRate >= 0.0) {
+            return String.format("%.2f %%", maxFailureRate * 100.0);
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,127 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.giraone.s3.common.BufferPool;
+import com.giraone.s3.common.ByteBufferInputStream;
+import com.giraone.s3.objectstore.testdata.DocumentMetaData;
+import com.giraone.s3.testdocuments.PayloadGenerator;
+import com.giraone.s3.testdocuments.PdfPadding;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A generated test document (PDF in a pooled buffer and its meta data), that is ready to be uploaded.
+ * The buffer is released, when the upload is finished. With a size distribution, the PDF is padded with synthetic
+ * payload, which is generated while the document is uploaded. A document replayed from a corpus pack is a slice of
+ * the memory mapped pack file instead of a buffer.
+ */
+class GeneratedDocument {
+
+    private final int containerIndex;
+    private final int documentIndex;
+    private final String objectPath;
+    private final DocumentMetaData metaData;
+    private final BufferPool.PooledBuffer pdf;
+    // Only set for documents of a corpus pack
+    private final ByteBuffer mapped;
+    // Only set, if the document is padded to the size of the size distribution
+    private PdfPadding padding;
+    private PayloadGenerator payloadGenerator;
+    private long payloadSeed;
+
+    // Set, when the document is handed over from one pipeline stage to the next one
+    private long enqueuedNanos;
+
+    GeneratedDocument(int containerIndex, int documentIndex, String objectPath, DocumentMetaData metaData, BufferPool.PooledBuffer pdf) {
+        this.containerIndex = containerIndex;
+        this.documentIndex = documentIndex;
+        this.objectPath = objectPath;
+        this.metaData = metaData;
+        this.pdf = pdf;
+        this.mapped = null;
+    }
+
+    GeneratedDocument(int containerIndex, int documentIndex, String objectPath, DocumentMetaData metaData, ByteBuffer mapped) {
+        this.containerIndex = containerIndex;
+        this.documentIndex = documentIndex;
+        this.objectPath = objectPath;
+        this.metaData = metaData;
+        this.pdf = null;
+        this.mapped = mapped;
+    }
+
+    int getContainerIndex() {
+        return containerIndex;
+    }
+
+    int getDocumentIndex() {
+        return documentIndex;
+    }
+
+    String getObjectPath() {
+        return objectPath;
+    }
+
+    DocumentMetaData getMetaData() {
+        return metaData;
+    }
+
+    /**
+     * @return a read-only view on the content of a document, which is not padded
+     */
+    ByteBuffer asByteBuffer() {
+        return mapped != null ? mapped.asReadOnlyBuffer() : pdf.asByteBuffer();
+    }
+
+    /**
+     * Pad the PDF to the given size, if it is smaller.
+     *
+     * @param seed Distinguishes the payload of this document from the payloads of other documents.
+     */
+    void pad(long size, PayloadGenerator payloadGenerator, long seed) {
+        this.padding = PdfPadding.create(pdf.array(), pdf.size(), size);
+        this.payloadGenerator = payloadGenerator;
+        this.payloadSeed = seed;
+    }
+
+    boolean isPadded() {
+        return padding != null;
+    }
+
+    /**
+     * @return the size of the document including the padding in bytes
+     */
+    long getSize() {
+        if (mapped != null) {
+            return mapped.remaining();
+        }
+        return padding != null ? pdf.size() + padding.getLength() : pdf.size();
+    }
+
+    /**
+     * @return a new stream on the document including the padding, so each retry can read it from the beginning
+     */
+    InputStream newInputStream() {
+        if (mapped != null) {
+            return new ByteBufferInputStream(mapped);
+        }
+        return padding != null ? padding.newInputStream(pdf.array(), pdf.size(), payloadGenerator, payloadSeed) : pdf.newInputStream();
+    }
+
+    /**
+     * Return the PDF buffer to its pool, when the document is uploaded or skipped.
+     */
+    void release() {
+        if (pdf != null) {
+            pdf.release();
+        }
+    }
+
+    long getEnqueuedNanos() {
+        return enqueuedNanos;
+    }
+
+    void setEnqueuedNanos(long enqueuedNanos) {
+        this.enqueuedNanos = enqueuedNanos;
+    }
+}
@@ -0,0 +1,205 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.ScheduledReporter;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.giraone.s3.common.HdrHistogramReservoir;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the metrics of the interval since the last report: per timer the count, throughput and latency
+ * percentiles, for the whole run the failures, MB/s, in-flight requests, completed items and the ETA.
+ * The rows are printed and, if a file is given, appended as CSV or, for files ending with ".json" or ".jsonl",
+ * as JSON lines with the same fields, so the client timeline can be aligned with the dashboards of the store.
+ */
+class IntervalReporter extends ScheduledReporter {
+
+    private static final String CSV_HEADER = "time,elapsed_s,operation,count,ops_per_s,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,"
+            + "failed,mb_per_s,in_flight,completed,eta_s";
+
+    private final long expectedItems;
+    private final long endMillis;
+    private final boolean json;
+    private final BufferedWriter writer;
+
+    private final long startMillis = System.currentTimeMillis();
+    private long lastReportMillis = startMillis;
+    // Histograms and counters of the last report, which are subtracted from the current ones
+    private final Map<String, Histogram> previousHistograms = new HashMap<>();
+    private final Map<String, Long> previousCounters = new HashMap<>();
+
+    /**
+     * @param file          The file for the rows or null, if the rows are only printed.
+     * @param expectedItems The number of items of the run or -1, if the run is not bounded by the number of items.
+     * @param endMillis     The planned end of the run or 0, if the run is not bounded by a duration.
+     */
+    IntervalReporter(MetricRegistry registry, File file, long expectedItems, long endMillis) {
+        super(registry, "interval-reporter", MetricFilter.ALL, TimeUnit.SECONDS, TimeUnit.MILLISECONDS);
+        this.expectedItems = expectedItems;
+        this.endMillis = endMillis;
+        this.json = file != null && (file.getName().endsWith(".json") || file.getName().endsWith(".jsonl"));
+        if (file != null) {
+            try {
+                this.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+                if (!json) {
+                    writer.write(CSV_HEADER);
+                    writer.newLine();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create report file \"" + file + "\"!", e);
+            }
+        } else {
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Stop the reporter, report the last, incomplete interval and close the file.
+     */
+    void finish() {
+        stop();
+        report();
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void report(SortedMap<String, Gauge> gauges, SortedMap<String, Counter> counters,
+                       SortedMap<String, com.codahale.metrics.Histogram> histograms, SortedMap<String, Meter> meters,
+                       SortedMap<String, Timer> timers) {
+
+        long now = System.currentTimeMillis();
+        double intervalSeconds = Math.max(1L, now - lastReportMillis) / 1000.0;
+        lastReportMillis = now;
+        long elapsedSeconds = (now - startMillis) / 1000L;
+
+        long failed = delta(counters, ObjectStoreTestLoaderBase.COUNTER_FAILED);
+        long completedInInterval = delta(counters, ObjectStoreTestLoaderBase.COUNTER_COMPLETED);
+        double megaBytesPerSecond = delta(counters, ObjectStoreTestLoaderBase.COUNTER_TRANSFERRED_BYTES) / 1_000_000.0 / intervalSeconds;
+        long inFlight = count(counters, ObjectStoreTestLoaderBase.COUNTER_IN_FLIGHT);
+        long completed = count(counters, ObjectStoreTestLoaderBase.COUNTER_COMPLETED);
+        long etaSeconds = estimateRemainingSeconds(now, completed, completedInInterval / intervalSeconds);
+
+        String time = Instant.ofEpochMilli(now).toString();
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            Histogram interval = intervalHistogram(entry.getKey(), entry.getValue().getSnapshot());
+            if (interval == null || interval.getTotalCount() == 0L) {
+                continue;
+            }
+            String operation = entry.getKey().substring(entry.getKey().lastIndexOf('.') + 1);
+            rows.add(new Object[]{time, elapsedSeconds, operation, interval.getTotalCount(),
+                    interval.getTotalCount() / intervalSeconds,
+                    millis(interval.getValueAtPercentile(50.0)), millis(interval.getValueAtPercentile(90.0)),
+                    millis(interval.getValueAtPercentile(99.0)), millis(interval.getValueAtPercentile(99.9)),
+                    millis(interval.getMaxValue()),
+                    failed, megaBytesPerSecond, inFlight, completed, etaSeconds});
+            System.out.format(Locale.ROOT, "* %2$6d s %3$-20s %4$8d ops %5$8.1f ops/s, p50 %6$8.3f, p90 %7$8.3f, p99 %8$8.3f, p99.9 %9$8.3f, max %10$8.3f msecs%n",
+                    rows.get(rows.size() - 1));
+        }
+        System.out.format(Locale.ROOT, "* %6d s failed = %d, %.1f MB/s, in-flight = %d, completed = %d, ETA = %s%n",
+                elapsedSeconds, failed, megaBytesPerSecond, inFlight, completed, etaSeconds < 0L ? "-" : etaSeconds + " s");
+        if (rows.isEmpty()) {
+            // Keep one row per interval, even if no operation completed
+            rows.add(new Object[]{time, elapsedSeconds, "", 0L, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0,
+                    failed, megaBytesPerSecond, inFlight, completed, etaSeconds});
+        }
+        write(rows);
+    }
+
+    private void write(List<Object[]> rows) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            for (Object[] row : rows) {
+                if (json) {
+                    writer.write(String.format(Locale.ROOT, "{\"time\":\"%s\",\"elapsed_s\":%d,\"operation\":\"%s\",\"count\":%d,"
+                            + "\"ops_per_s\":%.1f,\"p50_ms\":%.3f,\"p90_ms\":%.3f,\"p99_ms\":%.3f,\"p999_ms\":%.3f,\"max_ms\":%.3f,"
+                            + "\"failed\":%d,\"mb_per_s\":%.3f,\"in_flight\":%d,\"completed\":%d,\"eta_s\":%d}", row));
+                } else {
+                    writer.write(String.format(Locale.ROOT, "%s,%d,%s,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%.3f,%d,%d,%d", row));
+                }
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return the values recorded since the last report or null, if the timer is not backed by an HdrHistogram
+     */
+    private Histogram intervalHistogram(String name, Snapshot snapshot) {
+        if (!(snapshot instanceof HdrHistogramReservoir.HdrSnapshot)) {
+            return null;
+        }
+        Histogram current = ((HdrHistogramReservoir.HdrSnapshot) snapshot).getHistogram();
+        Histogram previous = previousHistograms.put(name, current);
+        if (previous == null || previous.getTotalCount() > current.getTotalCount()) {
+            // New timer, e.g. replaced at the end of the warm-up
+            return current;
+        }
+        Histogram interval = current.copy();
+        try {
+            interval.subtract(previous);
+        } catch (RuntimeException e) {
+            return current;
+        }
+        return interval;
+    }
+
+    private long delta(SortedMap<String, Counter> counters, String name) {
+        long count = count(counters, name);
+        Long previous = previousCounters.put(name, count);
+        return previous == null ? count : count - previous;
+    }
+
+    private static long count(SortedMap<String, Counter> counters, String name) {
+        Counter counter = counters.get(name);
+        return counter == null ? 0L : counter.getCount();
+    }
+
+    private long estimateRemainingSeconds(long now, long completed, double itemsPerSecond) {
+        long eta = -1L;
+        if (expectedItems > 0L && itemsPerSecond > 0.0) {
+            eta = (long) (Math.max(0L, expectedItems - completed) / itemsPerSecond);
+        }
+        if (endMillis > 0L) {
+            long untilEnd = Math.max(0L, endMillis - now) / 1000L;
+            eta = eta < 0L ? untilEnd : Math.min(eta, untilEnd);
+        }
+        return eta;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The object keys known to a workload: the keys found at the start and the keys of the documents uploaded since.
+ * Deleted keys are removed, so reads are only done on existing objects. Each key is in the pool only once, also when an
+ * upload overwrites an existing object, so a deleted key is not picked again.
+ */
+class KeyPool {
+
+    private final List<String> keys = new ArrayList<>();
+    private final Set<String> members = new HashSet<>();
+
+    KeyPool(Collection<String> initialKeys) {
+        for (String key : initialKeys) {
+            add(key);
+        }
+    }
+
+    /**
+     * @return true, if the key was not in the pool before
+     */
+    synchronized boolean add(String key) {
+        if (!members.add(key)) {
+            return false;
+        }
+        keys.add(key);
+        return true;
+    }
+
+    /**
+     * @return a random key or null, if the pool is empty
+     */
+    synchronized String get(Random random) {
+        return keys.isEmpty() ? null : keys.get(random.nextInt(keys.size()));
+    }
+
+    /**
+     * Remove a random key. The last key is moved into the gap, so the removal does not shift the list.
+     *
+     * @return the removed key or null, if the pool is empty
+     */
+    synchronized String remove(Random random) {
+        if (keys.isEmpty()) {
+            return null;
+        }
+        int index = random.nextInt(keys.size());
+        String key = keys.get(index);
+        String last = keys.remove(keys.size() - 1);
+        if (index < keys.size()) {
+            keys.set(index, last);
+        }
+        members.remove(key);
+        return key;
+    }
+
+    synchronized int size() {
+        return keys.size();
+    }
+}
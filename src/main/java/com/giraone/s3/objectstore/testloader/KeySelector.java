@@ -0,0 +1,102 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the keys of a read benchmark from a fixed list of keys.
+ * <ul>
+ * <li>"uniform" - each key with the same probability</li>
+ * <li>"sequential" - the keys in the order of the listing, starting again at the end</li>
+ * <li>"zipf" or "zipf:1.2" - the key of rank k with a probability proportional to 1/k^s, default s = 1.0</li>
+ * </ul>
+ */
+abstract class KeySelector {
+
+    protected final List<String> keys;
+
+    KeySelector(List<String> keys) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("No keys to read!");
+        }
+        this.keys = keys;
+    }
+
+    abstract String next(Random random);
+
+    static KeySelector create(String distribution, List<String> keys) {
+        String name = distribution.trim().toLowerCase();
+        if ("uniform".equals(name)) {
+            return new Uniform(keys);
+        } else if ("sequential".equals(name)) {
+            return new Sequential(keys);
+        } else if ("zipf".equals(name)) {
+            return new Zipf(keys, 1.0);
+        } else if (name.startsWith("zipf:")) {
+            return new Zipf(keys, Double.parseDouble(name.substring(5)));
+        }
+        throw new IllegalArgumentException("Invalid key distribution \"" + distribution + "\"! Use uniform, sequential or zipf[:exponent].");
+    }
+
+    static final class Uniform extends KeySelector {
+
+        Uniform(List<String> keys) {
+            super(keys);
+        }
+
+        @Override
+        String next(Random random) {
+            return keys.get(random.nextInt(keys.size()));
+        }
+    }
+
+    static final class Sequential extends KeySelector {
+
+        private final AtomicLong cursor = new AtomicLong();
+
+        Sequential(List<String> keys) {
+            super(keys);
+        }
+
+        @Override
+        String next(Random random) {
+            return keys.get((int) (cursor.getAndIncrement() % keys.size()));
+        }
+    }
+
+    static final class Zipf extends KeySelector {
+
+        // Cumulative, not normalized probabilities of the ranks
+        private final double[] cumulative;
+
+        Zipf(List<String> keys, double exponent) {
+            super(keys);
+            if (exponent <= 0.0) {
+                throw new IllegalArgumentException("Zipf exponent must be positive, but was " + exponent);
+            }
+            this.cumulative = new double[keys.size()];
+            double sum = 0.0;
+            for (int rank = 0; rank < cumulative.length; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+        }
+
+        @Override
+        String next(Random random) {
+            double value = random.nextDouble() * cumulative[cumulative.length - 1];
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulative[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return keys.get(low);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.giraone.s3.objectstore.testloader;
+
+/**
+ * Controls the number of concurrently processed documents while a test run is in progress.
+ */
+interface LoadController {
+
+    /**
+     * Wrap an action, so that it runs only within the current concurrency limit of the controller.
+     */
+    DocumentAction wrap(DocumentAction action);
+
+    void start();
+
+    /**
+     * Called, when all documents are processed or the run was stopped.
+     */
+    void finish();
+
+    void printStatistics();
+}
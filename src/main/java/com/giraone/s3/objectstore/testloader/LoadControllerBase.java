@@ -0,0 +1,96 @@
+package com.giraone.s3.objectstore.testloader;
+
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Common part of the load controllers: the wrapped actions run within the permits of a ConcurrencyLimiter and are
+ * counted and measured, a background thread adjusts the limit.
+ */
+abstract class LoadControllerBase implements LoadController {
+
+    protected final ConcurrencyLimiter limiter;
+    protected final StopSignal stopSignal;
+
+    // Latency and results since the last snapshot of the controller thread
+    protected final Recorder latencyRecorder = new Recorder(3);
+    protected final LongAdder documentsOk = new LongAdder();
+    protected final LongAdder documentsFailed = new LongAdder();
+
+    private final String threadName;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private Thread controllerThread;
+
+    LoadControllerBase(int initialLimit, StopSignal stopSignal, String threadName) {
+        this.limiter = new ConcurrencyLimiter(initialLimit);
+        this.stopSignal = stopSignal;
+        this.threadName = threadName;
+    }
+
+    /**
+     * Wrap an action, so that it runs only within the current concurrency limit and is counted and measured.
+     */
+    @Override
+    public DocumentAction wrap(DocumentAction action) {
+        return (containerIndex, documentIndex) -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            try {
+                if (stopSignal.isStopped()) {
+                    return false;
+                }
+                long start = System.nanoTime();
+                boolean ok = action.process(containerIndex, documentIndex);
+                latencyRecorder.recordValue((System.nanoTime() - start) / 1000L);
+                if (ok) {
+                    documentsOk.increment();
+                } else {
+                    documentsFailed.increment();
+                }
+                return ok;
+            } finally {
+                limiter.release();
+            }
+        };
+    }
+
+    @Override
+    public void start() {
+        controllerThread = new Thread(() -> {
+            try {
+                control();
+            } finally {
+                finished.countDown();
+            }
+        }, threadName);
+        controllerThread.setDaemon(true);
+        controllerThread.start();
+    }
+
+    /**
+     * Interrupts the controller thread and waits, until it has taken its last snapshot.
+     */
+    @Override
+    public void finish() {
+        if (controllerThread != null) {
+            controllerThread.interrupt();
+            try {
+                finished.await(10L, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The loop of the controller thread, which adjusts the limit until it is interrupted or the run is stopped.
+     */
+    abstract void control();
+}
@@ -0,0 +1,141 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.giraone.s3.common.DurationParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A load profile is a sequence of stages, each with its own concurrency. Segments are separated by ";":
+ * <ul>
+ * <li>"hold:32@5m" - 32 concurrent documents for 5 minutes</li>
+ * <li>"step:8,16,32,64@30s" - one stage per level, each held for 30 seconds</li>
+ * <li>"ramp:1-64@2m" - linear increase from 1 to 64 within 2 minutes</li>
+ * </ul>
+ * Example: "ramp:1-16@1m;step:16,32,64@30s;hold:64@10m"
+ */
+final class LoadProfile {
+
+    static final class Stage {
+        private final String name;
+        private final int startConcurrency;
+        private final int endConcurrency;
+        private final long durationMillis;
+
+        Stage(String name, int startConcurrency, int endConcurrency, long durationMillis) {
+            this.name = name;
+            this.startConcurrency = startConcurrency;
+            this.endConcurrency = endConcurrency;
+            this.durationMillis = durationMillis;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        long getDurationMillis() {
+            return durationMillis;
+        }
+
+        int getStartConcurrency() {
+            return startConcurrency;
+        }
+
+        int getEndConcurrency() {
+            return endConcurrency;
+        }
+
+        /**
+         * @param elapsedMillis the time since the start of the stage
+         * @return the concurrency at the given time, linearly interpolated for ramps
+         */
+        int concurrencyAt(long elapsedMillis) {
+            if (startConcurrency == endConcurrency || durationMillis <= 0L) {
+                return endConcurrency;
+            }
+            double fraction = Math.min(1.0, (double) elapsedMillis / durationMillis);
+            return (int) Math.round(startConcurrency + fraction * (endConcurrency - startConcurrency));
+        }
+    }
+
+    private final String spec;
+    private final List<Stage> stages;
+
+    private LoadProfile(String spec, List<Stage> stages) {
+        this.spec = spec;
+        this.stages = Collections.unmodifiableList(stages);
+    }
+
+    static LoadProfile parse(String spec) {
+        List<Stage> stages = new ArrayList<>();
+        for (String segment : spec.split(";")) {
+            segment = segment.trim();
+            int colon = segment.indexOf(':');
+            int at = segment.lastIndexOf('@');
+            if (colon < 0 || at < colon) {
+                throw new IllegalArgumentException("Invalid load profile segment \"" + segment + "\"! Use e.g. step:8,16,32@30s");
+            }
+            String type = segment.substring(0, colon).trim().toLowerCase();
+            String levels = segment.substring(colon + 1, at).trim();
+            long durationMillis = DurationParser.parseMillis(segment.substring(at + 1));
+            switch (type) {
+                case "hold":
+                    int hold = parseConcurrency(levels);
+                    stages.add(new Stage("hold " + hold, hold, hold, durationMillis));
+                    break;
+                case "step":
+                    for (String level : levels.split(",")) {
+                        int step = parseConcurrency(level);
+                        stages.add(new Stage("step " + step, step, step, durationMillis));
+                    }
+                    break;
+                case "ramp":
+                    String[] range = levels.split("-");
+                    if (range.length != 2) {
+                        throw new IllegalArgumentException("Invalid ramp \"" + levels + "\"! Use e.g. ramp:1-64@2m");
+                    }
+                    int from = parseConcurrency(range[0]);
+                    int to = parseConcurrency(range[1]);
+                    stages.add(new Stage("ramp " + from + "-" + to, from, to, durationMillis));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid load profile type \"" + type + "\"! Use hold, step or ramp.");
+            }
+        }
+        return new LoadProfile(spec, stages);
+    }
+
+    List<Stage> getStages() {
+        return stages;
+    }
+
+    int getMaxConcurrency() {
+        int max = 1;
+        for (Stage stage : stages) {
+            max = Math.max(max, Math.max(stage.startConcurrency, stage.endConcurrency));
+        }
+        return max;
+    }
+
+    long getTotalDurationMillis() {
+        long total = 0L;
+        for (Stage stage : stages) {
+            total += stage.durationMillis;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    private static int parseConcurrency(String text) {
+        int value = Integer.parseInt(text.trim());
+        if (value < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, but was " + value);
+        }
+        return value;
+    }
+}
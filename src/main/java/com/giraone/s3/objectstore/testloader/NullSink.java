@@ -0,0 +1,43 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Discards the content of a stream through a reusable buffer, so reading large objects does not allocate heap
+ * per request. Not thread safe, each thread uses its own sink.
+ */
+final class NullSink {
+
+    private final byte[] buffer;
+    private long firstByteNanos;
+
+    NullSink(int bufferSize) {
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Read the stream to its end and discard the content.
+     *
+     * @return the number of bytes read
+     */
+    long drain(InputStream in) throws IOException {
+        firstByteNanos = 0L;
+        long total = 0L;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (firstByteNanos == 0L && read > 0) {
+                firstByteNanos = System.nanoTime();
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * @return the System.nanoTime() of the first byte of the last drain or 0, if the stream was empty
+     */
+    long getFirstByteNanos() {
+        return firstByteNanos;
+    }
+}
@@ -1,324 +1,1370 @@
-package com.giraone.s3.objectstore.testloader;
-
-import com.codahale.metrics.MetricRegistry;
-import com.codahale.metrics.Timer;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.giraone.s3.objectstore.config.ObjectStorageEnvironment;
-import com.giraone.s3.objectstore.smoketest.SmokeTesterS3;
-import com.giraone.s3.objectstore.testdata.DefaultDynamicConfigGenerator;
-import com.giraone.s3.objectstore.testdata.DocumentMetaData;
-import com.giraone.s3.objectstore.testdata.DynamicConfigGenerator;
-import com.giraone.s3.objectstore.testdata.TestConfig;
-import com.giraone.s3.testdocuments.PdfTestDocumentCreator;
-import org.apache.commons.cli.*;
-
-import java.io.File;
-import java.util.*;
-import java.util.concurrent.*;
-
-abstract class ObjectStoreTestLoaderBase {
-    ObjectStorageEnvironment env;
-
-    private ExecutorService executor;
-
-    private PdfTestDocumentCreator pdfCreator;
-    TestConfig testConfig;
-    ResultInfo resultInfo;
-
-    private final MetricRegistry metrics = new MetricRegistry();
-
-    protected final Timer monitorPdfDocumentCreation = metrics.timer(MetricRegistry.name(ObjectStoreTestLoaderBase.class, "PdfDocumentCreation"));
-    protected final Timer monitorContainerCreation = metrics.timer(MetricRegistry.name(ObjectStoreTestLoaderBase.class, "ContainerCreation"));
-    protected final Timer monitorDocumentUpload = metrics.timer(MetricRegistry.name(ObjectStoreTestLoaderBase.class, "DocumentUpload"));
-
-    ObjectStoreTestLoaderBase() {
-        super();
-    }
-
-    abstract boolean createContainer(int containerIndex);
-
-    abstract String createDocument(String rootContainerName, String objectPath, File jsonFile, File pdfFile);
-
-    abstract boolean checkRootContainer(String name);
-
-    private void setTestConfig(TestConfig testConfig) {
-        this.testConfig = testConfig;
-        this.resultInfo = new ResultInfo(
-                testConfig.getNumberOfContainers(),
-                testConfig.getNumberOfDocumentsPerContainer());
-        this.pdfCreator = new PdfTestDocumentCreator(testConfig.getDynamicConfigGenerator());
-    }
-
-    private void setEnv(ObjectStorageEnvironment env) {
-        this.env = env;
-    }
-
-    Map<String, String> buildObjectMetaData(DocumentMetaData metaData) {
-        Map<String, String> objectMetaDataMap = new HashMap<>();
-        objectMetaDataMap.put("title", metaData.getTitle());
-        objectMetaDataMap.put("uuid", metaData.getUuid());
-        objectMetaDataMap.put("date", new Date(metaData.getTime()).toString());
-        metaData.getMetaData().forEach(objectMetaDataMap::put);
-        return objectMetaDataMap;
-    }
-
-    private boolean createDocument(String rootContainerName, int containerIndex, int documentIndex) {
-
-        String containerName = testConfig.getDynamicConfigGenerator().buildContainerName(containerIndex);
-        String objectPath = testConfig.getDynamicConfigGenerator().buildPathNames(containerIndex, documentIndex);
-
-        final Timer.Context context = monitorPdfDocumentCreation.time();
-        PdfTestDocumentCreator.FilePair filePair = pdfCreator.create(containerIndex, documentIndex);
-        context.stop();
-
-        File jsonFile = filePair.jsonFile;
-        File pdfFile = filePair.pdfFile;
-
-        String eTag = this.createDocument(rootContainerName, containerName + "/" + objectPath, jsonFile, pdfFile);
-        if (eTag != null) {
-            resultInfo.addDocumentResultOk();
-        } else {
-            resultInfo.addDocumentResultError(1, "failed");
-            return false;
-        }
-
-        return true;
-    }
-
-    /**
-     * Create a certain number of documents within a given container or within newly created containers
-     *
-     * @param numberOfContainers   A number of containers or 0, when a single default container is used.
-     * @param defaultContainerName The root container name, when numberOfContainers is 0.
-     * @return the total number of successfully created documents
-     */
-    private int createDocuments(int numberOfContainers, String defaultContainerName) {
-        printState("fillContainers START");
-
-        long start = System.currentTimeMillis();
-
-        // Create a list to hold the Future objects associated with Callable
-        List<Future<Integer>> resultList = new ArrayList<>();
-
-        for (int containerIndex = 0; containerIndex < (numberOfContainers == 0 ? 1 : numberOfContainers); containerIndex++) {
-            final int finalContainerIndex = containerIndex;
-            final int[] documentIndex = new int[]{0};
-
-            Callable<Integer> callable = () -> {
-                printState(" fillContainer START " + finalContainerIndex);
-                int count = 0;
-                while (documentIndex[0] < testConfig.getNumberOfDocumentsPerContainer()) {
-                    documentIndex[0] = ++documentIndex[0];
-                    if (!createDocument(defaultContainerName, numberOfContainers == 0 ? -1 : finalContainerIndex, documentIndex[0])) {
-                        break;
-                    }
-                    count++;
-                }
-                printState(" fillContainer END  " + finalContainerIndex);
-                return count;
-            };
-
-            // Submit Callable tasks to be executed by thread pool
-            Future<Integer> future = executor.submit(callable);
-            // Add Future to the list, so we can get return value using Future
-            resultList.add(future);
-        }
-
-        int totalCount = 0;
-        for (Future<Integer> future : resultList) {
-            // because Future.get() waits for task to get completed, we can sum up the total number of created documents
-            try {
-                totalCount += future.get();
-            } catch (InterruptedException | ExecutionException e) {
-                e.printStackTrace();
-            }
-        }
-
-        // Shut down the executor service now
-        executor.shutdown();
-
-        long end = System.currentTimeMillis();
-
-        printState("fillContainers END");
-
-        System.out.println("* Total duration = " + (end - start) + " msecs.");
-
-        printMonitorData(monitorPdfDocumentCreation, "PdfDocumentCreation");
-        printMonitorData(monitorDocumentUpload, "DocumentUpload");
-
-        return totalCount;
-    }
-
-    private int createContainers() {
-        printState("createContainers START");
-
-        int ret = 0;
-        for (int containerIndex = 0; containerIndex < this.testConfig.getNumberOfContainers(); containerIndex++) {
-            if (!this.createContainer(containerIndex)) {
-                break;
-            }
-            ret++;
-        }
-
-        printState("createContainers END");
-
-        printMonitorData(monitorContainerCreation, "ContainerCreation");
-
-        return ret;
-    }
-
-    void run(TestConfig testConfig, ObjectStorageEnvironment env) {
-        this.setTestConfig(testConfig);
-
-        this.setEnv(env);
-
-        // Get ExecutorService from Executors utility class. The thread pool size is derived from the configuration
-        this.executor = Executors.newFixedThreadPool(testConfig.getNumberOfThreads());
-
-        printState("RUNNING with " + testConfig.getNumberOfThreads() + " threads");
-
-        // Create no containers, but only documents in a certain container
-        if (!this.checkRootContainer(testConfig.getRootContainerName())) {
-            throw new IllegalArgumentException("No root container \"" + testConfig.getRootContainerName()
-                    + "\" in bucket \"" + testConfig.getBucketName() + "\"!");
-        }
-
-        // Create n container and then m documents
-        int numberOfContainers = this.createContainers();
-        System.out.println("Number of created containers: " + numberOfContainers);
-        int numberOfDocuments = this.createDocuments(numberOfContainers, testConfig.getRootContainerName());
-        System.out.println("Number of created documents: " + numberOfDocuments);
-    }
-
-    // ---------------------------------------------------------------------------------
-
-    DocumentMetaData parseFile(File jsonFile) throws Exception {
-        final ObjectMapper mapper = new ObjectMapper();
-        return mapper.readValue(jsonFile, DocumentMetaData.class);
-    }
-
-    // ---------------------------------------------------------------------------------
-
-    static TestConfig parseCli(String[] args) {
-        CommandLineParser parser = new DefaultParser();
-
-        Options options = new Options();
-
-        options.addOption("h", "help", false, "print usage help");
-
-        Option runClass = Option.builder()
-                .longOpt("run")
-                .hasArg()
-                .desc("the test to run - [test-loader|smoke-tester] - Default = test-loader")
-                .build();
-        options.addOption(runClass);
-
-        Option numberOfThreadsOption = Option.builder()
-                .longOpt("threads")
-                .hasArg()
-                .desc("number of parallel threads, default is 1")
-                .build();
-        options.addOption(numberOfThreadsOption);
-
-        Option numberOfContainersOption = Option.builder()
-                .longOpt("containers")
-                .hasArg()
-                .desc("number of containers, default is 0 - then root must be present")
-                .build();
-        options.addOption(numberOfContainersOption);
-
-        Option bucketOption = Option.builder()
-                .longOpt("bucket")
-                .hasArg()
-                .desc("name of bucket, no default")
-                .build();
-        options.addOption(bucketOption);
-
-        Option rootContainerOption = Option.builder()
-                .longOpt("root")
-                .hasArg()
-                .desc("name of existing root container to be used, if empty the new containers are top-level")
-                .build();
-        options.addOption(rootContainerOption);
-
-        Option numberOfDocumentsOption = Option.builder()
-                .longOpt("docs")
-                .hasArg()
-                .desc("number of documents per container, default is 10")
-                .build();
-        options.addOption(numberOfDocumentsOption);
-
-        Option configClassOption = Option.builder()
-                .longOpt("config")
-                .hasArg()
-                .desc("dynamic configurator class, default is com.giraone.s3.objectstore.testdata.DefaultDynamicConfigGenerator")
-                .build();
-        options.addOption(configClassOption);
-
-        Option propertiesOption = Option.builder()
-                .longOpt("properties")
-                .hasArg()
-                .desc("JSON properties for URL, bucket name, credentials, ...")
-                .build();
-        options.addOption(propertiesOption);
-
-        TestConfig testConfig = new TestConfig();
-
-        try {
-            CommandLine line = parser.parse(options, args);
-
-            if (line.hasOption("help")) {
-                usage(options);
-                System.exit(1);
-            }
-
-            String runnerClassName = line.getOptionValue("run", "test-loader");
-            Class runnerClass;
-            if ("smoke-tester".equalsIgnoreCase(runnerClassName)) {
-                runnerClass = ObjectStoreTestLoaderS3.class;
-            } else {
-                runnerClass = SmokeTesterS3.class;
-            }
-            testConfig.setTestRunner(runnerClass);
-
-            testConfig.setPropertiesPath(line.getOptionValue("properties", "res:s3/cred.json"));
-
-            String configClassName = line.getOptionValue("config", DefaultDynamicConfigGenerator.class.getCanonicalName());
-            DynamicConfigGenerator dynamicConfigGenerator = (DynamicConfigGenerator) Class.forName(configClassName).newInstance();
-            testConfig.setDynamicConfigGenerator(dynamicConfigGenerator);
-
-            testConfig.setBucketName(line.getOptionValue("bucket"));
-            testConfig.setRootContainerName(line.getOptionValue("root", ""));
-            testConfig.setNumberOfContainers(Integer.parseInt(line.getOptionValue("containers", "0")));
-            testConfig.setNumberOfDocumentsPerContainer(Integer.parseInt(line.getOptionValue("docs", "10")));
-            testConfig.setNumberOfThreads(Integer.parseInt(line.getOptionValue("threads", "1")));
-        } catch (Exception exp) {
-            exp.printStackTrace();
-            HelpFormatter formatter = new HelpFormatter();
-            formatter.printHelp("ObjectStoreTestLoader", options);
-            return null;
-        }
-
-        return testConfig;
-    }
-
-    // ---------------------------------------------------------------------------------
-
-    private static void usage(Options options) {
-
-        HelpFormatter formatter = new HelpFormatter();
-        formatter.printHelp("java -jar target/testdata-loader-1.0.jar\n", options);
-    }
-
-    private static void printMonitorData(Timer timer, String name) {
-        System.out.println("* " + name);
-        System.out.println("* Count   = " + timer.getCount());
-        System.out.println("* Average = " + timer.getMeanRate() + " msecs");
-    }
-
-    static void printState(String name) {
-        System.out.print("------- ");
-        System.out.print(name);
-        System.out.println(" ---------");
-    }
-}
+package com.giraone.s3.objectstore.testloader;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.giraone.s3.common.BufferPool;
+import com.giraone.s3.common.DurationParser;
+import com.giraone.s3.common.HdrHistogramReservoir;
+import com.giraone.s3.objectstore.config.ObjectStorageEnvironment;
+import com.giraone.s3.objectstore.smoketest.SmokeTesterS3;
+import com.giraone.s3.objectstore.testdata.DefaultDynamicConfigGenerator;
+import com.giraone.s3.objectstore.testdata.DocumentMetaData;
+import com.giraone.s3.objectstore.testdata.DynamicConfigGenerator;
+import com.giraone.s3.objectstore.testdata.SizeDistribution;
+import com.giraone.s3.objectstore.testdata.TestConfig;
+import com.giraone.s3.testdocuments.PayloadGenerator;
+import com.giraone.s3.testdocuments.PdfDocumentGenerator;
+import com.giraone.s3.testdocuments.PdfTemplateDocumentCreator;
+import com.giraone.s3.testdocuments.PdfTestDocumentCreator;
+import com.giraone.s3.testdocuments.TestDocumentContent;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.commons.cli.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+abstract class ObjectStoreTestLoaderBase {
+    ObjectStorageEnvironment env;
+
+    private DocumentScheduler scheduler;
+    private DocumentPipeline pipeline;
+    private AsyncDocumentScheduler asyncScheduler;
+
+    private LoadController loadController;
+    private WorkloadEngine workloadEngine;
+    private ReadBenchmark readBenchmark;
+    private ProgressJournal journal;
+    private long measuredMillis;
+
+    // Upload latency as HdrHistogram, because the histograms of distributed workers can be merged
+    private final Histogram uploadLatencyMicros = new ConcurrentHistogram(3);
+    private final ThreadLocal<NullSink> nullSinks = ThreadLocal.withInitial(() -> new NullSink(64 * 1024));
+    private StopSignal stopSignal;
+    private RunDeadline deadline;
+    private volatile long documentsInWarmup;
+    private volatile long documentsFailedInWarmup;
+
+    private ContainerGate containerGate;
+    // Once a container or the generation of one of its documents fails, the remaining documents of this container
+    // are skipped. A failed upload does not stop the container, transient errors are retried by the retry policy.
+    // With an error budget, only failed containers are skipped.
+    private Set<Integer> failedContainers;
+    private RetryPolicy retryPolicy;
+    private ErrorBudget errorBudget;
+    private PrometheusEndpoint prometheusEndpoint;
+    // Only with --phase-timing, used when the clients are built
+    protected RequestPhaseMetrics requestPhaseMetrics;
+
+    private PdfDocumentGenerator pdfCreator;
+    // The PDFs are generated into pooled buffers instead of temporary files
+    private BufferPool bufferPool;
+    // Only with --corpus: the documents are taken from the mapped pack file instead of being generated
+    private CorpusPack corpus;
+    TestConfig testConfig;
+    ResultInfo resultInfo;
+
+    // The generated PDFs have a few KB, buffers of much larger documents are not kept in the pool
+    private static final int PDF_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_RETAINED_PDF_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    static final String COUNTER_IN_FLIGHT = MetricRegistry.name(ObjectStoreTestLoaderBase.class, "InFlight");
+    static final String COUNTER_COMPLETED = MetricRegistry.name(ObjectStoreTestLoaderBase.class, "Completed");
+    static final String COUNTER_FAILED = MetricRegistry.name(ObjectStoreTestLoaderBase.class, "Failed");
+    static final String COUNTER_TRANSFERRED_BYTES = MetricRegistry.name(ObjectStoreTestLoaderBase.class, "TransferredBytes");
+
+    private final MetricRegistry metrics = new MetricRegistry();
+    // Run-level counters of the interval reporter, which are not reset at the end of the warm-up
+    private final Counter inFlight = metrics.counter(COUNTER_IN_FLIGHT);
+    private final Counter completed = metrics.counter(COUNTER_COMPLETED);
+    private final Counter failed = metrics.counter(COUNTER_FAILED);
+    private final Counter transferredBytes = metrics.counter(COUNTER_TRANSFERRED_BYTES);
+
+    // Not final, the document timers are replaced by empty ones at the end of the warm-up
+    protected volatile Timer monitorPdfDocumentCreation = HdrHistogramReservoir.timer(metrics, MetricRegistry.name(ObjectStoreTestLoaderBase.class, "PdfDocumentCreation"));
+    protected final Timer monitorContainerCreation = HdrHistogramReservoir.timer(metrics, MetricRegistry.name(ObjectStoreTestLoaderBase.class, "ContainerCreation"));
+    protected volatile Timer monitorDocumentUpload = HdrHistogramReservoir.timer(metrics, MetricRegistry.name(ObjectStoreTestLoaderBase.class, "DocumentUpload"));
+
+    ObjectStoreTestLoaderBase() {
+        super();
+    }
+
+    abstract boolean createContainer(int containerIndex);
+
+    /**
+     * @param document The generated document. Its content is only read, so that each retry can read it again. Its meta
+     *                 data are stored as user meta data of the object.
+     * @return the ETag of the created object or null, if the upload failed
+     */
+    abstract String createDocument(String rootContainerName, GeneratedDocument document);
+
+    abstract boolean checkRootContainer(String name);
+
+    /**
+     * @return true, if the backend uploads documents without blocking the calling thread (see createDocumentAsync)
+     */
+    boolean isAsynchronous() {
+        return false;
+    }
+
+    /**
+     * Connect the phase timers with the client of the backend. Clients of SDK version 1 need the global collector,
+     * the other backends pass the metrics to their client, when they create it.
+     */
+    void installPhaseTiming(RequestPhaseMetrics requestPhaseMetrics) {
+    }
+
+    /**
+     * Non-blocking variant of createDocument. The default implementation blocks on the synchronous version.
+     *
+     * @return a future completing with the ETag of the created object or with null, if the upload failed
+     */
+    CompletableFuture<String> createDocumentAsync(String rootContainerName, GeneratedDocument document) {
+        return CompletableFuture.completedFuture(this.createDocument(rootContainerName, document));
+    }
+
+    /**
+     * List the keys of objects with the given prefix. Folder markers are not included.
+     *
+     * @param prefix  The key prefix, including the bucket name, if needed.
+     * @param maxKeys The maximum number of returned keys.
+     */
+    List<String> listObjectKeys(String prefix, int maxKeys) {
+        throw new UnsupportedOperationException("Listing objects is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Read the content of an object into the given sink, which discards it.
+     *
+     * @return the number of bytes read
+     */
+    long readObject(String key, NullSink sink) {
+        throw new UnsupportedOperationException("Reading objects is not supported by " + getClass().getSimpleName());
+    }
+
+    long readObject(String key) {
+        return this.readObjectCounted(key, nullSinks.get());
+    }
+
+    /**
+     * Read an object into the sink like readObject and count it as in flight and its bytes as transferred.
+     */
+    long readObjectCounted(String key, NullSink sink) {
+        inFlight.inc();
+        try {
+            long length = this.readObject(key, sink);
+            if (length > 0L) {
+                transferredBytes.inc(length);
+            }
+            return length;
+        } finally {
+            inFlight.dec();
+        }
+    }
+
+    /**
+     * Count a completed or failed operation of the workload or the read benchmark.
+     */
+    void countOperation(boolean ok) {
+        (ok ? completed : failed).inc();
+    }
+
+    /**
+     * @return true, if the object exists
+     */
+    boolean headObject(String key) {
+        throw new UnsupportedOperationException("Reading meta data is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * @return true, if the object was deleted
+     */
+    boolean deleteObject(String key) {
+        throw new UnsupportedOperationException("Deleting objects is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * @return the HTTP status code of a failed request, RetryPolicy.NETWORK_ERROR for errors without response
+     * or -1 for other errors, which are not retried
+     */
+    int statusCodeOf(Throwable throwable) {
+        return -1;
+    }
+
+    /**
+     * Release the resources of the backend at the end of the run.
+     */
+    void shutdown() {
+    }
+
+    private void setTestConfig(TestConfig testConfig) {
+        this.testConfig = testConfig;
+        this.resultInfo = new ResultInfo(
+                testConfig.getNumberOfContainers(),
+                testConfig.getNumberOfDocumentsPerContainer());
+        if (testConfig.getCorpusPath() != null && !testConfig.isGenerateCorpus()) {
+            try {
+                this.corpus = CorpusPack.open(new File(testConfig.getCorpusPath()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open corpus " + testConfig.getCorpusPath() + "!", e);
+            }
+            printState("CORPUS " + corpus.getPackFile() + " with " + corpus.getNumberOfDocuments() + " documents, "
+                    + corpus.getPackSize() / 1024L / 1024L + " MB");
+            checkCorpus(new DocumentIndexSpace(testConfig.getNumberOfContainers(), testConfig.getNumberOfDocumentsPerContainer()));
+        } else if (testConfig.getNumberOfTemplates() > 0) {
+            // Render the templates once, each document only patches its fields into one of them
+            this.pdfCreator = new PdfTemplateDocumentCreator(testConfig.getDynamicConfigGenerator(), testConfig.getNumberOfTemplates());
+        } else {
+            this.pdfCreator = new PdfTestDocumentCreator(testConfig.getDynamicConfigGenerator());
+        }
+        // One buffer for each document, that is generated, waiting in the pipeline's queue or uploaded
+        int maxPooledBuffers = testConfig.getNumberOfGeneratorThreads() + (this.isAsynchronous() ? testConfig.getMaxInFlight()
+                : testConfig.getNumberOfThreads() + (testConfig.isPipeline() ? testConfig.getQueueCapacity() : 0));
+        this.bufferPool = new BufferPool(maxPooledBuffers, PDF_BUFFER_SIZE, MAX_RETAINED_PDF_BUFFER_SIZE);
+    }
+
+    private void setEnv(ObjectStorageEnvironment env) {
+        this.env = env;
+    }
+
+    Map<String, String> buildObjectMetaData(DocumentMetaData metaData) {
+        Map<String, String> objectMetaDataMap = new HashMap<>();
+        objectMetaDataMap.put("title", metaData.getTitle());
+        objectMetaDataMap.put("uuid", metaData.getUuid());
+        objectMetaDataMap.put("date", TestDocumentContent.formatDate(metaData.getTime()));
+        metaData.getMetaData().forEach(objectMetaDataMap::put);
+        return objectMetaDataMap;
+    }
+
+    private boolean createDocument(String rootContainerName, int containerIndex, int documentIndex) {
+
+        GeneratedDocument document = this.generateDocument(containerIndex, documentIndex);
+        if (document == null) {
+            addGenerationFailure(containerIndex, documentIndex);
+            return false;
+        }
+        return this.uploadDocument(rootContainerName, document);
+    }
+
+    private void addGenerationFailure(int containerIndex, int documentIndex) {
+        resultInfo.addDocumentResultError(containerIndex, ResultInfo.OTHER_ERROR, "generation failed");
+        failed.inc();
+        errorBudget.recordDocumentFailure(containerIndex, documentIndex, "generation failed");
+        if (!errorBudget.isEnabled()) {
+            failedContainers.add(containerIndex);
+        }
+    }
+
+    /**
+     * Generate and upload a single document within a mixed workload.
+     *
+     * @return the key of the new object or null, if the generation or the upload failed
+     */
+    String putDocument(String rootContainerName, int containerIndex, int documentIndex) {
+
+        if (!isContainerUsable(containerIndex)) {
+            return null;
+        }
+        GeneratedDocument document = this.generateDocument(containerIndex, documentIndex);
+        if (document == null) {
+            addGenerationFailure(containerIndex, documentIndex);
+            return null;
+        }
+        String objectName = document.getMetaData().getTitle();
+        if (!this.uploadDocument(rootContainerName, document)) {
+            return null;
+        }
+        return buildObjectKey(rootContainerName, document.getObjectPath(), objectName);
+    }
+
+    /**
+     * A replay uploads only documents of the corpus, so the corpus must contain each document of the index space.
+     */
+    private void checkCorpus(DocumentIndexSpace indexSpace) {
+        if (indexSpace.size() > corpus.getNumberOfDocuments()) {
+            throw new IllegalArgumentException("The load needs " + indexSpace.size() + " documents, but corpus "
+                    + corpus.getPackFile() + " contains only " + corpus.getNumberOfDocuments() + "!");
+        }
+        long missing = 0L;
+        for (long index = 0L; index < indexSpace.size(); index++) {
+            if (!corpus.contains(indexSpace.containerIndex(index), indexSpace.documentIndex(index))) {
+                missing++;
+            }
+        }
+        if (missing > 0L) {
+            throw new IllegalArgumentException(missing + " documents of the load are missing in corpus "
+                    + corpus.getPackFile() + "! Use the same number of containers and documents as for the generation.");
+        }
+    }
+
+    private GeneratedDocument generateDocument(int containerIndex, int documentIndex) {
+
+        if (corpus != null) {
+            // Replay of a pre-generated document: only the lookup of its slice in the mapped pack
+            final Timer.Context context = monitorPdfDocumentCreation.time();
+            GeneratedDocument document = corpus.document(containerIndex, documentIndex);
+            context.stop();
+            return document;
+        }
+
+        DynamicConfigGenerator dynamicConfigGenerator = testConfig.getDynamicConfigGenerator();
+        String containerName = dynamicConfigGenerator.buildContainerName(containerIndex);
+        String objectPath = dynamicConfigGenerator.buildPathNames(containerIndex, documentIndex);
+
+        BufferPool.PooledBuffer pdf = bufferPool.acquire();
+        final Timer.Context context = monitorPdfDocumentCreation.time();
+        TestDocumentContent content = pdfCreator.create(containerIndex, documentIndex, pdf);
+        if (content == null) {
+            context.stop();
+            pdf.release();
+            return null;
+        }
+        GeneratedDocument document = new GeneratedDocument(containerIndex, documentIndex, containerName + "/" + objectPath,
+                toMetaData(content), pdf);
+        long size = dynamicConfigGenerator.buildDocumentSize(containerIndex, documentIndex);
+        if (size >= 0L && dynamicConfigGenerator.getPayloadGenerator() != null) {
+            try {
+                document.pad(size, dynamicConfigGenerator.getPayloadGenerator(), ((long) containerIndex << 32) | (documentIndex & 0xFFFFFFFFL));
+            } catch (IllegalArgumentException e) {
+                e.printStackTrace();
+                context.stop();
+                pdf.release();
+                return null;
+            }
+        }
+        context.stop();
+        return document;
+    }
+
+    private static DocumentMetaData toMetaData(TestDocumentContent content) {
+        DocumentMetaData metaData = new DocumentMetaData();
+        metaData.setUuid(content.getUuid());
+        metaData.setTime(content.getTime());
+        metaData.setCounter(content.getCounter());
+        metaData.setTitle(content.getTitle());
+        metaData.setMetaData(content.getMetaData());
+        return metaData;
+    }
+
+    private boolean uploadDocument(String rootContainerName, GeneratedDocument document) {
+
+        long start = System.nanoTime();
+        inFlight.inc();
+        RetryPolicy.Failure failure = new RetryPolicy.Failure();
+        String eTag;
+        try {
+            eTag = retryPolicy.call(() ->
+                    this.createDocument(rootContainerName, document), failure);
+        } finally {
+            inFlight.dec();
+        }
+        uploadLatencyMicros.recordValue((System.nanoTime() - start) / 1000L);
+        boolean ok = this.addDocumentResult(document, eTag, failure);
+        document.release();
+        return ok;
+    }
+
+    private CompletableFuture<Boolean> uploadDocumentAsync(String rootContainerName, GeneratedDocument document) {
+
+        long start = System.nanoTime();
+        inFlight.inc();
+        RetryPolicy.Failure failure = new RetryPolicy.Failure();
+        return retryPolicy.callAsync(() ->
+                this.createDocumentAsync(rootContainerName, document), failure)
+                .thenApply(eTag -> {
+                    inFlight.dec();
+                    uploadLatencyMicros.recordValue((System.nanoTime() - start) / 1000L);
+                    boolean ok = this.addDocumentResult(document, eTag, failure);
+                    // All attempts are finished, so the SDK does not read the buffer anymore
+                    document.release();
+                    return ok;
+                });
+    }
+
+    private boolean addDocumentResult(GeneratedDocument document, String eTag, RetryPolicy.Failure failure) {
+        if (eTag != null) {
+            resultInfo.addDocumentResultOk(document.getContainerIndex());
+            errorBudget.recordSuccess();
+            completed.inc();
+            transferredBytes.inc(document.getSize());
+        } else {
+            resultInfo.addDocumentResultError(document.getContainerIndex(), failure.getStatusCode(), failure.getError());
+            failed.inc();
+            errorBudget.recordDocumentFailure(document.getContainerIndex(), document.getDocumentIndex(),
+                    "upload failed (" + RetryPolicy.statusName(failure.getStatusCode()) + ")");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Create a certain number of documents within a given container or within newly created containers
+     *
+     * @param indexSpace           The containers and documents of the whole run.
+     * @param fromIndex            The first index of the documents created by this process (inclusive).
+     * @param toIndex              The last index of the documents created by this process (exclusive).
+     * @param defaultContainerName The root container name, when numberOfContainers is 0.
+     * @return the total number of successfully created documents
+     */
+    private int createDocuments(DocumentIndexSpace indexSpace, long fromIndex, long toIndex, String defaultContainerName) {
+        printState("fillContainers START");
+
+        long start = System.currentTimeMillis();
+
+        if (testConfig.getJournalPath() != null) {
+            try {
+                this.journal = ProgressJournal.open(new File(testConfig.getJournalPath()), indexSpace, testConfig.isResume());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open journal \"" + testConfig.getJournalPath() + "\"!", e);
+            }
+        }
+
+        deadline.start();
+        if (loadController != null) {
+            loadController.start();
+        }
+        IntervalReporter reporter = null;
+        if (testConfig.getReportIntervalMillis() > 0L) {
+            reporter = new IntervalReporter(metrics, testConfig.getReportFile() != null ? new File(testConfig.getReportFile()) : null,
+                    deadline.isDurationBounded() ? -1L : toIndex - fromIndex,
+                    deadline.isDurationBounded() ? start + testConfig.getWarmupMillis() + testConfig.getDurationMillis() : 0L);
+            reporter.start(testConfig.getReportIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        boolean createsDocuments = workloadEngine == null && readBenchmark == null;
+        if (createsDocuments) {
+            // All containers of the range are created, also those without documents
+            containerGate.createInBackground(indexSpace.firstContainer(fromIndex, toIndex), indexSpace.endContainer(fromIndex, toIndex),
+                    testConfig.getNumberOfThreads());
+        }
+
+        int totalCount;
+        if (asyncScheduler != null) {
+            // PDF generation on the scheduler's CPU sized pool, the uploads complete on the backend's event loop
+            totalCount = asyncScheduler.scheduleAsync(indexSpace, fromIndex, toIndex, (containerIndex, documentIndex) -> {
+                if (isCompletedBefore(containerIndex, documentIndex) || !isContainerUsable(containerIndex)) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                GeneratedDocument document = generateDocument(containerIndex, documentIndex);
+                if (document == null) {
+                    addGenerationFailure(containerIndex, documentIndex);
+                    return CompletableFuture.completedFuture(false);
+                }
+                return uploadDocumentAsync(defaultContainerName, document).thenApply(ok -> {
+                    if (ok) {
+                        markCompleted(containerIndex, documentIndex);
+                    }
+                    return ok;
+                });
+            });
+        } else if (pipeline != null) {
+            // PDF generation on the scheduler's CPU sized pool, uploads on the pipeline's own I/O pool
+            totalCount = pipeline.run(scheduler, indexSpace, fromIndex, toIndex,
+                    (containerIndex, documentIndex) -> {
+                        if (isCompletedBefore(containerIndex, documentIndex) || !isContainerUsable(containerIndex)) {
+                            return null;
+                        }
+                        GeneratedDocument document = generateDocument(containerIndex, documentIndex);
+                        if (document == null) {
+                            addGenerationFailure(containerIndex, documentIndex);
+                        }
+                        return document;
+                    },
+                    document -> {
+                        if (failedContainers.contains(document.getContainerIndex())) {
+                            document.release();
+                            return false;
+                        }
+                        if (!uploadDocument(defaultContainerName, document)) {
+                            return false;
+                        }
+                        markCompleted(document.getContainerIndex(), document.getDocumentIndex());
+                        return true;
+                    });
+        } else if (workloadEngine != null || readBenchmark != null) {
+            // Each index of the index space is a single operation of the workload or the read benchmark
+            // The operations count themselves, uploads are counted by addDocumentResult
+            DocumentAction operation = workloadEngine != null ? workloadEngine : readBenchmark;
+            totalCount = scheduler.schedule(indexSpace, fromIndex, toIndex,
+                    loadController != null ? loadController.wrap(operation) : operation);
+        } else {
+            DocumentAction upload = (containerIndex, documentIndex) -> {
+                if (!createDocument(defaultContainerName, containerIndex, documentIndex)) {
+                    return false;
+                }
+                markCompleted(containerIndex, documentIndex);
+                return true;
+            };
+            // Skipped documents are checked outside of the load controller, so its statistics do not count them as failed
+            DocumentAction limitedUpload = loadController != null ? loadController.wrap(upload) : upload;
+            DocumentAction action = (containerIndex, documentIndex) -> !isCompletedBefore(containerIndex, documentIndex)
+                    && isContainerUsable(containerIndex) && limitedUpload.process(containerIndex, documentIndex);
+            totalCount = scheduler.schedule(indexSpace, fromIndex, toIndex, action);
+        }
+        if (createsDocuments) {
+            containerGate.awaitBackgroundCreation();
+        }
+        if (loadController != null) {
+            loadController.finish();
+        }
+        if (reporter != null) {
+            reporter.finish();
+        }
+
+        // Shut down the scheduler now
+        scheduler.shutdown();
+        deadline.finish();
+        if (journal != null) {
+            journal.close();
+        }
+        errorBudget.close();
+
+        long end = System.currentTimeMillis();
+        this.measuredMillis = deadline.getMeasuredMillis(end);
+
+        printState("fillContainers END");
+
+        System.out.println("* Total duration = " + (end - start) + " msecs.");
+        if (stopSignal.isStopped()) {
+            System.out.println("* Stopped, because " + stopSignal.getReason());
+        }
+        if (testConfig.getWarmupMillis() > 0L) {
+            System.out.println("* Warm-up = " + testConfig.getWarmupMillis() + " msecs with " + documentsInWarmup
+                    + " documents, excluded from the following statistics");
+        }
+
+        printTimerStatistics(monitorPdfDocumentCreation, "PdfDocumentCreation", deadline.getMeasuredMillis(end));
+        if (scheduler instanceof OpenLoopDocumentScheduler) {
+            // Open-loop: the response time includes the wait in the backlog, the upload timer has the service time only
+            printTimerStatistics(((OpenLoopDocumentScheduler) scheduler).getResponseTime(), "DocumentResponseTime (from intended start)",
+                    deadline.getMeasuredMillis(end));
+            printTimerStatistics(monitorDocumentUpload, "DocumentUpload (service time)", deadline.getMeasuredMillis(end));
+        } else {
+            printTimerStatistics(monitorDocumentUpload, "DocumentUpload", deadline.getMeasuredMillis(end));
+        }
+        retryPolicy.printStatistics();
+        if (errorBudget.isEnabled() || testConfig.getFailureFile() != null) {
+            errorBudget.printStatistics();
+        }
+        if (indexSpace.getNumberOfContainers() > 0) {
+            printContainerStatistics();
+        }
+        scheduler.printStatistics(deadline.getMeasuredMillis(end));
+        if (pipeline != null) {
+            pipeline.printStatistics();
+        }
+        if (loadController != null) {
+            loadController.printStatistics();
+        }
+        if (workloadEngine != null) {
+            workloadEngine.printStatistics(deadline.getMeasuredMillis(end));
+        }
+        if (readBenchmark != null) {
+            readBenchmark.printStatistics(deadline.getMeasuredMillis(end));
+        }
+        if (journal != null) {
+            journal.printStatistics();
+        }
+        if (requestPhaseMetrics != null) {
+            requestPhaseMetrics.printStatistics(deadline.getMeasuredMillis(end));
+        }
+
+        return totalCount;
+    }
+
+    /**
+     * @return true, if a resumed run finds the document in the journal of the previous runs
+     */
+    private boolean isCompletedBefore(int containerIndex, int documentIndex) {
+        return journal != null && journal.isCompleted(containerIndex, documentIndex);
+    }
+
+    private void markCompleted(int containerIndex, int documentIndex) {
+        if (journal != null) {
+            journal.markCompleted(containerIndex, documentIndex);
+        }
+    }
+
+    /**
+     * Check, whether documents can be created in a container. A missing container is created on the calling worker thread.
+     *
+     * @param containerIndex The container index or -1, when the default container is used.
+     */
+    private boolean isContainerUsable(int containerIndex) {
+        if (failedContainers.contains(containerIndex)) {
+            return false;
+        }
+        if (containerIndex >= 0 && !containerGate.awaitContainer(containerIndex)) {
+            if (failedContainers.add(containerIndex)) {
+                errorBudget.recordContainerFailure(containerIndex, "creation failed");
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Discard the document statistics of the warm-up. The container statistics are kept, because the containers
+     * are created at the beginning of the run.
+     */
+    private void resetStatistics() {
+        documentsInWarmup = resultInfo.getNumberOfDocumentsCreated();
+        documentsFailedInWarmup = resultInfo.getNumberOfDocumentsFailed();
+        resultInfo.resetDocumentStatistics();
+        retryPolicy.resetStatistics();
+        errorBudget.resetStatistics();
+        String pdfDocumentCreation = MetricRegistry.name(ObjectStoreTestLoaderBase.class, "PdfDocumentCreation");
+        String documentUpload = MetricRegistry.name(ObjectStoreTestLoaderBase.class, "DocumentUpload");
+        metrics.remove(pdfDocumentCreation);
+        metrics.remove(documentUpload);
+        monitorPdfDocumentCreation = HdrHistogramReservoir.timer(metrics, pdfDocumentCreation);
+        monitorDocumentUpload = HdrHistogramReservoir.timer(metrics, documentUpload);
+        scheduler.resetStatistics();
+        uploadLatencyMicros.reset();
+        if (workloadEngine != null) {
+            workloadEngine.resetStatistics();
+        }
+        if (readBenchmark != null) {
+            readBenchmark.resetStatistics();
+        }
+        if (requestPhaseMetrics != null) {
+            requestPhaseMetrics.resetStatistics();
+        }
+        if (pipeline != null) {
+            pipeline.resetStatistics();
+        }
+    }
+
+    private void printContainerStatistics() {
+        printState("createContainers (parallel)");
+
+        printTimerStatistics(monitorContainerCreation, "ContainerCreation", containerGate.getDurationMillis());
+    }
+
+    void run(TestConfig testConfig, ObjectStorageEnvironment env) {
+        this.setTestConfig(testConfig);
+
+        this.setEnv(env);
+
+        this.stopSignal = new StopSignal();
+        this.retryPolicy = new RetryPolicy(testConfig.getMaxAttempts(), testConfig.getRetryBaseDelayMillis(), testConfig.getRetryMaxDelayMillis(),
+                new CircuitBreaker(testConfig.getBreakerErrorRate(), testConfig.getBreakerCooldownMillis()), this::statusCodeOf);
+        this.errorBudget = new ErrorBudget(testConfig.getMaxFailures(), testConfig.getMaxFailureRate(),
+                testConfig.getFailureFile() != null ? new File(testConfig.getFailureFile()) : null, stopSignal);
+        this.deadline = new RunDeadline(testConfig.getWarmupMillis(), testConfig.getDurationMillis(), stopSignal, this::resetStatistics);
+
+        // The result counters are also scraped by the Prometheus endpoint
+        metrics.register(MetricRegistry.name(ResultInfo.class, "ContainersCreated"), (Gauge<Long>) resultInfo::getNumberOfContainersCreated);
+        metrics.register(MetricRegistry.name(ResultInfo.class, "DocumentsCreated"), (Gauge<Long>) resultInfo::getNumberOfDocumentsCreated);
+        metrics.register(MetricRegistry.name(ResultInfo.class, "DocumentsFailed"), (Gauge<Long>) resultInfo::getNumberOfDocumentsFailed);
+        if (testConfig.getMetricsPort() > 0) {
+            try {
+                this.prometheusEndpoint = PrometheusEndpoint.start(metrics, testConfig.getMetricsPort());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot start metrics endpoint on port " + testConfig.getMetricsPort() + "!", e);
+            }
+            printState("METRICS on http://localhost:" + testConfig.getMetricsPort() + "/metrics");
+        }
+        if (testConfig.isPhaseTiming()) {
+            this.requestPhaseMetrics = new RequestPhaseMetrics(metrics);
+            this.installPhaseTiming(this.requestPhaseMetrics);
+        }
+
+        if (this.isAsynchronous() && testConfig.getWorkloadMix() == null && !testConfig.isReadBenchmark()) {
+            // A few threads generate documents, the number of concurrent uploads is only limited by max-in-flight
+            this.asyncScheduler = new AsyncDocumentScheduler(testConfig.getNumberOfGeneratorThreads(), testConfig.getMaxInFlight(), stopSignal);
+            this.scheduler = asyncScheduler;
+            printState("RUNNING ASYNC with " + testConfig.getNumberOfGeneratorThreads() + " generator threads and "
+                    + testConfig.getMaxInFlight() + " max in-flight uploads");
+        } else if (testConfig.isPipeline()) {
+            // The fork/join pool only generates documents, the uploads run on the pipeline's threads
+            this.scheduler = new ChunkedForkJoinDocumentScheduler(testConfig.getNumberOfGeneratorThreads(), testConfig.getChunkSize(), stopSignal);
+            this.pipeline = new DocumentPipeline(metrics,
+                    WorkerExecutors.newExecutor(testConfig.getExecutor(), testConfig.getNumberOfThreads()),
+                    testConfig.getNumberOfThreads(), testConfig.getQueueCapacity());
+            printState("RUNNING PIPELINE with " + testConfig.getNumberOfGeneratorThreads() + " generator threads and "
+                    + testConfig.getNumberOfThreads() + " " + testConfig.getExecutor() + " upload threads");
+        } else if (testConfig.getRate() > 0.0) {
+            // Open-loop: the documents are started by the clock, not by the completion of the previous ones
+            this.scheduler = new OpenLoopDocumentScheduler(testConfig.getNumberOfThreads(), testConfig.getRate(),
+                    "poisson".equalsIgnoreCase(testConfig.getArrivals()), stopSignal, metrics);
+            printState("RUNNING OPEN-LOOP with " + testConfig.getRate() + " ops/s (" + testConfig.getArrivals()
+                    + " arrivals) on " + testConfig.getNumberOfThreads() + " threads");
+        } else if (WorkerExecutors.VIRTUAL.equalsIgnoreCase(testConfig.getExecutor())) {
+            // Each simulated client runs on its own virtual thread
+            this.scheduler = new ClientDocumentScheduler(
+                    WorkerExecutors.newExecutor(testConfig.getExecutor(), testConfig.getNumberOfThreads()),
+                    testConfig.getExecutor(), testConfig.getNumberOfThreads(), testConfig.getChunkSize(), stopSignal);
+            printState("RUNNING with " + testConfig.getNumberOfThreads() + " virtual threads");
+        } else {
+            // The fork/join pool size is derived from the configuration
+            this.scheduler = new ChunkedForkJoinDocumentScheduler(testConfig.getNumberOfThreads(), testConfig.getChunkSize(), stopSignal);
+            printState("RUNNING with " + testConfig.getNumberOfThreads() + " threads");
+        }
+        if (testConfig.getDynamicConfigGenerator() instanceof DefaultDynamicConfigGenerator) {
+            // The same dataset is generated again with --seed
+            printState("SEED " + ((DefaultDynamicConfigGenerator) testConfig.getDynamicConfigGenerator()).getSeed());
+        }
+
+        if (testConfig.getLoadProfile() != null) {
+            // The pool is sized for the highest stage, the controller limits the concurrency of the current stage
+            this.loadController = new StagedLoadController(LoadProfile.parse(testConfig.getLoadProfile()), stopSignal);
+            printState("LOAD PROFILE " + testConfig.getLoadProfile());
+        } else if (testConfig.getAdaptiveMaxConcurrency() > 0) {
+            // The pool is sized for the maximum limit, the controller searches the sustainable concurrency
+            this.loadController = new AdaptiveConcurrencyController(testConfig.getAdaptiveMinConcurrency(),
+                    testConfig.getAdaptiveMaxConcurrency(), () -> retryPolicy.getThrottledCount() + retryPolicy.getTimeoutCount(), stopSignal);
+            printState("ADAPTIVE CONCURRENCY " + testConfig.getAdaptiveMinConcurrency() + " - " + testConfig.getAdaptiveMaxConcurrency());
+        }
+
+        // Create no containers, but only documents in a certain container
+        if (!this.checkRootContainer(testConfig.getRootContainerName())) {
+            throw new IllegalArgumentException("No root container \"" + testConfig.getRootContainerName()
+                    + "\" in bucket \"" + testConfig.getBucketName() + "\"!");
+        }
+
+        if (testConfig.getWorkloadMix() != null) {
+            // The workload reads, lists and deletes the objects created by previous runs of the loader
+            List<String> keys = this.listObjectKeys(prefixWithBucket(testConfig.getRootContainerName() + "/"), testConfig.getKeyLimit());
+            printState("WORKLOAD " + testConfig.getWorkloadMix() + " on " + keys.size() + " existing objects");
+            this.workloadEngine = new WorkloadEngine(this, testConfig.getRootContainerName(),
+                    OperationMix.parse(testConfig.getWorkloadMix()), new KeyPool(keys), metrics);
+        } else if (testConfig.isReadBenchmark()) {
+            String prefix = prefixWithBucket(testConfig.getReadPrefix() != null ? testConfig.getReadPrefix() : testConfig.getRootContainerName() + "/");
+            List<String> keys = this.listObjectKeys(prefix, testConfig.getKeyLimit());
+            printState("READ " + keys.size() + " objects with prefix \"" + prefix + "\" (" + testConfig.getKeyDistribution() + ")");
+            this.readBenchmark = new ReadBenchmark(this, KeySelector.create(testConfig.getKeyDistribution(), keys),
+                    testConfig.getKeyDistribution());
+        }
+
+        // Create n container and m documents. Each container is created by the first worker, that needs it.
+        this.failedContainers = ConcurrentHashMap.newKeySet();
+        // Without an error budget, the first failed container stops the creation of all further containers
+        this.containerGate = new ContainerGate(this::createContainer, !errorBudget.isEnabled());
+        // A duration-bounded run continues with new documents until the deadline
+        DocumentIndexSpace indexSpace = deadline.isDurationBounded()
+                ? DocumentIndexSpace.unbounded(testConfig.getNumberOfContainers())
+                : new DocumentIndexSpace(testConfig.getNumberOfContainers(), testConfig.getNumberOfDocumentsPerContainer());
+        long startMillis = System.currentTimeMillis();
+        int numberOfDocuments;
+        if (testConfig.getCoordinator() != null) {
+            // A worker of a distributed run creates only the documents of its shard
+            try (DistributedWorker worker = DistributedWorker.connect(testConfig.getCoordinator(), indexSpace)) {
+                numberOfDocuments = this.createDocuments(indexSpace, worker.getFromIndex(), worker.getToIndex(), testConfig.getRootContainerName());
+                worker.sendResult(numberOfDocuments, resultInfo.getNumberOfDocumentsFailed(), measuredMillis, uploadLatencyMicros);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Communication with coordinator \"" + testConfig.getCoordinator() + "\" failed!", e);
+            }
+        } else {
+            numberOfDocuments = this.createDocuments(indexSpace, 0L, indexSpace.size(), testConfig.getRootContainerName());
+        }
+        System.out.println("Number of created containers: " + containerGate.getNumberOfCreatedContainers());
+        if (workloadEngine != null || readBenchmark != null) {
+            System.out.println("Number of successful operations: " + numberOfDocuments);
+        } else {
+            System.out.println("Number of created documents: " + numberOfDocuments);
+            System.out.println("* Documents by status = " + resultInfo.formatDocumentsByStatus());
+        }
+        if (testConfig.getResultFile() != null) {
+            this.writeResultReport(new File(testConfig.getResultFile()), startMillis, System.currentTimeMillis());
+        }
+
+        if (prometheusEndpoint != null) {
+            prometheusEndpoint.stop();
+        }
+        this.shutdown();
+    }
+
+    private void writeResultReport(File file, long startMillis, long endMillis) {
+        ResultReport report = new ResultReport(testConfig, resultInfo, startMillis, endMillis, measuredMillis, documentsInWarmup,
+                documentsFailedInWarmup);
+        report.addLatency("uploadLatencyMillis", uploadLatencyMicros);
+        if (scheduler instanceof OpenLoopDocumentScheduler) {
+            report.addLatency("responseTimeMillis", ((OpenLoopDocumentScheduler) scheduler).getResponseTimeMicros());
+        }
+        report.addRetries(retryPolicy.getRetriesByStatus(), retryPolicy.getGiveUpsByStatus());
+        try {
+            report.write(file);
+            printState("RESULT written to " + file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+
+    String buildObjectKey(String rootContainerName, String objectPath, String objectName) {
+        return prefixWithBucket(rootContainerName + "/" + objectPath + "/" + objectName);
+    }
+
+    /**
+     * @param containerIndex The container index or -1 for the root container.
+     * @return the key prefix of all objects within the container
+     */
+    String buildContainerPrefix(String rootContainerName, int containerIndex) {
+        if (containerIndex < 0) {
+            return prefixWithBucket(rootContainerName + "/");
+        }
+        return prefixWithBucket(rootContainerName + "/" + testConfig.getDynamicConfigGenerator().buildContainerName(containerIndex) + "/");
+    }
+
+    String prefixWithBucket(String path) {
+        return prefixWithBucket(testConfig.getBucketName(), path);
+    }
+
+    String prefixWithBucket(String bucketName, String path) {
+        if (env.getServiceProperties().isPrefixWithBucketName()) {
+            return bucketName + "/" + path;
+        } else {
+            return path;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+
+    static TestConfig parseCli(String[] args) {
+        CommandLineParser parser = new DefaultParser();
+
+        Options options = new Options();
+
+        options.addOption("h", "help", false, "print usage help");
+
+        Option runClass = Option.builder()
+                .longOpt("run")
+                .hasArg()
+                .desc("the test to run - [test-loader|workload|read|coordinator|worker|generate-corpus|smoke-tester] - Default = test-loader")
+                .build();
+        options.addOption(runClass);
+
+        Option mixOption = Option.builder()
+                .longOpt("mix")
+                .hasArg()
+                .desc("operation weights of --run workload, default is \"get=70,put=15,list=10,delete=5\" (also head)")
+                .build();
+        options.addOption(mixOption);
+
+        Option keyLimitOption = Option.builder()
+                .longOpt("key-limit")
+                .hasArg()
+                .desc("maximum number of existing object keys used by --run workload, default is 100000")
+                .build();
+        options.addOption(keyLimitOption);
+
+        Option keyDistributionOption = Option.builder()
+                .longOpt("key-distribution")
+                .hasArg()
+                .desc("key selection of --run read - [uniform|sequential|zipf[:exponent]] - Default = uniform")
+                .build();
+        options.addOption(keyDistributionOption);
+
+        Option journalOption = Option.builder()
+                .longOpt("journal")
+                .hasArg()
+                .desc("file, to which the completed documents are appended, so the run can be resumed with --resume")
+                .build();
+        options.addOption(journalOption);
+
+        Option maxAttemptsOption = Option.builder()
+                .longOpt("max-attempts")
+                .hasArg()
+                .desc("maximum number of attempts of an upload with a transient error (network, 408, 429, 5xx), default is 3")
+                .build();
+        options.addOption(maxAttemptsOption);
+
+        Option retryDelayOption = Option.builder()
+                .longOpt("retry-delay")
+                .hasArg()
+                .desc("base and maximum delay between attempts, default is 100ms-10s")
+                .build();
+        options.addOption(retryDelayOption);
+
+        Option breakerOption = Option.builder()
+                .longOpt("breaker")
+                .hasArg()
+                .desc("rate of transient errors in percent, above which all uploads pause, and the pause, default is 50@5s, 0 disables the breaker")
+                .build();
+        options.addOption(breakerOption);
+
+        Option errorBudgetOption = Option.builder()
+                .longOpt("error-budget")
+                .hasArg()
+                .desc("number or percentage of failed containers and documents, up to which the run continues, e.g. 100 or 0.5%")
+                .build();
+        options.addOption(errorBudgetOption);
+
+        Option failureFileOption = Option.builder()
+                .longOpt("failure-file")
+                .hasArg()
+                .desc("file for the failed containers and documents, default is failures.txt with an --error-budget")
+                .build();
+        options.addOption(failureFileOption);
+
+        Option reportIntervalOption = Option.builder()
+                .longOpt("report-interval")
+                .hasArg()
+                .desc("print throughput, latency, failures, in-flight requests and ETA every interval, e.g. 10s, default is no report")
+                .build();
+        options.addOption(reportIntervalOption);
+
+        Option reportFileOption = Option.builder()
+                .longOpt("report-file")
+                .hasArg()
+                .desc("write the interval report as CSV or, for files ending with .json or .jsonl, as JSON lines")
+                .build();
+        options.addOption(reportFileOption);
+
+        Option templatesOption = Option.builder()
+                .longOpt("templates")
+                .hasArg()
+                .desc("render this number of template PDFs once and only patch the fields of each document into them, default is 0 (iText renders each document)")
+                .build();
+        options.addOption(templatesOption);
+
+        Option sizeDistributionOption = Option.builder()
+                .longOpt("size-distribution")
+                .hasArg()
+                .desc("pad the PDFs to object sizes of a distribution, e.g. fixed:2MB, uniform:2KB-200MB, lognormal:64KB,1.5[,200MB] or histogram:<file>")
+                .build();
+        options.addOption(sizeDistributionOption);
+
+        Option compressibilityOption = Option.builder()
+                .longOpt("compressibility")
+                .hasArg()
+                .desc("fraction of the padding, which is compressible, between 0.0 (random, the default) and 1.0 (zeros)")
+                .build();
+        options.addOption(compressibilityOption);
+
+        Option corpusOption = Option.builder()
+                .longOpt("corpus")
+                .hasArg()
+                .desc("pack file of a corpus, which is written by --run generate-corpus (default corpus.pack) and memory mapped and uploaded by a load instead of generating the documents")
+                .build();
+        options.addOption(corpusOption);
+
+        Option seedOption = Option.builder()
+                .longOpt("seed")
+                .hasArg()
+                .desc("seed of the generated documents, the same seed generates the same names, meta data, sizes and bytes; default is random")
+                .build();
+        options.addOption(seedOption);
+
+        Option resultFileOption = Option.builder()
+                .longOpt("result-file")
+                .hasArg()
+                .desc("write the results (counts per status code and container, throughput, latency, errors) as JSON file at the end of the run")
+                .build();
+        options.addOption(resultFileOption);
+
+        Option metricsPortOption = Option.builder()
+                .longOpt("metrics-port")
+                .hasArg()
+                .desc("serve the metrics in Prometheus text format on http://<host>:<port>/metrics during the run, default is none")
+                .build();
+        options.addOption(metricsPortOption);
+
+        Option phaseTimingOption = Option.builder()
+                .longOpt("phase-timing")
+                .desc("measure the phases of each request: connection acquire, TCP connect, TLS handshake, signing, send, time to first byte and response processing")
+                .build();
+        options.addOption(phaseTimingOption);
+
+        Option workersOption = Option.builder()
+                .longOpt("workers")
+                .hasArg()
+                .desc("number of worker processes of --run coordinator, default is 2")
+                .build();
+        options.addOption(workersOption);
+
+        Option portOption = Option.builder()
+                .longOpt("port")
+                .hasArg()
+                .desc("TCP port of --run coordinator, default is 7070")
+                .build();
+        options.addOption(portOption);
+
+        Option coordinatorOption = Option.builder()
+                .longOpt("coordinator")
+                .hasArg()
+                .desc("host:port of the coordinator, to which --run worker connects")
+                .build();
+        options.addOption(coordinatorOption);
+
+        Option resumeOption = Option.builder()
+                .longOpt("resume")
+                .desc("skip the documents completed according to --journal and continue the run")
+                .build();
+        options.addOption(resumeOption);
+
+        Option readPrefixOption = Option.builder()
+                .longOpt("prefix")
+                .hasArg()
+                .desc("key prefix of the objects read by --run read, default is the root container")
+                .build();
+        options.addOption(readPrefixOption);
+
+        Option numberOfThreadsOption = Option.builder()
+                .longOpt("threads")
+                .hasArg()
+                .desc("number of parallel threads, default is 1")
+                .build();
+        options.addOption(numberOfThreadsOption);
+
+        Option executorOption = Option.builder()
+                .longOpt("executor")
+                .hasArg()
+                .desc("thread type of the simulated clients - [platform|virtual] - Default = platform, virtual needs Java 21")
+                .build();
+        options.addOption(executorOption);
+
+        Option loadProfileOption = Option.builder()
+                .longOpt("profile")
+                .hasArg()
+                .desc("load profile with staged concurrency instead of --threads, e.g. \"ramp:1-16@1m;step:16,32,64@30s;hold:64@5m\"")
+                .build();
+        options.addOption(loadProfileOption);
+
+        Option adaptiveOption = Option.builder()
+                .longOpt("adaptive")
+                .hasArg()
+                .desc("adjust the concurrency instead of --threads between min and max by AIMD on latency, throttling and timeouts, e.g. 1-256")
+                .build();
+        options.addOption(adaptiveOption);
+
+        Option durationOption = Option.builder()
+                .longOpt("duration")
+                .hasArg()
+                .desc("run until the duration (e.g. 30s, 15m, 2h) has elapsed instead of stopping after --docs documents")
+                .build();
+        options.addOption(durationOption);
+
+        Option warmupOption = Option.builder()
+                .longOpt("warmup")
+                .hasArg()
+                .desc("warm-up time before the duration (e.g. 5m), whose documents are excluded from the statistics")
+                .build();
+        options.addOption(warmupOption);
+
+        Option chunkSizeOption = Option.builder()
+                .longOpt("chunk")
+                .hasArg()
+                .desc("number of documents processed by a worker before it looks for new work, default is 8")
+                .build();
+        options.addOption(chunkSizeOption);
+
+        Option pipelineOption = Option.builder()
+                .longOpt("pipeline")
+                .desc("generate documents on a CPU sized pool and upload them on --threads upload threads")
+                .build();
+        options.addOption(pipelineOption);
+
+        Option numberOfGeneratorThreadsOption = Option.builder()
+                .longOpt("generator-threads")
+                .hasArg()
+                .desc("number of document generator threads in pipeline mode, default is the number of CPUs")
+                .build();
+        options.addOption(numberOfGeneratorThreadsOption);
+
+        Option queueCapacityOption = Option.builder()
+                .longOpt("queue")
+                .hasArg()
+                .desc("capacity of the queue between generator and upload threads in pipeline mode, default is 64")
+                .build();
+        options.addOption(queueCapacityOption);
+
+        Option rateOption = Option.builder()
+                .longOpt("rate")
+                .hasArg()
+                .desc("open-loop mode: start N documents per second independent of the response times, default is 0 = closed-loop")
+                .build();
+        options.addOption(rateOption);
+
+        Option arrivalsOption = Option.builder()
+                .longOpt("arrivals")
+                .hasArg()
+                .desc("arrival distribution in open-loop mode - [constant|poisson] - Default = constant")
+                .build();
+        options.addOption(arrivalsOption);
+
+        Option backendOption = Option.builder()
+                .longOpt("backend")
+                .hasArg()
+                .desc("the S3 client to use - [s3|s3-async] - Default = s3 (blocking SDK v1), s3-async is the non-blocking SDK v2")
+                .build();
+        options.addOption(backendOption);
+
+        Option maxInFlightOption = Option.builder()
+                .longOpt("max-in-flight")
+                .hasArg()
+                .desc("maximum number of concurrent uploads of the s3-async backend, default is 1000")
+                .build();
+        options.addOption(maxInFlightOption);
+
+        Option numberOfEventLoopThreadsOption = Option.builder()
+                .longOpt("event-loop-threads")
+                .hasArg()
+                .desc("number of network event loop threads of the s3-async backend, default is 2")
+                .build();
+        options.addOption(numberOfEventLoopThreadsOption);
+
+        Option numberOfContainersOption = Option.builder()
+                .longOpt("containers")
+                .hasArg()
+                .desc("number of containers, default is 0 - then root must be present")
+                .build();
+        options.addOption(numberOfContainersOption);
+
+        Option bucketOption = Option.builder()
+                .longOpt("bucket")
+                .hasArg()
+                .desc("name of bucket, no default")
+                .build();
+        options.addOption(bucketOption);
+
+        Option rootContainerOption = Option.builder()
+                .longOpt("root")
+                .hasArg()
+                .desc("name of existing root container to be used, if empty the new containers are top-level")
+                .build();
+        options.addOption(rootContainerOption);
+
+        Option numberOfDocumentsOption = Option.builder()
+                .longOpt("docs")
+                .hasArg()
+                .desc("number of documents per container, default is 10")
+                .build();
+        options.addOption(numberOfDocumentsOption);
+
+        Option configClassOption = Option.builder()
+                .longOpt("config")
+                .hasArg()
+                .desc("dynamic configurator class, default is com.giraone.s3.objectstore.testdata.DefaultDynamicConfigGenerator")
+                .build();
+        options.addOption(configClassOption);
+
+        Option propertiesOption = Option.builder()
+                .longOpt("properties")
+                .hasArg()
+                .desc("JSON properties for URL, bucket name, credentials, ...")
+                .build();
+        options.addOption(propertiesOption);
+
+        TestConfig testConfig = new TestConfig();
+
+        try {
+            CommandLine line = parser.parse(options, args);
+
+            if (line.hasOption("help")) {
+                usage(options);
+                System.exit(1);
+            }
+
+            String runnerClassName = line.getOptionValue("run", "test-loader");
+            Class runnerClass;
+            if ("smoke-tester".equalsIgnoreCase(runnerClassName)) {
+                runnerClass = SmokeTesterS3.class;
+            } else if ("coordinator".equalsIgnoreCase(runnerClassName)) {
+                runnerClass = DistributedCoordinator.class;
+            } else if ("test-loader".equalsIgnoreCase(runnerClassName) || "workload".equalsIgnoreCase(runnerClassName)
+                    || "read".equalsIgnoreCase(runnerClassName) || "worker".equalsIgnoreCase(runnerClassName)
+                    || "generate-corpus".equalsIgnoreCase(runnerClassName)) {
+                runnerClass = ObjectStoreTestLoaderS3.class;
+            } else {
+                throw new IllegalArgumentException("Invalid test \"" + runnerClassName + "\"!");
+            }
+            testConfig.setTestRunner(runnerClass);
+            if ("workload".equalsIgnoreCase(runnerClassName)) {
+                testConfig.setWorkloadMix(OperationMix.parse(line.getOptionValue("mix", "get=70,put=15,list=10,delete=5")).toString());
+            }
+            testConfig.setReadBenchmark("read".equalsIgnoreCase(runnerClassName));
+            testConfig.setGenerateCorpus("generate-corpus".equalsIgnoreCase(runnerClassName));
+            testConfig.setCorpusPath(line.getOptionValue("corpus", testConfig.isGenerateCorpus() ? "corpus.pack" : null));
+            testConfig.setKeyDistribution(line.getOptionValue("key-distribution", "uniform"));
+            testConfig.setReadPrefix(line.getOptionValue("prefix"));
+            testConfig.setKeyLimit(Integer.parseInt(line.getOptionValue("key-limit", "100000")));
+            testConfig.setNumberOfWorkers(Integer.parseInt(line.getOptionValue("workers", "2")));
+            testConfig.setCoordinatorPort(Integer.parseInt(line.getOptionValue("port", "7070")));
+            if ("worker".equalsIgnoreCase(runnerClassName)) {
+                if (!line.hasOption("coordinator")) {
+                    throw new IllegalArgumentException("--run worker needs --coordinator host:port!");
+                }
+                testConfig.setCoordinator(line.getOptionValue("coordinator"));
+            }
+            testConfig.setJournalPath(line.getOptionValue("journal"));
+            testConfig.setMaxAttempts(Integer.parseInt(line.getOptionValue("max-attempts", "3")));
+            String[] retryDelays = line.getOptionValue("retry-delay", "100ms-10s").split("-");
+            if (retryDelays.length != 2) {
+                throw new IllegalArgumentException("Invalid retry delay! Use e.g. 100ms-10s.");
+            }
+            testConfig.setRetryBaseDelayMillis(DurationParser.parseMillis(retryDelays[0]));
+            testConfig.setRetryMaxDelayMillis(DurationParser.parseMillis(retryDelays[1]));
+            String[] breaker = line.getOptionValue("breaker", "50@5s").split("@");
+            testConfig.setBreakerErrorRate(Double.parseDouble(breaker[0]) / 100.0);
+            testConfig.setBreakerCooldownMillis(breaker.length > 1 ? DurationParser.parseMillis(breaker[1]) : 5000L);
+            testConfig.setReportIntervalMillis(DurationParser.parseMillis(line.getOptionValue("report-interval", "0")));
+            testConfig.setReportFile(line.getOptionValue("report-file"));
+            testConfig.setMetricsPort(Integer.parseInt(line.getOptionValue("metrics-port", "0")));
+            testConfig.setPhaseTiming(line.hasOption("phase-timing"));
+            testConfig.setResultFile(line.getOptionValue("result-file"));
+            testConfig.setNumberOfTemplates(Integer.parseInt(line.getOptionValue("templates", "0")));
+            if (testConfig.getReportFile() != null && testConfig.getReportIntervalMillis() <= 0L) {
+                throw new IllegalArgumentException("--report-file needs a --report-interval!");
+            }
+            if (line.hasOption("error-budget")) {
+                String errorBudget = line.getOptionValue("error-budget").trim();
+                if (errorBudget.endsWith("%")) {
+                    testConfig.setMaxFailureRate(Double.parseDouble(errorBudget.substring(0, errorBudget.length() - 1)) / 100.0);
+                } else {
+                    testConfig.setMaxFailures(Long.parseLong(errorBudget));
+                }
+                if (testConfig.getMaxFailures() < -1L || testConfig.getMaxFailureRate() > 1.0
+                        || (testConfig.getMaxFailures() < 0L && testConfig.getMaxFailureRate() < 0.0)) {
+                    throw new IllegalArgumentException("Invalid error budget \"" + errorBudget + "\"! Use e.g. 100 or 0.5%.");
+                }
+                testConfig.setFailureFile(line.getOptionValue("failure-file", "failures.txt"));
+            } else {
+                testConfig.setFailureFile(line.getOptionValue("failure-file"));
+            }
+            testConfig.setResume(line.hasOption("resume"));
+            if (testConfig.isResume() && testConfig.getJournalPath() == null) {
+                throw new IllegalArgumentException("--resume needs a --journal!");
+            }
+            if (testConfig.getJournalPath() != null && (testConfig.getWorkloadMix() != null || testConfig.isReadBenchmark())) {
+                throw new IllegalArgumentException("A journal can only be used for loading documents!");
+            }
+
+            testConfig.setPropertiesPath(line.getOptionValue("properties", "res:s3/cred.json"));
+
+            String configClassName = line.getOptionValue("config", DefaultDynamicConfigGenerator.class.getCanonicalName());
+            DynamicConfigGenerator dynamicConfigGenerator = (DynamicConfigGenerator) Class.forName(configClassName).newInstance();
+            testConfig.setDynamicConfigGenerator(dynamicConfigGenerator);
+            if (line.hasOption("size-distribution") || line.hasOption("compressibility") || line.hasOption("seed")) {
+                if (!(dynamicConfigGenerator instanceof DefaultDynamicConfigGenerator)) {
+                    throw new IllegalArgumentException("--size-distribution, --compressibility and --seed need a --config extending "
+                            + DefaultDynamicConfigGenerator.class.getSimpleName() + "!");
+                }
+                DefaultDynamicConfigGenerator defaultGenerator = (DefaultDynamicConfigGenerator) dynamicConfigGenerator;
+                if (line.hasOption("seed")) {
+                    defaultGenerator.setSeed(Long.parseLong(line.getOptionValue("seed")));
+                }
+                if (line.hasOption("size-distribution")) {
+                    defaultGenerator.setSizeDistribution(SizeDistribution.parse(line.getOptionValue("size-distribution")));
+                }
+                if (line.hasOption("compressibility")) {
+                    defaultGenerator.setPayloadGenerator(new PayloadGenerator(Double.parseDouble(line.getOptionValue("compressibility"))));
+                }
+            }
+
+            testConfig.setBucketName(line.getOptionValue("bucket"));
+            testConfig.setRootContainerName(line.getOptionValue("root", ""));
+            testConfig.setNumberOfContainers(Integer.parseInt(line.getOptionValue("containers", "0")));
+            testConfig.setNumberOfDocumentsPerContainer(Integer.parseInt(line.getOptionValue("docs", "10")));
+            testConfig.setNumberOfThreads(Integer.parseInt(line.getOptionValue("threads", "1")));
+            testConfig.setChunkSize(Integer.parseInt(line.getOptionValue("chunk", "8")));
+            testConfig.setExecutor(line.getOptionValue("executor", WorkerExecutors.PLATFORM));
+            if (WorkerExecutors.VIRTUAL.equalsIgnoreCase(testConfig.getExecutor())) {
+                if (!WorkerExecutors.isVirtualThreadSupported()) {
+                    throw new IllegalArgumentException("--executor virtual needs Java 21 and a jar built with \"mvn -Pjava21 package\"!");
+                }
+            } else if (!WorkerExecutors.PLATFORM.equalsIgnoreCase(testConfig.getExecutor())) {
+                throw new IllegalArgumentException("Invalid executor \"" + testConfig.getExecutor() + "\"!");
+            }
+            testConfig.setPipeline(line.hasOption("pipeline"));
+            testConfig.setNumberOfGeneratorThreads(Integer.parseInt(line.getOptionValue("generator-threads",
+                    Integer.toString(Runtime.getRuntime().availableProcessors()))));
+            testConfig.setQueueCapacity(Integer.parseInt(line.getOptionValue("queue", "64")));
+            testConfig.setRate(Double.parseDouble(line.getOptionValue("rate", "0")));
+            testConfig.setArrivals(line.getOptionValue("arrivals", "constant"));
+            if (!"constant".equalsIgnoreCase(testConfig.getArrivals()) && !"poisson".equalsIgnoreCase(testConfig.getArrivals())) {
+                throw new IllegalArgumentException("Invalid arrival distribution \"" + testConfig.getArrivals() + "\"!");
+            }
+            if (testConfig.getRate() > 0.0 && testConfig.isPipeline()) {
+                throw new IllegalArgumentException("Open-loop mode (--rate) cannot be combined with --pipeline!");
+            }
+            testConfig.setBackend(line.getOptionValue("backend", "s3"));
+            if (!"s3".equalsIgnoreCase(testConfig.getBackend()) && !"s3-async".equalsIgnoreCase(testConfig.getBackend())) {
+                throw new IllegalArgumentException("Invalid backend \"" + testConfig.getBackend() + "\"!");
+            }
+            if ("s3-async".equalsIgnoreCase(testConfig.getBackend()) && (testConfig.getRate() > 0.0 || testConfig.isPipeline())) {
+                throw new IllegalArgumentException("The s3-async backend cannot be combined with --rate or --pipeline!");
+            }
+            if ((testConfig.getWorkloadMix() != null || testConfig.isReadBenchmark()) && testConfig.isPipeline()) {
+                throw new IllegalArgumentException("A workload or read benchmark cannot be combined with --pipeline!");
+            }
+            if (line.hasOption("profile")) {
+                if (testConfig.getRate() > 0.0 || testConfig.isPipeline() || "s3-async".equalsIgnoreCase(testConfig.getBackend())) {
+                    throw new IllegalArgumentException("A load profile cannot be combined with --rate, --pipeline or the s3-async backend!");
+                }
+                // The threads are sized for the stage with the highest concurrency
+                testConfig.setLoadProfile(line.getOptionValue("profile"));
+                testConfig.setNumberOfThreads(LoadProfile.parse(testConfig.getLoadProfile()).getMaxConcurrency());
+            }
+            if (line.hasOption("adaptive")) {
+                if (line.hasOption("profile") || testConfig.getRate() > 0.0 || testConfig.isPipeline()
+                        || "s3-async".equalsIgnoreCase(testConfig.getBackend())) {
+                    throw new IllegalArgumentException("Adaptive concurrency cannot be combined with --profile, --rate, --pipeline or the s3-async backend!");
+                }
+                String[] range = line.getOptionValue("adaptive").split("-");
+                if (range.length != 2) {
+                    throw new IllegalArgumentException("Invalid adaptive concurrency range! Use e.g. 1-256.");
+                }
+                testConfig.setAdaptiveMinConcurrency(Integer.parseInt(range[0].trim()));
+                testConfig.setAdaptiveMaxConcurrency(Integer.parseInt(range[1].trim()));
+                if (testConfig.getAdaptiveMinConcurrency() < 1 || testConfig.getAdaptiveMaxConcurrency() < testConfig.getAdaptiveMinConcurrency()) {
+                    throw new IllegalArgumentException("Invalid adaptive concurrency range! Use e.g. 1-256.");
+                }
+                // The threads are sized for the maximum limit
+                testConfig.setNumberOfThreads(testConfig.getAdaptiveMaxConcurrency());
+            }
+            testConfig.setDurationMillis(DurationParser.parseMillis(line.getOptionValue("duration", "0")));
+            testConfig.setWarmupMillis(DurationParser.parseMillis(line.getOptionValue("warmup", "0")));
+            if (testConfig.isGenerateCorpus() && (testConfig.getDurationMillis() > 0L || "s3-async".equalsIgnoreCase(testConfig.getBackend()))) {
+                throw new IllegalArgumentException("--run generate-corpus needs a number of documents and cannot be combined with --duration or the s3-async backend!");
+            }
+            if (testConfig.getCorpusPath() != null && !testConfig.isGenerateCorpus()
+                    && (testConfig.getWorkloadMix() != null || testConfig.isReadBenchmark())) {
+                throw new IllegalArgumentException("A corpus can only be replayed by a load!");
+            }
+            if (testConfig.getCorpusPath() != null && !testConfig.isGenerateCorpus() && testConfig.getDurationMillis() > 0L) {
+                throw new IllegalArgumentException("A corpus has a fixed number of documents and cannot be replayed with --duration!");
+            }
+            testConfig.setMaxInFlight(Integer.parseInt(line.getOptionValue("max-in-flight", "1000")));
+            testConfig.setNumberOfEventLoopThreads(Integer.parseInt(line.getOptionValue("event-loop-threads", "2")));
+        } catch (Exception exp) {
+            exp.printStackTrace();
+            HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("ObjectStoreTestLoader", options);
+            return null;
+        }
+
+        return testConfig;
+    }
+
+    // ---------------------------------------------------------------------------------
+
+    private static void usage(Options options) {
+
+        HelpFormatter formatter = new HelpFormatter();
+        formatter.printHelp("java -jar target/testdata-loader-1.0.jar\n", options);
+    }
+
+    /**
+     * Print count, throughput and latency of a timer. The timers record nanoseconds, the latency is printed in msecs.
+     *
+     * @param durationMillis The time, in which the operations were measured, to calculate the throughput.
+     */
+    static void printTimerStatistics(Timer timer, String name, long durationMillis) {
+        HdrHistogramReservoir.printTimerStatistics(timer, name, durationMillis);
+    }
+
+    static void printState(String name) {
+        System.out.print("------- ");
+        System.out.print(name);
+        System.out.println(" ---------");
+    }
+}
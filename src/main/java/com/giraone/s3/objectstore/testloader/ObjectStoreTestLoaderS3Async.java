@@ -0,0 +1,265 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.codahale.metrics.Timer;
+import com.giraone.s3.objectstore.authentication.Authenticator;
+import com.giraone.s3.objectstore.testdata.DocumentMetaData;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loader backend using the non-blocking S3 client of the AWS SDK version 2. One client instance multiplexes
+ * all uploads on a few event loop threads, so the concurrency is limited by --max-in-flight and not by threads.
+ * <p>
+ * The workload and the read benchmark are closed-loop with one request per thread, so their operations wait for the
+ * completion of the non-blocking requests.
+ */
+public class ObjectStoreTestLoaderS3Async extends ObjectStoreTestLoaderBase {
+
+    private volatile S3AsyncClient objectStorageService;
+    // Reads the streams of padded documents
+    private final ExecutorService payloadExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "payload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ObjectStoreTestLoaderS3Async() {
+        super();
+    }
+
+    private S3AsyncClient getObjectStorageService() {
+        if (this.objectStorageService == null) {
+            synchronized (this) {
+                if (this.objectStorageService == null) {
+                    this.objectStorageService = this.init();
+                }
+            }
+        }
+        return this.objectStorageService;
+    }
+
+    private S3AsyncClient init() {
+        if (this.env == null) {
+            throw new IllegalStateException("init() called without valid environment!");
+        }
+        // No retries within the SDK, the retry policy of the loader counts them
+        return Authenticator.initAsync(this.env, this.testConfig.getMaxInFlight(), this.testConfig.getNumberOfEventLoopThreads(), 0,
+                this.requestPhaseMetrics != null ? this.requestPhaseMetrics.sdkV2Publisher() : null);
+    }
+
+    @Override
+    boolean isAsynchronous() {
+        return true;
+    }
+
+    @Override
+    void shutdown() {
+        if (this.objectStorageService != null) {
+            this.objectStorageService.close();
+        }
+        this.payloadExecutor.shutdown();
+    }
+
+    /**
+     * Blocking upload for the puts of the thread-based workload. A load uses createDocumentAsync().
+     */
+    String createDocument(String rootContainerName, GeneratedDocument document) {
+        return this.createDocumentAsync(rootContainerName, document).join();
+    }
+
+    @Override
+    CompletableFuture<String> createDocumentAsync(String rootContainerName, GeneratedDocument document) {
+
+        DocumentMetaData metaData = document.getMetaData();
+
+        // Version with human readable name as object name
+        String objectName = metaData.getTitle();
+
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(this.testConfig.getBucketName())
+                .key(buildObjectKey(rootContainerName, document.getObjectPath(), objectName))
+                .contentType("application/pdf")
+                .contentLength(document.getSize())
+                .metadata(this.buildObjectMetaData(metaData))
+                .build();
+
+        final Timer.Context context = monitorDocumentUpload.time();
+
+        CompletableFuture<PutObjectResponse> response;
+        try {
+            response = getObjectStorageService().putObject(request, this.requestBody(document));
+        } catch (RuntimeException e) {
+            context.stop();
+            throw e;
+        }
+
+        // Errors are passed on to the retry policy
+        return response.whenComplete((result, throwable) -> context.stop()).thenApply(PutObjectResponse::eTag);
+    }
+
+    /**
+     * A padded document is streamed, because its payload is generated while it is read. The blocking reads of the
+     * stream run on the payload threads, not on the event loop. Other documents, also the slices of a memory mapped
+     * corpus pack, are sent from their buffer without copying.
+     */
+    private AsyncRequestBody requestBody(GeneratedDocument document) {
+        if (!document.isPadded()) {
+            return AsyncRequestBody.fromRemainingByteBufferUnsafe(document.asByteBuffer());
+        }
+        return AsyncRequestBody.fromInputStream(document.newInputStream(), document.getSize(), payloadExecutor);
+    }
+
+    @Override
+    List<String> listObjectKeys(String prefix, int maxKeys) {
+
+        List<String> keys = new ArrayList<>();
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(this.testConfig.getBucketName())
+                .prefix(prefix)
+                .maxKeys(Math.min(1000, maxKeys))
+                .build();
+        ListObjectsV2Response listing;
+        do {
+            listing = this.getObjectStorageService().listObjectsV2(request).join();
+            for (S3Object object : listing.contents()) {
+                // Skip the folder markers of the containers
+                if (!object.key().endsWith("/") && keys.size() < maxKeys) {
+                    keys.add(object.key());
+                }
+            }
+            request = request.toBuilder().continuationToken(listing.nextContinuationToken()).build();
+        } while (listing.isTruncated() && keys.size() < maxKeys);
+        return keys;
+    }
+
+    @Override
+    long readObject(String key, NullSink sink) {
+
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(this.testConfig.getBucketName())
+                .key(key)
+                .build();
+        // The stream is returned with the response headers, the body is read while it arrives
+        try (ResponseInputStream<GetObjectResponse> in = this.getObjectStorageService()
+                .getObject(request, AsyncResponseTransformer.<GetObjectResponse>toBlockingInputStream()).join()) {
+            return sink.drain(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Reading \"" + key + "\" failed!", e);
+        }
+    }
+
+    @Override
+    boolean headObject(String key) {
+
+        HeadObjectRequest request = HeadObjectRequest.builder()
+                .bucket(this.testConfig.getBucketName())
+                .key(key)
+                .build();
+        return this.getObjectStorageService().headObject(request).join() != null;
+    }
+
+    @Override
+    boolean deleteObject(String key) {
+
+        DeleteObjectRequest request = DeleteObjectRequest.builder()
+                .bucket(this.testConfig.getBucketName())
+                .key(key)
+                .build();
+        this.getObjectStorageService().deleteObject(request).join();
+        return true;
+    }
+
+    @Override
+    int statusCodeOf(Throwable throwable) {
+        Throwable cause = unwrap(throwable);
+        if (cause instanceof SdkServiceException) {
+            return ((SdkServiceException) cause).statusCode();
+        } else if (cause instanceof SdkClientException || cause instanceof IOException) {
+            return RetryPolicy.NETWORK_ERROR;
+        }
+        return -1;
+    }
+
+    boolean createContainer(int containerIndex) {
+
+        String rootContainer = testConfig.getRootContainerName();
+        String containerName = testConfig.getDynamicConfigGenerator().buildContainerName(containerIndex);
+
+        printState(" createContainer START " + containerIndex + " " + containerName);
+
+        final Timer.Context context = monitorContainerCreation.time();
+
+        try {
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(testConfig.getBucketName())
+                    .key(prefixWithBucket(rootContainer + "/" + containerName + "/"))
+                    .contentType("application/directory")
+                    .contentLength(0L)
+                    .build();
+
+            PutObjectResponse result = getObjectStorageService().putObject(request, AsyncRequestBody.empty()).join();
+            if (result.eTag() != null) {
+                resultInfo.addContainerResultOk(containerIndex);
+                return true;
+            } else {
+                resultInfo.addContainerResultError(containerIndex, -1, "No ETag returned for container \"" + containerName + "\"");
+                return false;
+            }
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof S3Exception) {
+                S3Exception s3Exception = (S3Exception) cause;
+                resultInfo.addContainerResultError(containerIndex, s3Exception.statusCode(), s3Exception.getMessage());
+            } else {
+                resultInfo.addContainerResultError(containerIndex, -1, cause.getMessage());
+            }
+            return false;
+        } finally {
+            context.stop();
+        }
+    }
+
+    boolean checkRootContainer(String rootContainerName) {
+
+        String checkedName = prefixWithBucket(rootContainerName + "/");
+        System.out.println("checkRootContainer " + rootContainerName + " in bucket " + this.testConfig.getBucketName()
+                + " using path \"" + checkedName + "\"");
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(this.testConfig.getBucketName())
+                .prefix(checkedName)
+                .build();
+        ListObjectsV2Response response = this.getObjectStorageService().listObjectsV2(request).join();
+        List<S3Object> objectSummaries = response.contents();
+
+        System.out.println("Number of existing top level containers: " + objectSummaries.size());
+
+        S3Object anyObjectInContainer = objectSummaries.stream().filter(c -> c.key().startsWith(checkedName)).findAny().orElse(null);
+        return anyObjectInContainer != null;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+}
@@ -0,0 +1,182 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.giraone.s3.common.HdrHistogramReservoir;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop scheduler: documents are started by the clock with a fixed rate (constant or Poisson arrivals),
+ * independent of how fast the previous requests complete. When the object store slows down, the requests queue up
+ * and their latency is measured from the intended start time, so the percentiles are not hidden by
+ * coordinated omission. This response time is also the timer "DocumentResponseTime" of the metric registry, so the
+ * interval report, the metrics endpoint and the result file show it next to the service time of "DocumentUpload".
+ * When the run is stopped, the requests still waiting in the backlog are dropped.
+ */
+class OpenLoopDocumentScheduler implements DocumentScheduler {
+
+    static final String RESPONSE_TIME = MetricRegistry.name(ObjectStoreTestLoaderBase.class, "DocumentResponseTime");
+
+    private final int numberOfThreads;
+    private final double ratePerSecond;
+    private final boolean poissonArrivals;
+    private final StopSignal stopSignal;
+    private final MetricRegistry metrics;
+
+    // Replaced at the end of the warm-up
+    private volatile Timer responseTime;
+    // Latency measured from the intended start time (what a client with a fixed arrival rate sees)
+    private final Histogram responseTimeMicros = new ConcurrentHistogram(3);
+    // Latency measured from the actual start time (what a closed-loop client sees)
+    private final Histogram serviceTimeMicros = new ConcurrentHistogram(3);
+
+    private final LongAdder completedDocuments = new LongAdder();
+    private final LongAdder droppedDocuments = new LongAdder();
+
+    private volatile long scheduledDocuments;
+    private volatile int maxBacklog;
+
+    OpenLoopDocumentScheduler(int numberOfThreads, double ratePerSecond, boolean poissonArrivals, StopSignal stopSignal,
+                              MetricRegistry metrics) {
+        if (ratePerSecond <= 0.0) {
+            throw new IllegalArgumentException("Rate must be positive, but was " + ratePerSecond);
+        }
+        this.numberOfThreads = numberOfThreads;
+        this.ratePerSecond = ratePerSecond;
+        this.poissonArrivals = poissonArrivals;
+        this.stopSignal = stopSignal;
+        this.metrics = metrics;
+        this.responseTime = HdrHistogramReservoir.timer(metrics, RESPONSE_TIME);
+    }
+
+    Timer getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * @return the latency from the intended start time in microseconds
+     */
+    Histogram getResponseTimeMicros() {
+        return responseTimeMicros;
+    }
+
+    @Override
+    public int schedule(DocumentIndexSpace indexSpace, long fromIndex, long toIndex, DocumentAction action) {
+
+        // Unbounded queue: when the store cannot keep up, the backlog grows instead of the arrival rate dropping
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        final AtomicInteger count = new AtomicInteger();
+        final Random random = new Random();
+        final double meanIntervalNanos = 1_000_000_000.0 / ratePerSecond;
+
+        long startNanos = System.nanoTime();
+        double offsetNanos = 0.0;
+        try {
+            for (long index = fromIndex; index < toIndex && !stopSignal.isStopped(); index++) {
+                final long intendedStartNanos = startNanos + (long) offsetNanos;
+                offsetNanos += poissonArrivals ? -Math.log(1.0 - random.nextDouble()) * meanIntervalNanos : meanIntervalNanos;
+
+                long waitNanos = intendedStartNanos - System.nanoTime();
+                while (waitNanos > 0L) {
+                    LockSupport.parkNanos(waitNanos);
+                    waitNanos = intendedStartNanos - System.nanoTime();
+                }
+
+                final int containerIndex = indexSpace.containerIndex(index);
+                final int documentIndex = indexSpace.documentIndex(index);
+                executor.execute(() -> {
+                    long actualStartNanos = System.nanoTime();
+                    try {
+                        if (action.process(containerIndex, documentIndex)) {
+                            count.incrementAndGet();
+                        }
+                    } finally {
+                        long endNanos = System.nanoTime();
+                        responseTimeMicros.recordValue((endNanos - intendedStartNanos) / 1000L);
+                        responseTime.update(endNanos - intendedStartNanos, TimeUnit.NANOSECONDS);
+                        serviceTimeMicros.recordValue((endNanos - actualStartNanos) / 1000L);
+                        completedDocuments.increment();
+                    }
+                });
+                scheduledDocuments++;
+                maxBacklog = Math.max(maxBacklog, executor.getQueue().size());
+            }
+        } finally {
+            shutdownAndWait(executor);
+        }
+        return count.get();
+    }
+
+    @Override
+    public void shutdown() {
+        // The executor is created and shut down by each schedule call
+    }
+
+    @Override
+    public void resetStatistics() {
+        metrics.remove(RESPONSE_TIME);
+        responseTime = HdrHistogramReservoir.timer(metrics, RESPONSE_TIME);
+        responseTimeMicros.reset();
+        serviceTimeMicros.reset();
+        completedDocuments.reset();
+        droppedDocuments.reset();
+    }
+
+    @Override
+    public void printStatistics(long durationMillis) {
+        System.out.println("* OpenLoopScheduler");
+        System.out.println("* Arrivals      = " + (poissonArrivals ? "poisson" : "constant"));
+        System.out.format("* Offered rate  = %.1f ops/s%n", ratePerSecond);
+        System.out.format("* Achieved rate = %.1f ops/s%n",
+                durationMillis > 0 ? 1000.0 * completedDocuments.sum() / durationMillis : 0.0);
+        System.out.println("* Max backlog   = " + maxBacklog);
+        System.out.println("* Dropped       = " + droppedDocuments.sum());
+        printPercentiles("Response time (from intended start)", responseTimeMicros);
+        printPercentiles("Service time (from actual start)", serviceTimeMicros);
+    }
+
+    private static void printPercentiles(String name, Histogram histogram) {
+        System.out.println("* " + name);
+        System.out.format("*   p50 = %.3f, p90 = %.3f, p99 = %.3f, p99.9 = %.3f, max = %.3f msecs%n",
+                histogram.getValueAtPercentile(50.0) / 1000.0,
+                histogram.getValueAtPercentile(90.0) / 1000.0,
+                histogram.getValueAtPercentile(99.0) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private void shutdownAndWait(ThreadPoolExecutor executor) {
+        executor.shutdown();
+        try {
+            // Without a stop signal the backlog is worked off; once stopped, the queued requests are dropped
+            if (stopSignal.isStopped()) {
+                dropBacklog(executor);
+            }
+            while (!executor.awaitTermination(1L, TimeUnit.SECONDS)) {
+                if (stopSignal.isStopped()) {
+                    dropBacklog(executor);
+                }
+            }
+        } catch (InterruptedException e) {
+            dropBacklog(executor);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dropBacklog(ThreadPoolExecutor executor) {
+        // Remove only the queued tasks, the requests already in flight are allowed to complete
+        int dropped = executor.getQueue().drainTo(new ArrayList<>());
+        droppedDocuments.add(dropped);
+    }
+}
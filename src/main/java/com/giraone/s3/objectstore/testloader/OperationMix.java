@@ -0,0 +1,83 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted ratios of the operation types of a workload, e.g. "get=70,put=15,list=10,delete=5".
+ * The weights need not add up to 100.
+ */
+final class OperationMix {
+
+    enum OperationType {
+        GET, PUT, LIST, HEAD, DELETE
+    }
+
+    private final String spec;
+    private final Map<OperationType, Integer> weights;
+    private final OperationType[] types;
+    // Cumulative weights of the types, used to pick an operation with a single random number
+    private final int[] cumulativeWeights;
+
+    private OperationMix(String spec, Map<OperationType, Integer> weights) {
+        this.spec = spec;
+        this.weights = weights;
+        this.types = new OperationType[weights.size()];
+        this.cumulativeWeights = new int[weights.size()];
+        int i = 0;
+        int sum = 0;
+        for (Map.Entry<OperationType, Integer> entry : weights.entrySet()) {
+            sum += entry.getValue();
+            types[i] = entry.getKey();
+            cumulativeWeights[i] = sum;
+            i++;
+        }
+    }
+
+    static OperationMix parse(String spec) {
+        Map<OperationType, Integer> weights = new EnumMap<>(OperationType.class);
+        for (String part : spec.split(",")) {
+            String[] nameAndWeight = part.split("=");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid operation mix \"" + spec + "\"! Use e.g. get=70,put=15,list=10,delete=5");
+            }
+            OperationType type;
+            try {
+                type = OperationType.valueOf(nameAndWeight[0].trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid operation \"" + nameAndWeight[0].trim() + "\"! Use get, put, list, head or delete.");
+            }
+            int weight = Integer.parseInt(nameAndWeight[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + type + " must not be negative!");
+            }
+            if (weight > 0) {
+                weights.put(type, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix \"" + spec + "\" contains no operation with a positive weight!");
+        }
+        return new OperationMix(spec, weights);
+    }
+
+    OperationType pick(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return types[i];
+            }
+        }
+        return types[types.length - 1];
+    }
+
+    boolean contains(OperationType type) {
+        return weights.containsKey(type);
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -0,0 +1,270 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only journal of the completed documents of a bulk load. Completed indices of the index space are collected
+ * in memory and written in batches as ranges "from to" (to is exclusive), each batch followed by an fsync.
+ * When a run is resumed, all ranges of the journal are merged and the documents within them are skipped.
+ * Documents in the last, not yet written batch are uploaded again after a crash. A torn last line of a crashed run is
+ * cut off, before the resumed run appends its ranges.
+ */
+class ProgressJournal {
+
+    // A batch is written, when it is full or when the flush interval has elapsed
+    private static final int BATCH_SIZE = 10_000;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000L;
+
+    private final File file;
+    private final DocumentIndexSpace indexSpace;
+    private final FileChannel channel;
+
+    // Merged ranges of the previous runs: start index -> end index (exclusive)
+    private final TreeMap<Long, Long> completedBefore;
+    private final long numberCompletedBefore;
+
+    private long[] batch = new long[BATCH_SIZE];
+    private int batchSize;
+    private final Object writeLock = new Object();
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private volatile long numberOfSyncs;
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    private ProgressJournal(File file, DocumentIndexSpace indexSpace, TreeMap<Long, Long> completedBefore) throws IOException {
+        this.file = file;
+        this.indexSpace = indexSpace;
+        this.completedBefore = completedBefore;
+        long count = 0L;
+        for (Map.Entry<Long, Long> range : completedBefore.entrySet()) {
+            count += range.getValue() - range.getKey();
+        }
+        this.numberCompletedBefore = count;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.flusher = new Thread(this::flushPeriodically, "progress-journal");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Open a journal.
+     *
+     * @param resume If true, the ranges of an existing journal are skipped, otherwise the journal must not exist.
+     */
+    static ProgressJournal open(File file, DocumentIndexSpace indexSpace, boolean resume) throws IOException {
+        String header = header(indexSpace);
+        TreeMap<Long, Long> completedBefore = new TreeMap<>();
+        boolean existing = file.exists() && file.length() > 0L;
+        if (existing) {
+            if (!resume) {
+                throw new IllegalArgumentException("Journal \"" + file + "\" exists! Use --resume to continue the run or delete the journal.");
+            }
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.US_ASCII)) {
+                String firstLine = reader.readLine();
+                if (!header.equals(firstLine)) {
+                    throw new IllegalArgumentException("Journal \"" + file + "\" was written by a run with \"" + firstLine
+                            + "\", but this run has \"" + header + "\"!");
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] range = line.split(" ");
+                    try {
+                        long from = Long.parseLong(range[0]);
+                        long to = range.length == 2 ? Long.parseLong(range[1]) : from;
+                        // A torn last line of a crashed run is a prefix of the range or empty, so it never covers too much
+                        if (to > from) {
+                            addRange(completedBefore, from, to);
+                        }
+                    } catch (NumberFormatException e) {
+                        System.out.println("Ignoring invalid journal line \"" + line + "\"");
+                    }
+                }
+            }
+            truncateTornLine(file);
+        }
+        ProgressJournal journal = new ProgressJournal(file, indexSpace, completedBefore);
+        if (!existing) {
+            journal.write(header + "\n");
+        }
+        journal.flusher.start();
+        return journal;
+    }
+
+    /**
+     * Cut off the last line, if it has no line feed, otherwise the first range of this run would be glued to it.
+     */
+    private static void truncateTornLine(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long end = size;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            while (end > 0L) {
+                last.clear();
+                channel.read(last, end - 1L);
+                if (last.get(0) == '\n') {
+                    break;
+                }
+                end--;
+            }
+            // The header was checked, so without any line feed, the line feed after the header is missing
+            if (end == 0L) {
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}), size);
+            } else if (end < size) {
+                System.out.println("Cutting off torn journal line of " + (size - end) + " bytes");
+                channel.truncate(end);
+            }
+            channel.force(true);
+        }
+    }
+
+    boolean isCompleted(int containerIndex, int documentIndex) {
+        if (completedBefore.isEmpty()) {
+            return false;
+        }
+        long index = indexSpace.index(containerIndex, documentIndex);
+        Map.Entry<Long, Long> range = completedBefore.floorEntry(index);
+        if (range != null && index < range.getValue()) {
+            skipped.increment();
+            return true;
+        }
+        return false;
+    }
+
+    void markCompleted(int containerIndex, int documentIndex) {
+        long index = indexSpace.index(containerIndex, documentIndex);
+        long[] full = null;
+        synchronized (this) {
+            batch[batchSize++] = index;
+            if (batchSize == BATCH_SIZE) {
+                full = swapBatch();
+            }
+        }
+        completed.increment();
+        if (full != null) {
+            writeBatch(full, BATCH_SIZE);
+        }
+    }
+
+    void close() {
+        closed = true;
+        flusher.interrupt();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    void printStatistics() {
+        System.out.println("* ProgressJournal " + file);
+        System.out.println("* Completed before      = " + numberCompletedBefore);
+        System.out.println("* Skipped in this run   = " + skipped.sum());
+        System.out.println("* Completed in this run = " + completed.sum());
+        System.out.println("* Batches synced        = " + numberOfSyncs);
+    }
+
+    private void flushPeriodically() {
+        while (!closed) {
+            try {
+                Thread.sleep(FLUSH_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            flush();
+        }
+    }
+
+    private void flush() {
+        long[] pending;
+        int size;
+        synchronized (this) {
+            size = batchSize;
+            if (size == 0) {
+                return;
+            }
+            pending = swapBatch();
+        }
+        writeBatch(pending, size);
+    }
+
+    private long[] swapBatch() {
+        long[] full = batch;
+        batch = new long[BATCH_SIZE];
+        batchSize = 0;
+        return full;
+    }
+
+    /**
+     * Write the indices of a batch as coalesced ranges and force them to disk.
+     */
+    private void writeBatch(long[] indices, int size) {
+        Arrays.sort(indices, 0, size);
+        StringBuilder lines = new StringBuilder();
+        long from = indices[0];
+        long to = from + 1;
+        for (int i = 1; i < size; i++) {
+            if (indices[i] != to) {
+                lines.append(from).append(' ').append(to).append('\n');
+                from = indices[i];
+            }
+            to = indices[i] + 1;
+        }
+        lines.append(from).append(' ').append(to).append('\n');
+        write(lines.toString());
+    }
+
+    private void write(String text) {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        synchronized (writeLock) {
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                numberOfSyncs++;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Writing journal \"" + file + "\" failed!", e);
+            }
+        }
+    }
+
+    private static String header(DocumentIndexSpace indexSpace) {
+        return "# " + indexSpace.describe();
+    }
+
+    /**
+     * Add a range to a set of non-overlapping ranges and merge it with overlapping or adjacent ones.
+     */
+    private static void addRange(TreeMap<Long, Long> ranges, long from, long to) {
+        Map.Entry<Long, Long> before = ranges.floorEntry(from);
+        if (before != null && before.getValue() >= from) {
+            from = before.getKey();
+            to = Math.max(to, before.getValue());
+        }
+        Map.Entry<Long, Long> next;
+        while ((next = ranges.ceilingEntry(from)) != null && next.getKey() <= to) {
+            to = Math.max(to, next.getValue());
+            ranges.remove(next.getKey());
+        }
+        ranges.put(from, to);
+    }
+}
@@ -0,0 +1,146 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the metric registry of a running test in the Prometheus text format (version 0.0.4) on /metrics.
+ * The mapping follows the Dropwizard exporter of Prometheus: gauges and counters become gauges, meters become
+ * counters, timers and histograms become summaries with the quantiles 0.5, 0.9, 0.99 and 0.999. All timers are
+ * one family "s3loader_operation_seconds" with the operation as label, e.g. operation="DocumentUpload".
+ */
+class PrometheusEndpoint {
+
+    private static final String PREFIX = "s3loader_";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final MetricRegistry metrics;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private PrometheusEndpoint(MetricRegistry metrics, int port) throws IOException {
+        this.metrics = metrics;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "prometheus-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+    }
+
+    static PrometheusEndpoint start(MetricRegistry metrics, int port) throws IOException {
+        PrometheusEndpoint endpoint = new PrometheusEndpoint(metrics, port);
+        endpoint.server.start();
+        return endpoint;
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    String scrape() {
+        StringBuilder text = new StringBuilder(8192);
+        for (Map.Entry<String, Gauge> entry : metrics.getGauges().entrySet()) {
+            Object value = entry.getValue().getValue();
+            if (value instanceof Number) {
+                String name = metricName(entry.getKey());
+                header(text, name, "gauge", entry.getKey());
+                sample(text, name, "", ((Number) value).doubleValue());
+            }
+        }
+        for (Map.Entry<String, Counter> entry : metrics.getCounters().entrySet()) {
+            String name = metricName(entry.getKey());
+            header(text, name, "gauge", entry.getKey());
+            sample(text, name, "", entry.getValue().getCount());
+        }
+        for (Map.Entry<String, Meter> entry : metrics.getMeters().entrySet()) {
+            String name = metricName(entry.getKey()) + "_total";
+            header(text, name, "counter", entry.getKey());
+            sample(text, name, "", entry.getValue().getCount());
+        }
+        for (Map.Entry<String, Histogram> entry : metrics.getHistograms().entrySet()) {
+            String name = metricName(entry.getKey());
+            header(text, name, "summary", entry.getKey());
+            summary(text, name, "", entry.getValue().getSnapshot(), entry.getValue().getCount(), 1.0);
+        }
+        String operationSeconds = PREFIX + "operation_seconds";
+        header(text, operationSeconds, "summary", "Latency of the operations in seconds");
+        for (Map.Entry<String, Timer> entry : metrics.getTimers().entrySet()) {
+            String label = "operation=\"" + simpleName(entry.getKey()) + "\"";
+            summary(text, operationSeconds, label, entry.getValue().getSnapshot(), entry.getValue().getCount(), 1.0e-9);
+        }
+        return text.toString();
+    }
+
+    private static void summary(StringBuilder text, String name, String label, Snapshot snapshot, long count, double factor) {
+        String separator = label.isEmpty() ? "" : label + ",";
+        for (double quantile : QUANTILES) {
+            sample(text, name, separator + "quantile=\"" + quantile + "\"", snapshot.getValue(quantile) * factor);
+        }
+        sample(text, name + "_count", label, count);
+        sample(text, name + "_sum", label, snapshot.getMean() * count * factor);
+    }
+
+    private static void header(StringBuilder text, String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder text, String name, String labels, double value) {
+        text.append(name);
+        if (!labels.isEmpty()) {
+            text.append('{').append(labels).append('}');
+        }
+        text.append(' ').append(String.format(Locale.ROOT, "%s", value)).append('\n');
+    }
+
+    /**
+     * @return e.g. "s3loader_transferred_bytes" for "com.giraone....ObjectStoreTestLoaderBase.TransferredBytes"
+     */
+    private static String metricName(String dropwizardName) {
+        String simpleName = simpleName(dropwizardName);
+        StringBuilder name = new StringBuilder(PREFIX);
+        for (int i = 0; i < simpleName.length(); i++) {
+            char c = simpleName.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(simpleName.charAt(i - 1))) {
+                name.append('_');
+            }
+            name.append(Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : '_');
+        }
+        return name.toString();
+    }
+
+    private static String simpleName(String dropwizardName) {
+        return dropwizardName.substring(dropwizardName.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,95 @@
+package com.giraone.s3.objectstore.testloader;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * GET benchmark: each call of process() reads one object picked by the key selector and discards its content.
+ * Time to first byte and the latency of the full body are recorded separately.
+ */
+class ReadBenchmark implements DocumentAction {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectStoreTestLoaderBase loader;
+    private final KeySelector keySelector;
+    private final String distribution;
+    private final ThreadLocal<NullSink> sinks = ThreadLocal.withInitial(() -> new NullSink(BUFFER_SIZE));
+
+    private final Histogram firstByteMicros = new ConcurrentHistogram(3);
+    private final Histogram fullBodyMicros = new ConcurrentHistogram(3);
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder failedReads = new LongAdder();
+    private volatile String lastError;
+
+    ReadBenchmark(ObjectStoreTestLoaderBase loader, KeySelector keySelector, String distribution) {
+        this.loader = loader;
+        this.keySelector = keySelector;
+        this.distribution = distribution;
+    }
+
+    @Override
+    public boolean process(int containerIndex, int documentIndex) {
+        String key = keySelector.next(ThreadLocalRandom.current());
+        NullSink sink = sinks.get();
+        long start = System.nanoTime();
+        try {
+            long bytes = loader.readObjectCounted(key, sink);
+            long end = System.nanoTime();
+            // An empty object has no first byte, its headers are the first response
+            long firstByte = sink.getFirstByteNanos() != 0L ? sink.getFirstByteNanos() : end;
+            firstByteMicros.recordValue((firstByte - start) / 1000L);
+            fullBodyMicros.recordValue((end - start) / 1000L);
+            bytesRead.add(bytes);
+            reads.increment();
+            loader.countOperation(true);
+            return true;
+        } catch (RuntimeException e) {
+            lastError = e.toString();
+            failedReads.increment();
+            loader.countOperation(false);
+            return false;
+        }
+    }
+
+    /**
+     * Discard the statistics collected so far, e.g. at the end of the warm-up.
+     */
+    void resetStatistics() {
+        firstByteMicros.reset();
+        fullBodyMicros.reset();
+        bytesRead.reset();
+        reads.reset();
+        failedReads.reset();
+    }
+
+    void printStatistics(long durationMillis) {
+        long count = reads.sum();
+        double seconds = durationMillis / 1000.0;
+        System.out.println("* ReadBenchmark");
+        System.out.println("* Key distribution = " + distribution);
+        System.out.println("* Reads            = " + count + ", failed = " + failedReads.sum());
+        System.out.format("* Throughput       = %.1f ops/s, %.2f MB/s%n",
+                seconds > 0.0 ? count / seconds : 0.0,
+                seconds > 0.0 ? bytesRead.sum() / 1024.0 / 1024.0 / seconds : 0.0);
+        System.out.format("* Mean object size = %.1f KB%n", count > 0 ? bytesRead.sum() / 1024.0 / count : 0.0);
+        printPercentiles("Time to first byte", firstByteMicros);
+        printPercentiles("Full body", fullBodyMicros);
+        if (lastError != null) {
+            System.out.println("* Last error = " + lastError);
+        }
+    }
+
+    private static void printPercentiles(String name, Histogram histogram) {
+        System.out.format("* %-18s p50 = %.3f, p90 = %.3f, p99 = %.3f, p99.9 = %.3f, max = %.3f msecs%n", name,
+                histogram.getValueAtPercentile(50.0) / 1000.0,
+                histogram.getValueAtPercentile(90.0) / 1000.0,
+                histogram.getValueAtPercentile(99.0) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+}
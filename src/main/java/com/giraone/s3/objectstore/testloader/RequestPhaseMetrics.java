@@ -0,0 +1,231 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.http.conn.ssl.SdkTLSSocketFactory;
+import com.amazonaws.metrics.AwsSdkMetrics;
+import com.amazonaws.metrics.ByteThroughputProvider;
+import com.amazonaws.metrics.MetricCollector;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.metrics.ServiceLatencyProvider;
+import com.amazonaws.metrics.ServiceMetricCollector;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.AWSServiceMetrics;
+import com.amazonaws.util.TimingInfo;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.giraone.s3.common.HdrHistogramReservoir;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits the time of the requests to the store into phases, each one recorded in its own timer:
+ * waiting for a pooled connection, TCP connect, TLS handshake, signing, sending the request, waiting for the
+ * response (time to first byte), response processing and the whole call. The synchronous client (SDK version 1)
+ * reports the phases to a global SDK metric collector, TCP connect and TLS handshake are measured by the socket
+ * factory for https endpoints. The asynchronous client (SDK version 2) reports to a metric publisher, which knows
+ * connection acquire, signing and service call, but no separate connect, TLS or first byte time.
+ */
+class RequestPhaseMetrics {
+
+    enum Phase {
+        ConnectionAcquire, TcpConnect, TlsHandshake, RequestSigning, RequestSend, ServerTimeToFirstByte,
+        ServiceCall, ResponseProcessing, ClientExecute
+    }
+
+    private final MetricRegistry metrics;
+    // Replaced at the end of the warm-up
+    private volatile Map<Phase, Timer> timers;
+
+    RequestPhaseMetrics(MetricRegistry metrics) {
+        this.metrics = metrics;
+        this.timers = createTimers();
+    }
+
+    /**
+     * Register the collector for the requests of all clients of SDK version 1.
+     */
+    void installSdkV1Collector() {
+        RequestMetricCollector requestCollector = new RequestMetricCollector() {
+            @Override
+            public void collectMetrics(Request<?> request, Response<?> response) {
+                TimingInfo timingInfo = request.getAWSRequestMetrics().getTimingInfo();
+                record(Phase.RequestSigning, timingInfo, AWSRequestMetrics.Field.RequestSigningTime);
+                record(Phase.RequestSend, timingInfo, AWSRequestMetrics.Field.HttpClientSendRequestTime);
+                record(Phase.ServerTimeToFirstByte, timingInfo, AWSRequestMetrics.Field.HttpClientReceiveResponseTime);
+                record(Phase.ServiceCall, timingInfo, AWSRequestMetrics.Field.HttpRequestTime);
+                record(Phase.ResponseProcessing, timingInfo, AWSRequestMetrics.Field.ResponseProcessingTime);
+                record(Phase.ClientExecute, timingInfo, AWSRequestMetrics.Field.ClientExecuteTime);
+            }
+        };
+        // The connection acquire time is not part of the request metrics, but a service metric
+        ServiceMetricCollector serviceCollector = new ServiceMetricCollector() {
+            @Override
+            public void collectByteThroughput(ByteThroughputProvider provider) {
+            }
+
+            @Override
+            public void collectLatency(ServiceLatencyProvider provider) {
+                if (provider.getServiceMetricType() == AWSServiceMetrics.HttpClientGetConnectionTime) {
+                    record(Phase.ConnectionAcquire, (long) (provider.getDurationMilli() * 1_000_000.0));
+                }
+            }
+        };
+        AwsSdkMetrics.setMetricCollector(new MetricCollector() {
+            @Override
+            public boolean start() {
+                return true;
+            }
+
+            @Override
+            public boolean stop() {
+                return true;
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public RequestMetricCollector getRequestMetricCollector() {
+                return requestCollector;
+            }
+
+            @Override
+            public ServiceMetricCollector getServiceMetricCollector() {
+                return serviceCollector;
+            }
+        });
+    }
+
+    /**
+     * @return a socket factory for https connections of SDK version 1, which measures TCP connect and TLS handshake
+     */
+    ConnectionSocketFactory sslSocketFactory() {
+        return new TimedTLSSocketFactory();
+    }
+
+    /**
+     * @return a publisher for the metrics of the API calls of SDK version 2
+     */
+    MetricPublisher sdkV2Publisher() {
+        return new MetricPublisher() {
+            @Override
+            public void publish(MetricCollection apiCall) {
+                record(Phase.ClientExecute, apiCall, CoreMetric.API_CALL_DURATION);
+                apiCall.childrenWithName("ApiCallAttempt").forEach(attempt -> {
+                    record(Phase.RequestSigning, attempt, CoreMetric.SIGNING_DURATION);
+                    record(Phase.ServiceCall, attempt, CoreMetric.SERVICE_CALL_DURATION);
+                    record(Phase.ResponseProcessing, attempt, CoreMetric.UNMARSHALLING_DURATION);
+                    attempt.children().forEach(http -> record(Phase.ConnectionAcquire, http, HttpMetric.CONCURRENCY_ACQUIRE_DURATION));
+                });
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Discard the timings collected so far, e.g. at the end of the warm-up.
+     */
+    void resetStatistics() {
+        for (Phase phase : Phase.values()) {
+            metrics.remove(timerName(phase));
+        }
+        this.timers = createTimers();
+    }
+
+    void printStatistics(long durationMillis) {
+        System.out.println("* Request phases");
+        for (Phase phase : Phase.values()) {
+            Timer timer = timers.get(phase);
+            if (timer.getCount() > 0L) {
+                ObjectStoreTestLoaderBase.printTimerStatistics(timer, phase.name(), durationMillis);
+            }
+        }
+    }
+
+    private void record(Phase phase, TimingInfo timingInfo, AWSRequestMetrics.Field field) {
+        // A request with retries has one measurement per attempt
+        for (TimingInfo measurement : timingInfo.getAllSubMeasurements(field.name())) {
+            Double millis = measurement.getTimeTakenMillisIfKnown();
+            if (millis != null) {
+                record(phase, (long) (millis * 1_000_000.0));
+            }
+        }
+    }
+
+    private void record(Phase phase, MetricCollection collection, SdkMetric<Duration> metric) {
+        for (Duration duration : collection.metricValues(metric)) {
+            record(phase, duration.toNanos());
+        }
+    }
+
+    private void record(Phase phase, long nanos) {
+        timers.get(phase).update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Map<Phase, Timer> createTimers() {
+        Map<Phase, Timer> map = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            map.put(phase, HdrHistogramReservoir.timer(metrics, timerName(phase)));
+        }
+        return map;
+    }
+
+    private static String timerName(Phase phase) {
+        return MetricRegistry.name(RequestPhaseMetrics.class, phase.name());
+    }
+
+    /**
+     * The socket factory of the SDK, which measures the TCP connect and the TLS handshake of a new connection.
+     * The handshake runs within connectSocket, so the TCP connect time is the difference.
+     */
+    private final class TimedTLSSocketFactory extends SdkTLSSocketFactory {
+
+        private final ThreadLocal<Long> handshakeNanos = new ThreadLocal<>();
+
+        TimedTLSSocketFactory() {
+            super(SSLContexts.createDefault(), new DefaultHostnameVerifier());
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            handshakeNanos.set(0L);
+            long start = System.nanoTime();
+            Socket connected = super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            long handshake = handshakeNanos.get();
+            record(Phase.TcpConnect, System.nanoTime() - start - handshake);
+            record(Phase.TlsHandshake, handshake);
+            return connected;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            long start = System.nanoTime();
+            Socket layered = super.createLayeredSocket(socket, target, port, context);
+            handshakeNanos.set(System.nanoTime() - start);
+            return layered;
+        }
+    }
+}
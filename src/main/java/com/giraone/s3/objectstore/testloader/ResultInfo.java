@@ -1,67 +1,210 @@
-package com.giraone.s3.objectstore.testloader;
-
-public class ResultInfo {
-
-    private int numberOfContainers;
-    private int numberOfDocumentsPerContainer;
-
-    private int numberOfContainersCreated;
-    private int numberOfDocumentsCreated;
-
-    private int lastErrorCode;
-    private String lastError;
-
-    ResultInfo(int numberOfContainers, int numberOfDocumentsPerContainer) {
-        super();
-
-        this.numberOfContainers = numberOfContainers;
-        this.numberOfDocumentsPerContainer = numberOfDocumentsPerContainer;
-
-        this.numberOfContainersCreated = 0;
-        this.numberOfDocumentsCreated = 0;
-    }
-
-    public int getNumberOfContainers() {
-        return numberOfContainers;
-    }
-
-    public int getNumberOfDocumentsPerContainer() {
-        return numberOfDocumentsPerContainer;
-    }
-
-    public int getNumberOfContainersCreated() {
-        return numberOfContainersCreated;
-    }
-
-    public int getNumberOfDocumentsCreated() {
-        return numberOfDocumentsCreated;
-    }
-
-
-    public int getLastErrorCode() {
-        return lastErrorCode;
-    }
-
-    public String getLastError() {
-        return lastError;
-    }
-
-
-    void addContainerResultOk() {
-        numberOfContainersCreated++;
-    }
-
-    void addContainerResultError(int code, String fault) {
-        lastErrorCode = code;
-        lastError = fault;
-    }
-
-    void addDocumentResultOk() {
-        numberOfDocumentsCreated++;
-    }
-
-    void addDocumentResultError(int code, String fault) {
-        lastErrorCode = code;
-        lastError = fault;
-    }
-}
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The results of a run. All worker threads update the counters concurrently, so they are striped (LongAdder) instead
+ * of a shared int field. Besides the totals, the results are counted per status code and per container and the
+ * distinct error messages are kept with their number of occurrences.
+ */
+public class ResultInfo {
+
+    // Status code of a successfully created container or document
+    static final int OK = 200;
+    // Status code of errors, which are neither an HTTP response nor a network error, e.g. a failed generation
+    static final int OTHER_ERROR = -1;
+
+    // Limits the memory, when every error has its own message, e.g. with a request id
+    private static final int MAX_DISTINCT_ERRORS = 100;
+
+    /**
+     * The created and failed documents of a single container.
+     */
+    public static final class ContainerResult {
+        private final LongAdder containerFailed = new LongAdder();
+        private final LongAdder documentsCreated = new LongAdder();
+        private final LongAdder documentsFailed = new LongAdder();
+
+        public boolean isContainerFailed() {
+            return containerFailed.sum() > 0L;
+        }
+
+        public long getDocumentsCreated() {
+            return documentsCreated.sum();
+        }
+
+        public long getDocumentsFailed() {
+            return documentsFailed.sum();
+        }
+    }
+
+    private final int numberOfContainers;
+    private final int numberOfDocumentsPerContainer;
+
+    private final LongAdder numberOfContainersCreated = new LongAdder();
+    private final LongAdder numberOfContainersFailed = new LongAdder();
+    private final LongAdder numberOfDocumentsCreated = new LongAdder();
+    private final LongAdder numberOfDocumentsFailed = new LongAdder();
+
+    private final ConcurrentMap<Integer, LongAdder> documentsByStatus = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, LongAdder> containersByStatus = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, ContainerResult> containerResults = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private volatile int lastErrorCode;
+    private volatile String lastError;
+
+    ResultInfo(int numberOfContainers, int numberOfDocumentsPerContainer) {
+        super();
+
+        this.numberOfContainers = numberOfContainers;
+        this.numberOfDocumentsPerContainer = numberOfDocumentsPerContainer;
+    }
+
+    public int getNumberOfContainers() {
+        return numberOfContainers;
+    }
+
+    public int getNumberOfDocumentsPerContainer() {
+        return numberOfDocumentsPerContainer;
+    }
+
+    public long getNumberOfContainersCreated() {
+        return numberOfContainersCreated.sum();
+    }
+
+    public long getNumberOfContainersFailed() {
+        return numberOfContainersFailed.sum();
+    }
+
+    public long getNumberOfDocumentsCreated() {
+        return numberOfDocumentsCreated.sum();
+    }
+
+    public long getNumberOfDocumentsFailed() {
+        return numberOfDocumentsFailed.sum();
+    }
+
+    public int getLastErrorCode() {
+        return lastErrorCode;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * @return the number of created (200) and failed documents per status code, sorted by the status code
+     */
+    public Map<Integer, Long> getDocumentsByStatus() {
+        return sum(documentsByStatus);
+    }
+
+    public Map<Integer, Long> getContainersByStatus() {
+        return sum(containersByStatus);
+    }
+
+    /**
+     * @return the results per container index, sorted by the index. Documents of the root container have index -1.
+     */
+    public Map<Integer, ContainerResult> getContainerResults() {
+        return new TreeMap<>(containerResults);
+    }
+
+    /**
+     * @return the distinct error messages with their number of occurrences
+     */
+    public Map<String, Long> getErrors() {
+        return sum(errors);
+    }
+
+    /**
+     * @return the documents per status code as text, e.g. "200=998, 503=2"
+     */
+    String formatDocumentsByStatus() {
+        StringBuilder text = new StringBuilder();
+        getDocumentsByStatus().forEach((statusCode, count) -> {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(RetryPolicy.statusName(statusCode)).append('=').append(count);
+        });
+        return text.length() > 0 ? text.toString() : "none";
+    }
+
+    /**
+     * Start the document counts per status code, per container and per error again, e.g. after the warm-up. The totals
+     * of created and failed documents are kept, they include the warm-up.
+     */
+    void resetDocumentStatistics() {
+        documentsByStatus.clear();
+        errors.clear();
+        containerResults.values().forEach(result -> {
+            result.documentsCreated.reset();
+            result.documentsFailed.reset();
+        });
+    }
+
+    void addContainerResultOk(int containerIndex) {
+        numberOfContainersCreated.increment();
+        count(containersByStatus, OK);
+        containerResult(containerIndex);
+    }
+
+    void addContainerResultError(int containerIndex, int code, String fault) {
+        numberOfContainersFailed.increment();
+        count(containersByStatus, code);
+        containerResult(containerIndex).containerFailed.increment();
+        addError(code, fault);
+    }
+
+    void addDocumentResultOk(int containerIndex) {
+        numberOfDocumentsCreated.increment();
+        count(documentsByStatus, OK);
+        containerResult(containerIndex).documentsCreated.increment();
+    }
+
+    void addDocumentResultError(int containerIndex, int code, String fault) {
+        numberOfDocumentsFailed.increment();
+        count(documentsByStatus, code);
+        containerResult(containerIndex).documentsFailed.increment();
+        addError(code, fault);
+    }
+
+    private void addError(int code, String fault) {
+        lastErrorCode = code;
+        lastError = fault;
+        String key = fault != null ? fault : String.valueOf(code);
+        LongAdder counter = errors.get(key);
+        if (counter == null && errors.size() < MAX_DISTINCT_ERRORS) {
+            counter = errors.computeIfAbsent(key, message -> new LongAdder());
+        }
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    // The lookup with get() comes first, because computeIfAbsent() of Java 8 locks, even when the key exists
+    private ContainerResult containerResult(int containerIndex) {
+        ContainerResult result = containerResults.get(containerIndex);
+        return result != null ? result : containerResults.computeIfAbsent(containerIndex, index -> new ContainerResult());
+    }
+
+    private static <K> void count(ConcurrentMap<K, LongAdder> counters, K key) {
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    private static <K> Map<K, Long> sum(Map<K, LongAdder> counters) {
+        Map<K, Long> sums = new TreeMap<>();
+        counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+        return sums;
+    }
+}
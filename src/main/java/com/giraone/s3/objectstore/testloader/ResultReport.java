@@ -0,0 +1,121 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.giraone.s3.objectstore.testdata.DefaultDynamicConfigGenerator;
+import com.giraone.s3.objectstore.testdata.TestConfig;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of a run as JSON file for CI pipelines and capacity planning: configuration, duration, created and
+ * failed containers and documents per status code, throughput, upload latency percentiles (service time), for open-loop
+ * runs the response time from the intended start, retries, distinct errors and the results per container.
+ */
+class ResultReport {
+
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    /**
+     * @param documentsInWarmup       The documents created during the warm-up, which are excluded from the throughput.
+     * @param documentsFailedInWarmup The documents failed during the warm-up. The counts per status, per container and
+     *                                per error exclude the warm-up.
+     */
+    ResultReport(TestConfig testConfig, ResultInfo resultInfo, long startMillis, long endMillis, long measuredMillis,
+                 long documentsInWarmup, long documentsFailedInWarmup) {
+
+        report.put("startTime", Instant.ofEpochMilli(startMillis).toString());
+        report.put("endTime", Instant.ofEpochMilli(endMillis).toString());
+        report.put("durationMillis", endMillis - startMillis);
+        report.put("warmupMillis", testConfig.getWarmupMillis());
+        report.put("measuredMillis", measuredMillis);
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("backend", testConfig.getBackend());
+        config.put("threads", testConfig.getNumberOfThreads());
+        config.put("containers", resultInfo.getNumberOfContainers());
+        config.put("documentsPerContainer", resultInfo.getNumberOfDocumentsPerContainer());
+        config.put("bucket", testConfig.getBucketName());
+        config.put("rootContainer", testConfig.getRootContainerName());
+        if (testConfig.getDynamicConfigGenerator() instanceof DefaultDynamicConfigGenerator) {
+            config.put("seed", ((DefaultDynamicConfigGenerator) testConfig.getDynamicConfigGenerator()).getSeed());
+        }
+        report.put("config", config);
+
+        Map<String, Object> containers = new LinkedHashMap<>();
+        containers.put("created", resultInfo.getNumberOfContainersCreated());
+        containers.put("failed", resultInfo.getNumberOfContainersFailed());
+        containers.put("byStatus", byStatusName(resultInfo.getContainersByStatus()));
+        report.put("containers", containers);
+
+        long measuredDocuments = resultInfo.getNumberOfDocumentsCreated() - documentsInWarmup;
+        Map<String, Object> documents = new LinkedHashMap<>();
+        documents.put("created", resultInfo.getNumberOfDocumentsCreated());
+        documents.put("failed", resultInfo.getNumberOfDocumentsFailed());
+        documents.put("createdInWarmup", documentsInWarmup);
+        documents.put("failedInWarmup", documentsFailedInWarmup);
+        documents.put("throughput", measuredMillis > 0L ? 1000.0 * measuredDocuments / measuredMillis : 0.0);
+        documents.put("byStatus", byStatusName(resultInfo.getDocumentsByStatus()));
+        report.put("documents", documents);
+
+        report.put("errors", resultInfo.getErrors());
+        report.put("lastError", resultInfo.getLastError());
+
+        List<Map<String, Object>> perContainer = new ArrayList<>();
+        resultInfo.getContainerResults().forEach((containerIndex, result) -> {
+            Map<String, Object> container = new LinkedHashMap<>();
+            container.put("index", containerIndex);
+            container.put("name", containerIndex < 0 ? testConfig.getRootContainerName()
+                    : testConfig.getDynamicConfigGenerator().buildContainerName(containerIndex));
+            container.put("containerFailed", result.isContainerFailed());
+            container.put("documentsCreated", result.getDocumentsCreated());
+            container.put("documentsFailed", result.getDocumentsFailed());
+            perContainer.add(container);
+        });
+        report.put("perContainer", perContainer);
+    }
+
+    /**
+     * Add the latency percentiles in milliseconds. Without any recorded value, the latencies are null.
+     */
+    void addLatency(String name, Histogram latencyMicros) {
+        // An empty histogram has Long.MAX_VALUE as minimum and 0 as percentiles
+        boolean empty = latencyMicros.getTotalCount() == 0L;
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("count", latencyMicros.getTotalCount());
+        latency.put("min", empty ? null : latencyMicros.getMinValue() / 1000.0);
+        latency.put("p50", empty ? null : latencyMicros.getValueAtPercentile(50.0) / 1000.0);
+        latency.put("p90", empty ? null : latencyMicros.getValueAtPercentile(90.0) / 1000.0);
+        latency.put("p99", empty ? null : latencyMicros.getValueAtPercentile(99.0) / 1000.0);
+        latency.put("p999", empty ? null : latencyMicros.getValueAtPercentile(99.9) / 1000.0);
+        latency.put("max", empty ? null : latencyMicros.getMaxValue() / 1000.0);
+        latency.put("mean", empty ? null : latencyMicros.getMean() / 1000.0);
+        report.put(name, latency);
+    }
+
+    void addRetries(Map<Integer, Long> retriesByStatus, Map<Integer, Long> giveUpsByStatus) {
+        Map<String, Object> retries = new LinkedHashMap<>();
+        retries.put("retriesByStatus", byStatusName(retriesByStatus));
+        retries.put("giveUpsByStatus", byStatusName(giveUpsByStatus));
+        report.put("retries", retries);
+    }
+
+    void write(File file) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(file, report);
+    }
+
+    private static Map<String, Long> byStatusName(Map<Integer, Long> countsByStatus) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        countsByStatus.forEach((statusCode, count) -> counts.put(RetryPolicy.statusName(statusCode), count));
+        return counts;
+    }
+}
@@ -0,0 +1,292 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Retries requests, which failed with a transient error (network errors, 408, 429, 500, 502, 503, 504).
+ * The delay between the attempts grows exponentially with decorrelated jitter: a random value between the base delay
+ * and three times the previous delay, capped by the maximum delay. Retries and give-ups are counted per status code.
+ */
+class RetryPolicy {
+
+    // Status code used for errors without an HTTP response, e.g. connection resets or timeouts
+    static final int NETWORK_ERROR = 0;
+
+    /**
+     * The status code and the error of a request, for which the retry policy gave up.
+     */
+    static final class Failure {
+        private volatile int statusCode = ResultInfo.OTHER_ERROR;
+        private volatile String error = "failed";
+
+        int getStatusCode() {
+            return statusCode;
+        }
+
+        String getError() {
+            return error;
+        }
+    }
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final ToIntFunction<Throwable> statusCodeResolver;
+
+    private final ConcurrentMap<Integer, LongAdder> retriesByStatus = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, LongAdder> giveUpsByStatus = new ConcurrentHashMap<>();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile String lastError;
+
+    // Delays the attempts of asynchronous requests without blocking a thread
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "retry-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param maxAttempts        The maximum number of attempts of a request, 1 disables retries.
+     * @param statusCodeResolver Returns the HTTP status code of an exception or NETWORK_ERROR.
+     */
+    RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, CircuitBreaker circuitBreaker,
+                ToIntFunction<Throwable> statusCodeResolver) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = Math.max(baseDelayMillis, maxDelayMillis);
+        this.circuitBreaker = circuitBreaker;
+        this.statusCodeResolver = statusCodeResolver;
+    }
+
+    static boolean isTransient(int statusCode) {
+        switch (statusCode) {
+            case NETWORK_ERROR:
+            case 408:
+            case 429:
+            case 500:
+            case 502:
+            case 503:
+            case 504:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return the number of responses so far, with which the store asked to reduce the request rate (429, 503)
+     */
+    long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    /**
+     * @return the number of timeouts so far, i.e. 408 and 504 responses and network errors without a response
+     */
+    long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Call a blocking request and retry it on transient errors.
+     *
+     * @return the result of the request or null, if all attempts failed or the error was not transient
+     */
+    <T> T call(Supplier<T> request) {
+        return call(request, new Failure());
+    }
+
+    /**
+     * Call a blocking request and retry it on transient errors.
+     *
+     * @param failure receives the status code and the error of the last attempt, if the policy gives up
+     * @return the result of the request or null, if all attempts failed or the error was not transient
+     */
+    <T> T call(Supplier<T> request, Failure failure) {
+        long delay = baseDelayMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                circuitBreaker.awaitClosed();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            try {
+                T result = request.get();
+                circuitBreaker.recordSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                int statusCode = statusCodeResolver.applyAsInt(e);
+                recordAttempt(statusCode);
+                if (!shouldRetry(e, statusCode, attempt, failure)) {
+                    return null;
+                }
+            }
+            delay = nextDelay(delay);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Start a non-blocking request and retry it on transient errors. The retries are scheduled on a timer thread.
+     *
+     * @return a future with the result of the request or with null, if all attempts failed or the error was not transient
+     */
+    <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> request) {
+        return callAsync(request, new Failure());
+    }
+
+    /**
+     * Start a non-blocking request and retry it on transient errors.
+     *
+     * @param failure receives the status code and the error of the last attempt, if the policy gives up
+     * @return a future with the result of the request or with null, if all attempts failed or the error was not transient
+     */
+    <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> request, Failure failure) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(request, 1, baseDelayMillis, result, failure);
+        return result;
+    }
+
+    Map<Integer, Long> getRetriesByStatus() {
+        return sum(retriesByStatus);
+    }
+
+    Map<Integer, Long> getGiveUpsByStatus() {
+        return sum(giveUpsByStatus);
+    }
+
+    /**
+     * Start the statistics again, e.g. after the warm-up. The throttled and timeout counts are not reset, because
+     * the adaptive concurrency controller uses the difference of two readings.
+     */
+    void resetStatistics() {
+        retriesByStatus.clear();
+        giveUpsByStatus.clear();
+        lastError = null;
+        circuitBreaker.resetStatistics();
+    }
+
+    void printStatistics() {
+        System.out.println("* RetryPolicy");
+        System.out.println("* Max attempts         = " + maxAttempts + ", delay " + baseDelayMillis + " - " + maxDelayMillis + " msecs");
+        System.out.println("* Retries by status    = " + format(retriesByStatus));
+        System.out.println("* Give-ups by status   = " + format(giveUpsByStatus));
+        circuitBreaker.printStatistics();
+        if (lastError != null) {
+            System.out.println("* Last error           = " + lastError);
+        }
+    }
+
+    private <T> void attemptAsync(Supplier<CompletableFuture<T>> request, int attempt, long delay, CompletableFuture<T> result,
+                                  Failure failure) {
+        long openMillis = circuitBreaker.remainingOpenMillis();
+        if (openMillis > 0L) {
+            timer.schedule(() -> attemptAsync(request, attempt, delay, result, failure), openMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        CompletableFuture<T> future;
+        try {
+            future = request.get();
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                circuitBreaker.recordSuccess();
+                result.complete(value);
+                return;
+            }
+            int statusCode = statusCodeResolver.applyAsInt(throwable);
+            recordAttempt(statusCode);
+            if (!shouldRetry(throwable, statusCode, attempt, failure)) {
+                result.complete(null);
+                return;
+            }
+            long nextDelay = nextDelay(delay);
+            timer.schedule(() -> attemptAsync(request, attempt + 1, nextDelay, result, failure), nextDelay, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Only transient errors open the circuit breaker. Other errors, e.g. 403 or 404, are answers of a working store.
+     */
+    private void recordAttempt(int statusCode) {
+        if (isTransient(statusCode)) {
+            circuitBreaker.recordFailure();
+        } else {
+            circuitBreaker.recordSuccess();
+        }
+    }
+
+    private boolean shouldRetry(Throwable throwable, int statusCode, int attempt, Failure failure) {
+        if (statusCode == 429 || statusCode == 503) {
+            throttled.increment();
+        } else if (statusCode == 408 || statusCode == 504 || statusCode == NETWORK_ERROR) {
+            timeouts.increment();
+        }
+        if (isTransient(statusCode) && attempt < maxAttempts) {
+            retriesByStatus.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+            return true;
+        }
+        giveUpsByStatus.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        lastError = throwable.toString();
+        failure.statusCode = statusCode;
+        failure.error = lastError;
+        return false;
+    }
+
+    /**
+     * Decorrelated jitter: random between the base delay and three times the previous delay, capped by the maximum.
+     */
+    long nextDelay(long previousDelay) {
+        long upper = Math.min(maxDelayMillis, Math.max(baseDelayMillis, previousDelay * 3L));
+        return upper > baseDelayMillis ? ThreadLocalRandom.current().nextLong(baseDelayMillis, upper + 1) : baseDelayMillis;
+    }
+
+    /**
+     * @return the HTTP status code as text, "network" for network errors and "other" for all remaining errors
+     */
+    static String statusName(int statusCode) {
+        return statusCode == NETWORK_ERROR ? "network" : statusCode < 0 ? "other" : Integer.toString(statusCode);
+    }
+
+    private static Map<Integer, Long> sum(Map<Integer, LongAdder> countsByStatus) {
+        Map<Integer, Long> sums = new TreeMap<>();
+        countsByStatus.forEach((statusCode, count) -> sums.put(statusCode, count.sum()));
+        return sums;
+    }
+
+    private static String format(Map<Integer, LongAdder> countsByStatus) {
+        if (countsByStatus.isEmpty()) {
+            return "none";
+        }
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Integer, LongAdder> entry : new TreeMap<>(countsByStatus).entrySet()) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(statusName(entry.getKey())).append('=').append(entry.getValue().sum());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time bounds of a test run: after the warm-up the statistics are reset, after warm-up plus duration the run is
+ * stopped. Documents in flight at the deadline are completed, new ones are not started.
+ */
+class RunDeadline {
+
+    private final long warmupMillis;
+    private final long durationMillis;
+    private final StopSignal stopSignal;
+    private final Runnable warmupEndAction;
+
+    private ScheduledExecutorService timer;
+    private volatile long measurementStartMillis;
+
+    /**
+     * @param warmupMillis    The warm-up time, whose documents are excluded from the statistics, or 0.
+     * @param durationMillis  The measured time after the warm-up or 0, when the run ends with the last document.
+     * @param stopSignal      The stop signal of the run, which is set at the deadline.
+     * @param warmupEndAction Called once at the end of the warm-up to reset the statistics.
+     */
+    RunDeadline(long warmupMillis, long durationMillis, StopSignal stopSignal, Runnable warmupEndAction) {
+        this.warmupMillis = warmupMillis;
+        this.durationMillis = durationMillis;
+        this.stopSignal = stopSignal;
+        this.warmupEndAction = warmupEndAction;
+    }
+
+    void start() {
+        long now = System.currentTimeMillis();
+        measurementStartMillis = now + warmupMillis;
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "run-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (warmupMillis > 0L) {
+            timer.schedule(() -> {
+                System.out.println("------- WARM-UP END after " + warmupMillis + " msecs ---------");
+                warmupEndAction.run();
+            }, warmupMillis, TimeUnit.MILLISECONDS);
+        }
+        if (durationMillis > 0L) {
+            timer.schedule(() -> stopSignal.stop("duration of " + durationMillis + " msecs elapsed"),
+                    warmupMillis + durationMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void finish() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true, if the run ends at a deadline instead of with the last document
+     */
+    boolean isDurationBounded() {
+        return durationMillis > 0L;
+    }
+
+    /**
+     * @return the time since the end of the warm-up, which is the base for the throughput
+     */
+    long getMeasuredMillis(long endMillis) {
+        return Math.max(0L, endMillis - measurementStartMillis);
+    }
+}
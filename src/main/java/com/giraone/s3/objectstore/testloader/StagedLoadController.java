@@ -0,0 +1,84 @@
+package com.giraone.s3.objectstore.testloader;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a load profile: a background thread moves the concurrency limit from stage to stage and takes a throughput
+ * and latency snapshot at the end of each stage. When the last stage ends, the run is stopped.
+ */
+class StagedLoadController extends LoadControllerBase {
+
+    // How often the limit of a ramp is adjusted
+    private static final long RAMP_INTERVAL_MILLIS = 1000L;
+
+    private final LoadProfile profile;
+
+    private final List<String> stageResults = new ArrayList<>();
+
+    StagedLoadController(LoadProfile profile, StopSignal stopSignal) {
+        super(profile.getStages().get(0).getStartConcurrency(), stopSignal, "load-profile");
+        this.profile = profile;
+    }
+
+    @Override
+    public void printStatistics() {
+        System.out.println("* LoadProfile " + profile);
+        synchronized (stageResults) {
+            for (String stageResult : stageResults) {
+                System.out.println(stageResult);
+            }
+        }
+    }
+
+    /**
+     * Runs the stages. When all documents are processed before the profile ended, the controller thread is
+     * interrupted and takes the snapshot of the current stage.
+     */
+    @Override
+    void control() {
+        // Reset the counters, so the first stage starts with empty statistics
+        latencyRecorder.getIntervalHistogram();
+        for (LoadProfile.Stage stage : profile.getStages()) {
+            long stageStart = System.currentTimeMillis();
+            limiter.setLimit(stage.getStartConcurrency());
+            boolean interrupted = false;
+            long elapsed;
+            while ((elapsed = System.currentTimeMillis() - stageStart) < stage.getDurationMillis()) {
+                limiter.setLimit(stage.concurrencyAt(elapsed));
+                try {
+                    Thread.sleep(Math.min(RAMP_INTERVAL_MILLIS, stage.getDurationMillis() - elapsed));
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    break;
+                }
+            }
+            takeSnapshot(stage, System.currentTimeMillis() - stageStart);
+            if (interrupted) {
+                return;
+            }
+        }
+        stopSignal.stop("load profile completed");
+    }
+
+    private void takeSnapshot(LoadProfile.Stage stage, long durationMillis) {
+        Histogram histogram = latencyRecorder.getIntervalHistogram();
+        long ok = documentsOk.sumThenReset();
+        long failed = documentsFailed.sumThenReset();
+        String result = String.format("* Stage %-14s %7.1f s, ok = %8d, failed = %6d, throughput = %8.1f docs/s, "
+                        + "latency p50 = %8.3f, p90 = %8.3f, p99 = %8.3f, p99.9 = %8.3f, max = %8.3f msecs",
+                stage.getName(), durationMillis / 1000.0, ok, failed,
+                durationMillis > 0 ? 1000.0 * ok / durationMillis : 0.0,
+                histogram.getValueAtPercentile(50.0) / 1000.0,
+                histogram.getValueAtPercentile(90.0) / 1000.0,
+                histogram.getValueAtPercentile(99.0) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+        synchronized (stageResults) {
+            stageResults.add(result);
+        }
+        System.out.println(result);
+    }
+}
@@ -0,0 +1,26 @@
+package com.giraone.s3.objectstore.testloader;
+
+/**
+ * Shared stop flag of a test run. The schedulers check it before each document and do not start new work,
+ * once it is set.
+ */
+final class StopSignal {
+
+    private volatile boolean stopped;
+    private volatile String reason;
+
+    void stop(String reason) {
+        if (!this.stopped) {
+            this.reason = reason;
+            this.stopped = true;
+        }
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,34 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory for the executors running the simulated clients - [platform|virtual].
+ * This is the Java 8 version without virtual threads. The multi-release jar built with the "java21" profile
+ * replaces it with the version in src/main/java21.
+ */
+final class WorkerExecutors {
+
+    static final String PLATFORM = "platform";
+    static final String VIRTUAL = "virtual";
+
+    // Class has only static methods
+    private WorkerExecutors() {
+    }
+
+    static boolean isVirtualThreadSupported() {
+        return false;
+    }
+
+    /**
+     * @param type            The executor type - [platform|virtual].
+     * @param numberOfThreads The number of platform threads. Virtual threads are created per task.
+     */
+    static ExecutorService newExecutor(String type, int numberOfThreads) {
+        if (VIRTUAL.equalsIgnoreCase(type)) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 and a jar built with the java21 profile!");
+        }
+        return Executors.newFixedThreadPool(numberOfThreads);
+    }
+}
@@ -0,0 +1,155 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.giraone.s3.common.HdrHistogramReservoir;
+import com.giraone.s3.objectstore.testloader.OperationMix.OperationType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mixed workload: each call of process() executes one operation, which is picked by the weights of the operation mix.
+ * Reads, heads and deletes use the keys of the key pool, uploads add their keys to the pool. Each operation type has
+ * its own timer.
+ */
+class WorkloadEngine implements DocumentAction {
+
+    // Maximum number of keys returned by a single LIST operation
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    private final ObjectStoreTestLoaderBase loader;
+    private final String rootContainerName;
+    private final OperationMix mix;
+    private final KeyPool keyPool;
+    private final MetricRegistry metrics;
+    // Uploads use document indices after the loaded ones, so with a fixed seed they do not overwrite them
+    private final int putIndexOffset;
+
+    // Replaced at the end of the warm-up
+    private volatile Map<OperationType, Timer> timers;
+    private final Map<OperationType, LongAdder> failed = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, LongAdder> skipped = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, String> lastErrors = new ConcurrentHashMap<>();
+
+    WorkloadEngine(ObjectStoreTestLoaderBase loader, String rootContainerName, OperationMix mix, KeyPool keyPool,
+                   MetricRegistry metrics) {
+        this.loader = loader;
+        this.rootContainerName = rootContainerName;
+        this.mix = mix;
+        this.keyPool = keyPool;
+        this.metrics = metrics;
+        this.putIndexOffset = keyPool.size();
+        for (OperationType type : OperationType.values()) {
+            failed.put(type, new LongAdder());
+            skipped.put(type, new LongAdder());
+        }
+        this.timers = createTimers();
+    }
+
+    @Override
+    public boolean process(int containerIndex, int documentIndex) {
+        Random random = ThreadLocalRandom.current();
+        OperationType type = mix.pick(random);
+
+        // The key is taken before the timer is started, an empty pool is no error of the store
+        String key = null;
+        if (type == OperationType.GET || type == OperationType.HEAD) {
+            key = keyPool.get(random);
+        } else if (type == OperationType.DELETE) {
+            key = keyPool.remove(random);
+        }
+        if (key == null && type != OperationType.PUT && type != OperationType.LIST) {
+            skipped.get(type).increment();
+            return false;
+        }
+
+        boolean ok;
+        final Timer.Context context = timers.get(type).time();
+        try {
+            switch (type) {
+                case GET:
+                    ok = loader.readObject(key) >= 0L;
+                    break;
+                case HEAD:
+                    ok = loader.headObject(key);
+                    break;
+                case DELETE:
+                    ok = loader.deleteObject(key);
+                    break;
+                case LIST:
+                    loader.listObjectKeys(loader.buildContainerPrefix(rootContainerName, randomContainerIndex(random)), LIST_PAGE_SIZE);
+                    ok = true;
+                    break;
+                default:
+                    String newKey = loader.putDocument(rootContainerName, containerIndex, putIndexOffset + documentIndex);
+                    if (newKey != null) {
+                        keyPool.add(newKey);
+                    }
+                    ok = newKey != null;
+            }
+        } catch (RuntimeException e) {
+            lastErrors.put(type, e.toString());
+            ok = false;
+        } finally {
+            context.stop();
+        }
+        if (!ok) {
+            failed.get(type).increment();
+        }
+        // The loader counts uploads itself
+        if (type != OperationType.PUT) {
+            loader.countOperation(ok);
+        }
+        return ok;
+    }
+
+    /**
+     * Discard the timings collected so far, e.g. at the end of the warm-up.
+     */
+    void resetStatistics() {
+        for (OperationType type : OperationType.values()) {
+            metrics.remove(timerName(type));
+            failed.get(type).reset();
+            skipped.get(type).reset();
+        }
+        lastErrors.clear();
+        this.timers = createTimers();
+    }
+
+    void printStatistics(long durationMillis) {
+        System.out.println("* Workload mix = " + mix + ", keys = " + keyPool.size());
+        for (OperationType type : OperationType.values()) {
+            if (!mix.contains(type)) {
+                continue;
+            }
+            ObjectStoreTestLoaderBase.printTimerStatistics(timers.get(type),
+                    type == OperationType.PUT ? "PUT (generation and upload)" : type.name(), durationMillis);
+            System.out.println("* Failed     = " + failed.get(type).sum() + ", skipped (no key) = " + skipped.get(type).sum());
+            if (lastErrors.containsKey(type)) {
+                System.out.println("* Last error = " + lastErrors.get(type));
+            }
+        }
+    }
+
+    private int randomContainerIndex(Random random) {
+        int numberOfContainers = loader.testConfig.getNumberOfContainers();
+        return numberOfContainers == 0 ? -1 : random.nextInt(numberOfContainers);
+    }
+
+    private Map<OperationType, Timer> createTimers() {
+        Map<OperationType, Timer> map = new EnumMap<>(OperationType.class);
+        for (OperationType type : OperationType.values()) {
+            map.put(type, HdrHistogramReservoir.timer(metrics, timerName(type)));
+        }
+        return map;
+    }
+
+    private static String timerName(OperationType type) {
+        return MetricRegistry.name(WorkloadEngine.class, type.name());
+    }
+}
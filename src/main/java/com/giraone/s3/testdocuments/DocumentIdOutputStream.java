@@ -0,0 +1,110 @@
+package com.giraone.s3.testdocuments;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Replaces the document ID in the trailer of a PDF written by iText with an ID derived from the UUID of the document.
+ * iText hashes the current time and the free memory to the ID, so the same content would give different bytes.
+ * The last bytes are held back until the stream is closed, because the trailer is at the end of the PDF.
+ */
+class DocumentIdOutputStream extends FilterOutputStream {
+
+    // The trailer of iText is within the last few hundred bytes
+    private static final int TAIL_LENGTH = 512;
+    // The trailer's /ID consists of two MD5 hashes as hex strings
+    static final int ID_WIDTH = 32;
+    static final byte[] ID_START = "/ID [<".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final byte[] documentId;
+    private final byte[] tail = new byte[2 * TAIL_LENGTH];
+    private int count;
+    private boolean closed;
+
+    DocumentIdOutputStream(OutputStream out, String uuid) {
+        super(out);
+        this.documentId = documentId(uuid);
+    }
+
+    /**
+     * @return the hex digits of the UUID as ID of the PDF
+     */
+    static byte[] documentId(String uuid) {
+        byte[] id = new byte[ID_WIDTH];
+        int written = 0;
+        for (int i = 0; i < uuid.length() && written < ID_WIDTH; i++) {
+            char c = uuid.charAt(i);
+            if (Character.digit(c, 16) >= 0) {
+                id[written++] = (byte) c;
+            }
+        }
+        for (; written < ID_WIDTH; written++) {
+            id[written] = '0';
+        }
+        return id;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len >= TAIL_LENGTH) {
+            out.write(tail, 0, count);
+            out.write(b, off, len - TAIL_LENGTH);
+            System.arraycopy(b, off + len - TAIL_LENGTH, tail, 0, TAIL_LENGTH);
+            count = TAIL_LENGTH;
+            return;
+        }
+        if (count + len > tail.length) {
+            // Keep the last TAIL_LENGTH bytes including the new ones
+            int flush = count + len - TAIL_LENGTH;
+            out.write(tail, 0, flush);
+            System.arraycopy(tail, flush, tail, 0, count - flush);
+            count -= flush;
+        }
+        System.arraycopy(b, off, tail, count, len);
+        count += len;
+    }
+
+    @Override
+    public void flush() {
+        // The tail is written on close, after the trailer is complete
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        int idStart = lastIndexOf(tail, count, ID_START);
+        if (idStart >= 0) {
+            int first = idStart + ID_START.length;
+            int second = first + ID_WIDTH + 2;
+            if (second + ID_WIDTH <= count && tail[first + ID_WIDTH] == '>' && tail[second - 1] == '<') {
+                System.arraycopy(documentId, 0, tail, first, ID_WIDTH);
+                System.arraycopy(documentId, 0, tail, second, ID_WIDTH);
+            }
+        }
+        out.write(tail, 0, count);
+        out.close();
+    }
+
+    private static int lastIndexOf(byte[] bytes, int length, byte[] pattern) {
+        outer:
+        for (int i = length - pattern.length; i >= 0; i--) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
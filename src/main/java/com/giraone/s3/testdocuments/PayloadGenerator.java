@@ -0,0 +1,72 @@
+package com.giraone.s3.testdocuments;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates synthetic payload bytes with a tunable compressibility, so the compression and deduplication of the store
+ * or of a proxy see realistic data instead of only incompressible or only constant bytes.
+ * <p>
+ * The payload consists of blocks of 4 KB. The first part of each block is copied from a pool of random bytes, the rest
+ * is zero. With a compressibility of 0.75 a quarter of each block is random, so it compresses to about 25 %. The offset
+ * into the pool depends on the seed and the block, so the blocks of different objects differ. Any byte range can be
+ * generated without the preceding bytes, which allows streaming large objects and re-reading them on retries.
+ */
+public class PayloadGenerator {
+
+    static final int BLOCK_SIZE = 4096;
+    private static final int RANDOM_POOL_SIZE = 1024 * 1024;
+
+    private final double compressibility;
+    private final int randomBytesPerBlock;
+    private final byte[] randomPool = new byte[RANDOM_POOL_SIZE + BLOCK_SIZE];
+
+    /**
+     * @param compressibility The fraction of each block, which is compressible, between 0.0 (random) and 1.0 (zeros).
+     */
+    public PayloadGenerator(double compressibility) {
+        if (compressibility < 0.0 || compressibility > 1.0) {
+            throw new IllegalArgumentException("Invalid compressibility " + compressibility + "! Use a value between 0.0 and 1.0.");
+        }
+        this.compressibility = compressibility;
+        this.randomBytesPerBlock = (int) Math.round((1.0 - compressibility) * BLOCK_SIZE);
+        new Random(RANDOM_POOL_SIZE).nextBytes(randomPool);
+    }
+
+    public double getCompressibility() {
+        return compressibility;
+    }
+
+    /**
+     * Generate the payload bytes at the given position.
+     *
+     * @param seed     Distinguishes the payloads of different objects.
+     * @param position The position of the first byte within the payload.
+     */
+    public void fill(long seed, long position, byte[] b, int off, int len) {
+        while (len > 0) {
+            long block = position / BLOCK_SIZE;
+            int inBlock = (int) (position % BLOCK_SIZE);
+            int length = Math.min(len, BLOCK_SIZE - inBlock);
+            int random = Math.max(0, Math.min(length, randomBytesPerBlock - inBlock));
+            if (random > 0) {
+                System.arraycopy(randomPool, poolOffset(seed, block) + inBlock, b, off, random);
+            }
+            if (length > random) {
+                Arrays.fill(b, off + random, off + length, (byte) 0);
+            }
+            position += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    // The finalizer of SplitMix64 spreads the blocks of consecutive seeds over the whole pool
+    private static int poolOffset(long seed, long block) {
+        long z = seed * 0x9E3779B97F4A7C15L + block;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) Math.floorMod(z, (long) RANDOM_POOL_SIZE);
+    }
+}
@@ -0,0 +1,15 @@
+package com.giraone.s3.testdocuments;
+
+import java.io.OutputStream;
+
+/**
+ * Generates the PDF of a test document in memory.
+ */
+public interface PdfDocumentGenerator {
+
+    /**
+     * @param pdfStream The stream, into which the PDF is written. It is closed, when the document is complete.
+     * @return the content and the meta data of the document or null, if the generation failed
+     */
+    TestDocumentContent create(int containerIndex, int documentIndex, OutputStream pdfStream);
+}
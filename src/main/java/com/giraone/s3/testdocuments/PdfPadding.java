@@ -0,0 +1,224 @@
+package com.giraone.s3.testdocuments;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pads a generated PDF to a target size, e.g. of a size distribution. The padding is an incremental update of the PDF:
+ * an unreferenced stream object with the payload, a new xref section and a trailer, which points to the previous one.
+ * So the padded document is still a valid PDF with the same pages. Only the header and the trailer of the update are
+ * kept in memory, the payload is generated while the document is read.
+ */
+public class PdfPadding {
+
+    private static final Pattern TRAILER = Pattern.compile("trailer\\s*<<(.*?)>>\\s*(?:%[^\\n]*\\n)?\\s*startxref\\s+(\\d+)\\s+%%EOF\\s*$", Pattern.DOTALL);
+    private static final Pattern SIZE = Pattern.compile("/Size\\s+(\\d+)");
+    private static final Pattern ROOT = Pattern.compile("/Root\\s+\\d+\\s+\\d+\\s+R");
+    private static final Pattern INFO = Pattern.compile("/Info\\s+\\d+\\s+\\d+\\s+R");
+    private static final Pattern ID = Pattern.compile("/ID\\s*\\[[^\\]]*\\]");
+    // The trailer of iText is within the last few hundred bytes
+    private static final int TAIL_LENGTH = 1024;
+
+    private final byte[] header;
+    private final long payloadLength;
+    private final byte[] trailer;
+
+    private PdfPadding(byte[] header, long payloadLength, byte[] trailer) {
+        this.header = header;
+        this.payloadLength = payloadLength;
+        this.trailer = trailer;
+    }
+
+    /**
+     * @param pdf        The bytes of the PDF, which ends with a classic trailer and xref table.
+     * @param pdfLength  The number of valid bytes in pdf.
+     * @param targetSize The size of the padded document.
+     * @return the padding or null, if the PDF is already too large for a padding to the target size
+     */
+    public static PdfPadding create(byte[] pdf, int pdfLength, long targetSize) {
+
+        int tailStart = Math.max(0, pdfLength - TAIL_LENGTH);
+        String tail = new String(pdf, tailStart, pdfLength - tailStart, StandardCharsets.ISO_8859_1);
+        int trailerStart = tail.lastIndexOf("trailer");
+        Matcher trailerMatcher = trailerStart >= 0 ? TRAILER.matcher(tail.substring(trailerStart)) : null;
+        if (trailerMatcher == null || !trailerMatcher.find()) {
+            throw new IllegalArgumentException("The PDF has no trailer, which can be updated!");
+        }
+        String dictionary = trailerMatcher.group(1);
+        Matcher size = SIZE.matcher(dictionary);
+        Matcher root = ROOT.matcher(dictionary);
+        if (!size.find() || !root.find()) {
+            throw new IllegalArgumentException("The trailer of the PDF has no /Size or /Root!");
+        }
+        int objectNumber = Integer.parseInt(size.group(1));
+        StringBuilder references = new StringBuilder(root.group());
+        Matcher info = INFO.matcher(dictionary);
+        if (info.find()) {
+            references.append(info.group());
+        }
+        Matcher id = ID.matcher(dictionary);
+        if (id.find()) {
+            references.append(id.group());
+        }
+        String previousXref = trailerMatcher.group(2);
+
+        // The lengths of header and trailer depend on the number of digits of the payload length, so iterate
+        long payloadLength = targetSize - pdfLength;
+        for (int i = 0; i < 4 && payloadLength >= 0L; i++) {
+            long nextLength = targetSize - pdfLength - overhead(objectNumber, pdfLength, payloadLength, references, previousXref);
+            if (nextLength == payloadLength) {
+                break;
+            }
+            payloadLength = nextLength;
+        }
+        // Where the payload length gets another digit, there may be no exact length. Then the payload is shortened,
+        // until it fits, and the header is filled with blanks.
+        while (payloadLength >= 0L
+                && payloadLength + overhead(objectNumber, pdfLength, payloadLength, references, previousXref) > targetSize - pdfLength) {
+            payloadLength--;
+        }
+        if (payloadLength < 0L) {
+            return null;
+        }
+        int blanks = (int) (targetSize - pdfLength - payloadLength - overhead(objectNumber, pdfLength, payloadLength, references, previousXref));
+        byte[] header = header(objectNumber, payloadLength, blanks);
+        return new PdfPadding(header, payloadLength, trailer(objectNumber, pdfLength, header.length, payloadLength, references, previousXref));
+    }
+
+    /**
+     * @return the number of bytes appended to the PDF
+     */
+    public long getLength() {
+        return header.length + payloadLength + trailer.length;
+    }
+
+    /**
+     * @return a new stream on the padded document, which supports mark and reset, so each retry can read it again
+     */
+    public InputStream newInputStream(byte[] pdf, int pdfLength, PayloadGenerator payloadGenerator, long seed) {
+        return new PaddedInputStream(pdf, pdfLength, payloadGenerator, seed);
+    }
+
+    //---------------------------------------------------------------------------------------------
+
+    private static long overhead(int objectNumber, int pdfLength, long payloadLength, CharSequence references, String previousXref) {
+        int headerLength = header(objectNumber, payloadLength, 0).length;
+        return headerLength + trailer(objectNumber, pdfLength, headerLength, payloadLength, references, previousXref).length;
+    }
+
+    private static byte[] header(int objectNumber, long payloadLength, int blanks) {
+        StringBuilder header = new StringBuilder("\n").append(objectNumber).append(" 0 obj\n<</Length ").append(payloadLength);
+        for (int i = 0; i < blanks; i++) {
+            header.append(' ');
+        }
+        return header.append(">>\nstream\n").toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] trailer(int objectNumber, int pdfLength, int headerLength, long payloadLength, CharSequence references,
+                                  String previousXref) {
+        // The object starts after the line feed of the header
+        long objectOffset = pdfLength + 1L;
+        String end = "\nendstream\nendobj\n";
+        long xrefOffset = pdfLength + headerLength + payloadLength + end.length();
+        return (end
+                + "xref\n"
+                + objectNumber + " 1\n"
+                + String.format("%010d 00000 n \n", objectOffset)
+                + "trailer\n"
+                + "<</Size " + (objectNumber + 1) + references + "/Prev " + previousXref + ">>\n"
+                + "startxref\n"
+                + xrefOffset + "\n"
+                + "%%EOF\n").getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads the PDF, the header, the generated payload and the trailer. The position is the only state, so mark and
+     * reset work for any read limit.
+     */
+    private final class PaddedInputStream extends InputStream {
+
+        private final byte[] pdf;
+        private final int pdfLength;
+        private final PayloadGenerator payloadGenerator;
+        private final long seed;
+        private final long length;
+        private long position;
+        private long markedPosition;
+
+        PaddedInputStream(byte[] pdf, int pdfLength, PayloadGenerator payloadGenerator, long seed) {
+            this.pdf = pdf;
+            this.pdfLength = pdfLength;
+            this.payloadGenerator = payloadGenerator;
+            this.seed = seed;
+            this.length = pdfLength + getLength();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            int read = 0;
+            while (read < len && position < length) {
+                int chunk;
+                long payloadStart = (long) pdfLength + header.length;
+                long trailerStart = payloadStart + payloadLength;
+                if (position < pdfLength) {
+                    chunk = (int) Math.min(len - read, pdfLength - position);
+                    System.arraycopy(pdf, (int) position, b, off + read, chunk);
+                } else if (position < payloadStart) {
+                    chunk = (int) Math.min(len - read, payloadStart - position);
+                    System.arraycopy(header, (int) (position - pdfLength), b, off + read, chunk);
+                } else if (position < trailerStart) {
+                    chunk = (int) Math.min(len - read, trailerStart - position);
+                    payloadGenerator.fill(seed, position - payloadStart, b, off + read, chunk);
+                } else {
+                    chunk = (int) Math.min(len - read, length - position);
+                    System.arraycopy(trailer, (int) (position - trailerStart), b, off + read, chunk);
+                }
+                position += chunk;
+                read += chunk;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0L, Math.min(n, length - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, length - position);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            markedPosition = position;
+        }
+
+        @Override
+        public synchronized void reset() {
+            position = markedPosition;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.giraone.s3.testdocuments;
+
+import com.giraone.s3.objectstore.testdata.DynamicConfigGenerator;
+import com.itextpdf.text.Document;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A PDF generator, which renders a few template PDFs once and patches the per-document fields into them: title, UUID,
+ * counter, time, date, the meta data values and the document ID of the trailer. The fields of the templates are
+ * fixed-width placeholders and each value is padded with blanks to the same width, so the byte offsets of the xref
+ * table stay valid. Creating a document is only a copy of the template bytes, instead of a layout by iText.
+ * <p>
+ * The templates differ in the order of the lines of the body text, so the documents of different templates are not
+ * byte-identical apart from the patched fields.
+ */
+public class PdfTemplateDocumentCreator implements PdfDocumentGenerator {
+
+    private static final int TITLE_WIDTH = 64;
+    private static final int UUID_WIDTH = 36;
+    private static final int NUMBER_WIDTH = 20;
+    private static final int DATE_WIDTH = 32;
+    private static final int VALUE_WIDTH = 48;
+    private static final int ID_WIDTH = DocumentIdOutputStream.ID_WIDTH;
+    private static final byte[] ID_START = DocumentIdOutputStream.ID_START;
+
+    /**
+     * A field of the document, whose placeholder is replaced in all templates.
+     */
+    private static final class Field {
+        private final String placeholder;
+        private final Function<TestDocumentContent, String> value;
+
+        Field(int index, int width, Function<TestDocumentContent, String> value) {
+            // The placeholder contains no blanks and hyphens, so iText does not split it into two lines
+            StringBuilder placeholder = new StringBuilder("~").append(index).append('~');
+            while (placeholder.length() < width) {
+                placeholder.append('_');
+            }
+            this.placeholder = placeholder.toString();
+            this.value = value;
+        }
+    }
+
+    /**
+     * The position of a placeholder within the bytes of a template.
+     */
+    private static final class Patch {
+        private final int offset;
+        private final int width;
+        private final Field field;
+
+        Patch(int offset, int width, Field field) {
+            this.offset = offset;
+            this.width = width;
+            this.field = field;
+        }
+    }
+
+    /**
+     * A rendered template with the sorted positions of its placeholders.
+     */
+    private static final class Template {
+        private final byte[] bytes;
+        private final Patch[] patches;
+
+        Template(byte[] bytes, List<Patch> patches) {
+            this.bytes = bytes;
+            this.patches = patches.toArray(new Patch[0]);
+            Arrays.sort(this.patches, Comparator.comparingInt(patch -> patch.offset));
+        }
+
+        void write(TestDocumentContent content, OutputStream out) throws IOException {
+            int position = 0;
+            for (Patch patch : patches) {
+                out.write(bytes, position, patch.offset - position);
+                if (patch.field != null) {
+                    writePdfString(patch.field.value.apply(content), patch.width, out);
+                } else {
+                    out.write(DocumentIdOutputStream.documentId(content.getUuid()));
+                }
+                position = patch.offset + patch.width;
+            }
+            out.write(bytes, position, bytes.length - position);
+        }
+    }
+
+    private final DynamicConfigGenerator dynamicConfigGenerator;
+    private final List<Template> templates = new ArrayList<>();
+
+    /**
+     * Render the templates. Their static content, e.g. the meta data keys, is taken from the first documents.
+     *
+     * @param numberOfTemplates The number of different templates, the documents are distributed over them.
+     */
+    public PdfTemplateDocumentCreator(DynamicConfigGenerator dynamicConfigGenerator, int numberOfTemplates) {
+        this.dynamicConfigGenerator = dynamicConfigGenerator;
+        for (int templateIndex = 0; templateIndex < Math.max(1, numberOfTemplates); templateIndex++) {
+            this.templates.add(renderTemplate(dynamicConfigGenerator.buildTestDocumentContent(0, templateIndex), templateIndex));
+        }
+    }
+
+    @Override
+    public TestDocumentContent create(int containerIndex, int documentIndex, OutputStream pdfStream) {
+        TestDocumentContent content = this.dynamicConfigGenerator.buildTestDocumentContent(containerIndex, documentIndex);
+        Template template = templates.get(Math.floorMod(31 * containerIndex + documentIndex, templates.size()));
+        try {
+            template.write(content, pdfStream);
+            pdfStream.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return content;
+    }
+
+    public int getNumberOfTemplates() {
+        return templates.size();
+    }
+
+    //---------------------------------------------------------------------------------------------
+
+    private static Template renderTemplate(TestDocumentContent sample, int templateIndex) {
+
+        List<Field> fields = new ArrayList<>();
+        Field title = addField(fields, TITLE_WIDTH, TestDocumentContent::getTitle);
+        Field uuid = addField(fields, UUID_WIDTH, TestDocumentContent::getUuid);
+        Field counter = addField(fields, NUMBER_WIDTH, content -> Long.toString(content.getCounter()));
+        Field time = addField(fields, NUMBER_WIDTH, content -> Long.toString(content.getTime()));
+        Field date = addField(fields, DATE_WIDTH, TestDocumentContent::getDateString);
+        Map<String, String> metaData = new LinkedHashMap<>();
+        for (String key : sample.getMetaData().keySet()) {
+            metaData.put(key, addField(fields, VALUE_WIDTH, content -> content.getMetaData().get(key)).placeholder);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // The placeholders must be readable in the content stream. Document.compress is a global switch of iText.
+        synchronized (Document.class) {
+            boolean compress = Document.compress;
+            Document.compress = false;
+            try {
+                PdfTestDocumentCreator.constructPdf(title.placeholder, uuid.placeholder, counter.placeholder, time.placeholder,
+                        date.placeholder, metaData, rotateLines(sample.getText(), templateIndex), sample.getTime(), out);
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot render PDF template " + templateIndex + "!", e);
+            } finally {
+                Document.compress = compress;
+            }
+        }
+        byte[] bytes = out.toByteArray();
+
+        List<Patch> patches = new ArrayList<>();
+        for (Field field : fields) {
+            byte[] placeholder = field.placeholder.getBytes(StandardCharsets.ISO_8859_1);
+            int found = 0;
+            for (int offset = indexOf(bytes, placeholder, 0); offset >= 0; offset = indexOf(bytes, placeholder, offset + placeholder.length)) {
+                patches.add(new Patch(offset, placeholder.length, field));
+                found++;
+            }
+            if (found == 0) {
+                throw new IllegalStateException("Placeholder " + field.placeholder + " not found in PDF template " + templateIndex + "!");
+            }
+        }
+        // Both IDs of the trailer get the UUID, otherwise all documents of a template would share the same ID
+        int idStart = indexOf(bytes, ID_START, 0);
+        if (idStart >= 0) {
+            int first = idStart + ID_START.length;
+            int second = first + ID_WIDTH + 2;
+            if (second + ID_WIDTH <= bytes.length && bytes[first + ID_WIDTH] == '>' && bytes[second - 1] == '<') {
+                patches.add(new Patch(first, ID_WIDTH, null));
+                patches.add(new Patch(second, ID_WIDTH, null));
+            }
+        }
+        return new Template(bytes, patches);
+    }
+
+    private static Field addField(List<Field> fields, int width, Function<TestDocumentContent, String> value) {
+        Field field = new Field(fields.size(), width, value);
+        fields.add(field);
+        return field;
+    }
+
+    /**
+     * Write the value as the content of a PDF literal string with the given width. Parentheses and backslashes are
+     * escaped, characters outside of Latin-1 are replaced by '?', a longer value is truncated.
+     */
+    private static void writePdfString(String value, int width, OutputStream out) throws IOException {
+        int written = 0;
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                boolean escaped = c == '(' || c == ')' || c == '\\';
+                if (written + (escaped ? 2 : 1) > width) {
+                    break;
+                }
+                if (escaped) {
+                    out.write('\\');
+                    written++;
+                }
+                if (c < ' ' || (c >= 0x7F && c < 0xA0) || c > 0xFF) {
+                    c = c < ' ' ? ' ' : '?';
+                }
+                out.write(c);
+                written++;
+            }
+        }
+        for (; written < width; written++) {
+            out.write(' ');
+        }
+    }
+
+    private static String rotateLines(String text, int distance) {
+        String[] lines = text.split("\r\n");
+        StringBuilder rotated = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            rotated.append(lines[(i + distance) % lines.length]).append("\r\n");
+        }
+        return rotated.toString();
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern, int fromIndex) {
+        outer:
+        for (int i = fromIndex; i <= bytes.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -1,161 +1,198 @@
-package com.giraone.s3.testdocuments;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.giraone.s3.objectstore.testdata.DynamicConfigGenerator;
-import com.itextpdf.text.Document;
-import com.itextpdf.text.Paragraph;
-import com.itextpdf.text.pdf.PdfWriter;
-
-import java.io.*;
-
-/**
- * A simple PDF document generator.
- */
-public class PdfTestDocumentCreator {
-
-    private DynamicConfigGenerator dynamicConfigGenerator;
-    private File rootDir = new File(System.getProperty("java.io.tmpdir"));
-
-    public PdfTestDocumentCreator(DynamicConfigGenerator dynamicConfigGenerator) {
-        super();
-        this.dynamicConfigGenerator = dynamicConfigGenerator;
-    }
-
-    public File getRootDir() {
-        return rootDir;
-    }
-
-    public void setRootDir(File rootDir) {
-        this.rootDir = rootDir;
-    }
-
-    public FilePair create(int containerIndex, int documentIndex) {
-        TestDocumentContent content = this.dynamicConfigGenerator.buildTestDocumentContent(containerIndex, documentIndex);
-        File pdfFile, metaDataFile;
-        try {
-            metaDataFile = File.createTempFile(content.getUuid(), ".json");
-            pdfFile = File.createTempFile(content.getUuid(), ".pdf");
-
-            // TODO: we might skip this, when generated documents are used multiple times!
-            metaDataFile.deleteOnExit();
-            pdfFile.deleteOnExit();
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
-        }
-
-        if (this.createPdfFile(pdfFile, content) && this.createMetaDataFile(metaDataFile, content)) {
-            return new FilePair(metaDataFile, pdfFile);
-        }
-        return null;
-    }
-
-    private int run(int containerIndex, int documentStartIndex, int numberOfFiles) throws IOException {
-        int count = 0;
-        for (int documentIndex = documentStartIndex; documentIndex < documentStartIndex + numberOfFiles; documentIndex++) {
-            TestDocumentContent content = this.dynamicConfigGenerator.buildTestDocumentContent(containerIndex, documentIndex);
-            File pdfFile = new File(rootDir, content.getUuid() + ".pdf");
-            File metaDataFile = new File(rootDir, content.getUuid() + ".json");
-
-            if (this.createPdfFile(pdfFile, content) && this.createMetaDataFile(metaDataFile, content)) {
-                count++;
-            }
-        }
-        return count;
-    }
-
-    private PdfTestDocumentCreator() {
-        super();
-    }
-
-    public static void main(String[] args) throws Exception {
-        PdfTestDocumentCreator creator = new PdfTestDocumentCreator();
-        int count = creator.run(0, 100, 0);
-        System.out.println(count);
-    }
-
-    //---------------------------------------------------------------------------------------------
-
-    private boolean createMetaDataFile(File file, TestDocumentContent content) {
-        OutputStream outputStream;
-        try {
-            outputStream = new FileOutputStream(file);
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-            return false;
-        }
-        try {
-            this.constructJson(content, outputStream);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        } finally {
-            try {
-                outputStream.close();
-            } catch (IOException e) {
-            }
-        }
-        return true;
-    }
-
-    private boolean createPdfFile(File file, TestDocumentContent content) {
-        OutputStream outputStream;
-        try {
-            outputStream = new FileOutputStream(file);
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-            return false;
-        }
-        try {
-            this.constructPdf(content, outputStream);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        } finally {
-            try {
-                outputStream.close();
-            } catch (IOException ignored) {
-            }
-        }
-        return true;
-    }
-
-    private void constructJson(TestDocumentContent content, OutputStream outputStream) throws Exception {
-        final ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(outputStream, content);
-    }
-
-    private void constructPdf(TestDocumentContent content, OutputStream outputStream) throws Exception {
-        Document document = new Document();
-        PdfWriter.getInstance(document, outputStream);
-        try {
-            document.open();
-
-            document.addTitle(content.getTitle() + " " + content.getUuid());
-            document.add(new Paragraph(content.getTitle()));
-            document.add(new Paragraph("UUID = " + content.getUuid()));
-            document.add(new Paragraph("Counter = " + content.getCounter()));
-            document.add(new Paragraph("Time Millis = " + content.getTime()));
-            document.add(new Paragraph("Date = " + content.getDate()));
-
-            for (String key : content.getMetaData().keySet()) {
-                document.add(new Paragraph(key + " = " + content.getMetaData().get(key)));
-            }
-            document.add(new Paragraph("-----------------------------------------------------------------------"));
-
-            document.add(new Paragraph(content.getText()));
-        } finally {
-            document.close();
-        }
-    }
-
-    public class FilePair {
-        public File jsonFile;
-        public File pdfFile;
-
-        FilePair(File jsonFile, File pdfFile) {
-            this.jsonFile = jsonFile;
-            this.pdfFile = pdfFile;
-        }
-    }
-}
+package com.giraone.s3.testdocuments;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giraone.s3.objectstore.testdata.DynamicConfigGenerator;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.PdfDate;
+import com.itextpdf.text.pdf.PdfName;
+import com.itextpdf.text.pdf.PdfWriter;
+
+import java.io.*;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * A simple PDF document generator.
+ */
+public class PdfTestDocumentCreator implements PdfDocumentGenerator {
+
+    private DynamicConfigGenerator dynamicConfigGenerator;
+    private File rootDir = new File(System.getProperty("java.io.tmpdir"));
+
+    public PdfTestDocumentCreator(DynamicConfigGenerator dynamicConfigGenerator) {
+        super();
+        this.dynamicConfigGenerator = dynamicConfigGenerator;
+    }
+
+    public File getRootDir() {
+        return rootDir;
+    }
+
+    public void setRootDir(File rootDir) {
+        this.rootDir = rootDir;
+    }
+
+    public FilePair create(int containerIndex, int documentIndex) {
+        TestDocumentContent content = this.dynamicConfigGenerator.buildTestDocumentContent(containerIndex, documentIndex);
+        File pdfFile, metaDataFile;
+        try {
+            metaDataFile = File.createTempFile(content.getUuid(), ".json");
+            pdfFile = File.createTempFile(content.getUuid(), ".pdf");
+
+            // TODO: we might skip this, when generated documents are used multiple times!
+            metaDataFile.deleteOnExit();
+            pdfFile.deleteOnExit();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        if (this.createPdfFile(pdfFile, content) && this.createMetaDataFile(metaDataFile, content)) {
+            return new FilePair(metaDataFile, pdfFile);
+        }
+        return null;
+    }
+
+    /**
+     * Generate the PDF document in memory, without a JSON file. The meta data is returned as object.
+     */
+    @Override
+    public TestDocumentContent create(int containerIndex, int documentIndex, OutputStream pdfStream) {
+        TestDocumentContent content = this.dynamicConfigGenerator.buildTestDocumentContent(containerIndex, documentIndex);
+        try {
+            this.constructPdf(content, new DocumentIdOutputStream(pdfStream, content.getUuid()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+        return content;
+    }
+
+    private int run(int containerIndex, int documentStartIndex, int numberOfFiles) throws IOException {
+        int count = 0;
+        for (int documentIndex = documentStartIndex; documentIndex < documentStartIndex + numberOfFiles; documentIndex++) {
+            TestDocumentContent content = this.dynamicConfigGenerator.buildTestDocumentContent(containerIndex, documentIndex);
+            File pdfFile = new File(rootDir, content.getUuid() + ".pdf");
+            File metaDataFile = new File(rootDir, content.getUuid() + ".json");
+
+            if (this.createPdfFile(pdfFile, content) && this.createMetaDataFile(metaDataFile, content)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private PdfTestDocumentCreator() {
+        super();
+    }
+
+    public static void main(String[] args) throws Exception {
+        PdfTestDocumentCreator creator = new PdfTestDocumentCreator();
+        int count = creator.run(0, 100, 0);
+        System.out.println(count);
+    }
+
+    //---------------------------------------------------------------------------------------------
+
+    private boolean createMetaDataFile(File file, TestDocumentContent content) {
+        OutputStream outputStream;
+        try {
+            outputStream = new FileOutputStream(file);
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+            return false;
+        }
+        try {
+            this.constructJson(content, outputStream);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            try {
+                outputStream.close();
+            } catch (IOException e) {
+            }
+        }
+        return true;
+    }
+
+    private boolean createPdfFile(File file, TestDocumentContent content) {
+        OutputStream outputStream;
+        try {
+            outputStream = new FileOutputStream(file);
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+            return false;
+        }
+        try {
+            this.constructPdf(content, outputStream);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            try {
+                outputStream.close();
+            } catch (IOException ignored) {
+            }
+        }
+        return true;
+    }
+
+    private void constructJson(TestDocumentContent content, OutputStream outputStream) throws Exception {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.writeValue(outputStream, content);
+    }
+
+    private void constructPdf(TestDocumentContent content, OutputStream outputStream) throws Exception {
+        constructPdf(content.getTitle(), content.getUuid(), Long.toString(content.getCounter()), Long.toString(content.getTime()),
+                content.getDateString(), content.getMetaData(), content.getText(), content.getTime(), outputStream);
+    }
+
+    /**
+     * Build the PDF from the text of its fields. Also used for the templates of the PdfTemplateDocumentCreator.
+     *
+     * @param creationTime The creation and modification date of the PDF, instead of the current time, so the same
+     *                     content gives the same bytes.
+     */
+    static void constructPdf(String title, String uuid, String counter, String time, String date, Map<String, String> metaData,
+                             String text, long creationTime, OutputStream outputStream) throws Exception {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+        try {
+            document.open();
+
+            Calendar creationDate = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            creationDate.setTimeInMillis(creationTime);
+            writer.getInfo().put(PdfName.CREATIONDATE, new PdfDate(creationDate));
+            writer.getInfo().put(PdfName.MODDATE, new PdfDate(creationDate));
+
+            document.addTitle(title + " " + uuid);
+            document.add(new Paragraph(title));
+            document.add(new Paragraph("UUID = " + uuid));
+            document.add(new Paragraph("Counter = " + counter));
+            document.add(new Paragraph("Time Millis = " + time));
+            document.add(new Paragraph("Date = " + date));
+
+            for (String key : metaData.keySet()) {
+                document.add(new Paragraph(key + " = " + metaData.get(key)));
+            }
+            document.add(new Paragraph("-----------------------------------------------------------------------"));
+
+            document.add(new Paragraph(text));
+        } finally {
+            document.close();
+        }
+    }
+
+    public class FilePair {
+        public File jsonFile;
+        public File pdfFile;
+
+        FilePair(File jsonFile, File pdfFile) {
+            this.jsonFile = jsonFile;
+            this.pdfFile = pdfFile;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.giraone.s3.objectstore.testloader;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory for the executors running the simulated clients - [platform|virtual].
+ * This is the Java 21 version of the multi-release jar, which runs each task on its own virtual thread.
+ */
+final class WorkerExecutors {
+
+    static final String PLATFORM = "platform";
+    static final String VIRTUAL = "virtual";
+
+    // Class has only static methods
+    private WorkerExecutors() {
+    }
+
+    static boolean isVirtualThreadSupported() {
+        return true;
+    }
+
+    /**
+     * @param type            The executor type - [platform|virtual].
+     * @param numberOfThreads The number of platform threads. Virtual threads are created per task.
+     */
+    static ExecutorService newExecutor(String type, int numberOfThreads) {
+        if (VIRTUAL.equalsIgnoreCase(type)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("client-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(numberOfThreads);
+    }
+}
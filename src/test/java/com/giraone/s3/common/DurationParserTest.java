@@ -0,0 +1,38 @@
+package com.giraone.s3.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DurationParserTest {
+
+    @Test
+    public void parsesAllUnits() {
+        assertEquals(500L, DurationParser.parseMillis("500ms"));
+        assertEquals(30_000L, DurationParser.parseMillis("30s"));
+        assertEquals(300_000L, DurationParser.parseMillis("5m"));
+        assertEquals(7_200_000L, DurationParser.parseMillis("2h"));
+        assertEquals(86_400_000L, DurationParser.parseMillis("1d"));
+    }
+
+    @Test
+    public void numberWithoutUnitIsSeconds() {
+        assertEquals(90_000L, DurationParser.parseMillis("90"));
+    }
+
+    @Test
+    public void ignoresCaseAndBlanks() {
+        assertEquals(1500L, DurationParser.parseMillis(" 1500 MS "));
+        assertEquals(60_000L, DurationParser.parseMillis("1 M"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidNumber() {
+        DurationParser.parseMillis("1.5h");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownUnit() {
+        DurationParser.parseMillis("3w");
+    }
+}
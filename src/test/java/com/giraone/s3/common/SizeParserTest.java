@@ -0,0 +1,38 @@
+package com.giraone.s3.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SizeParserTest {
+
+    @Test
+    public void numberWithoutUnitIsBytes() {
+        assertEquals(512L, SizeParser.parseBytes("512"));
+        assertEquals(512L, SizeParser.parseBytes("512B"));
+    }
+
+    @Test
+    public void parsesBinaryMultiples() {
+        assertEquals(2048L, SizeParser.parseBytes("2KB"));
+        assertEquals(2048L, SizeParser.parseBytes("2k"));
+        assertEquals(64L * 1024L * 1024L, SizeParser.parseBytes("64MB"));
+        assertEquals(1024L * 1024L * 1024L, SizeParser.parseBytes("1GB"));
+    }
+
+    @Test
+    public void parsesFractions() {
+        assertEquals(1536L, SizeParser.parseBytes("1.5KB"));
+        assertEquals(512L * 1024L, SizeParser.parseBytes(" 0.5 MB "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownUnit() {
+        SizeParser.parseBytes("1TB");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingNumber() {
+        SizeParser.parseBytes("MB");
+    }
+}
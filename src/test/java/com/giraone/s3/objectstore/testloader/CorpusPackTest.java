@@ -0,0 +1,119 @@
+package com.giraone.s3.objectstore.testloader;
+
+import com.giraone.s3.objectstore.testdata.DocumentMetaData;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CorpusPackTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private long packEnd;
+
+    private void append(File packFile, int containerIndex, int documentIndex, String content) throws IOException {
+        DocumentMetaData metaData = new DocumentMetaData();
+        metaData.setTitle("document-" + documentIndex + ".pdf");
+        metaData.setUuid("uuid-" + containerIndex + "-" + documentIndex);
+        metaData.setTime(1388534400000L);
+        metaData.setMetaData(new HashMap<>());
+        byte[] bytes = content.getBytes(StandardCharsets.US_ASCII);
+        GeneratedDocument document = new GeneratedDocument(containerIndex, documentIndex, "container-" + containerIndex + "/path",
+                metaData, ByteBuffer.wrap(bytes));
+        Files.write(packFile.toPath(), bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        Files.write(CorpusPack.indexFile(packFile).toPath(), CorpusPack.indexLine(document, packEnd, bytes.length),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        packEnd += bytes.length;
+    }
+
+    private static String content(GeneratedDocument document) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = document.newInputStream()) {
+            int b;
+            while ((b = in.read()) != -1) {
+                bytes.write(b);
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void documentsAreReadFromTheirSlice() throws IOException {
+        File packFile = new File(folder.getRoot(), "corpus.pack");
+        append(packFile, 0, 1, "first");
+        append(packFile, 0, 2, "second");
+        append(packFile, 1, 1, "third");
+
+        CorpusPack corpus = CorpusPack.open(packFile);
+        assertEquals(3, corpus.getNumberOfDocuments());
+        assertEquals(packEnd, corpus.getPackSize());
+        GeneratedDocument document = corpus.document(0, 2);
+        assertEquals("second", content(document));
+        assertEquals(6L, document.getSize());
+        assertEquals("container-0/path", document.getObjectPath());
+        assertEquals("document-2.pdf", document.getMetaData().getTitle());
+        assertEquals("uuid-0-2", document.getMetaData().getUuid());
+        assertEquals("third", content(corpus.document(1, 1)));
+    }
+
+    @Test
+    public void missingDocumentsAreNull() throws IOException {
+        File packFile = new File(folder.getRoot(), "corpus.pack");
+        append(packFile, 0, 1, "first");
+
+        CorpusPack corpus = CorpusPack.open(packFile);
+        assertTrue(corpus.contains(0, 1));
+        assertFalse(corpus.contains(0, 2));
+        assertFalse(corpus.contains(1, 1));
+        assertNull(corpus.document(0, 2));
+    }
+
+    @Test
+    public void documentWrittenAgainReplacesTheFormerOne() throws IOException {
+        File packFile = new File(folder.getRoot(), "corpus.pack");
+        append(packFile, 0, 1, "first");
+        append(packFile, 0, 2, "second");
+        // A resumed generation writes document 1 again
+        append(packFile, 0, 1, "again");
+
+        CorpusPack corpus = CorpusPack.open(packFile);
+        assertEquals(2, corpus.getNumberOfDocuments());
+        assertEquals("again", content(corpus.document(0, 1)));
+        assertEquals("second", content(corpus.document(0, 2)));
+    }
+
+    @Test
+    public void documentsOfTheDefaultContainerHaveNegativeContainerIndex() throws IOException {
+        File packFile = new File(folder.getRoot(), "corpus.pack");
+        append(packFile, -1, 1, "root");
+        append(packFile, 0, 1, "first");
+
+        CorpusPack corpus = CorpusPack.open(packFile);
+        assertEquals("root", content(corpus.document(-1, 1)));
+        assertEquals("first", content(corpus.document(0, 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void indexBehindThePackIsRejected() throws IOException {
+        File packFile = new File(folder.getRoot(), "corpus.pack");
+        append(packFile, 0, 1, "first");
+        Files.write(packFile.toPath(), new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+        CorpusPack.open(packFile);
+    }
+}
@@ -0,0 +1,91 @@
+package com.giraone.s3.objectstore.testloader;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class DocumentIndexSpaceTest {
+
+    @Test
+    public void boundedSpaceRoundTrip() {
+        DocumentIndexSpace indexSpace = new DocumentIndexSpace(3, 4);
+        assertEquals(12L, indexSpace.size());
+        for (long index = 0L; index < indexSpace.size(); index++) {
+            int containerIndex = indexSpace.containerIndex(index);
+            int documentIndex = indexSpace.documentIndex(index);
+            assertEquals(index, indexSpace.index(containerIndex, documentIndex));
+        }
+    }
+
+    @Test
+    public void containersOfRange() {
+        DocumentIndexSpace indexSpace = new DocumentIndexSpace(3, 4);
+        assertEquals(0, indexSpace.firstContainer(0L, 12L));
+        assertEquals(3, indexSpace.endContainer(0L, 12L));
+        assertEquals(1, indexSpace.firstContainer(5L, 8L));
+        assertEquals(2, indexSpace.endContainer(5L, 8L));
+        assertEquals(indexSpace.firstContainer(6L, 6L), indexSpace.endContainer(6L, 6L));
+    }
+
+    @Test
+    public void containersOfRangeWithoutDocuments() {
+        DocumentIndexSpace indexSpace = new DocumentIndexSpace(3, 0);
+        assertEquals(0L, indexSpace.size());
+        assertEquals(0, indexSpace.firstContainer(0L, 0L));
+        assertEquals(3, indexSpace.endContainer(0L, 0L));
+        DocumentIndexSpace unbounded = DocumentIndexSpace.unbounded(3);
+        assertEquals(0, unbounded.firstContainer(0L, 2L));
+        assertEquals(3, unbounded.endContainer(0L, 2L));
+        DocumentIndexSpace rootContainer = new DocumentIndexSpace(0, 5);
+        assertEquals(0, rootContainer.endContainer(0L, 5L));
+    }
+
+    @Test
+    public void boundedSpaceFillsOneContainerAfterTheOther() {
+        DocumentIndexSpace indexSpace = new DocumentIndexSpace(3, 4);
+        assertEquals(0, indexSpace.containerIndex(0L));
+        assertEquals(1, indexSpace.documentIndex(0L));
+        assertEquals(0, indexSpace.containerIndex(3L));
+        assertEquals(4, indexSpace.documentIndex(3L));
+        assertEquals(1, indexSpace.containerIndex(4L));
+        assertEquals(1, indexSpace.documentIndex(4L));
+    }
+
+    @Test
+    public void unboundedSpaceRoundRobin() {
+        DocumentIndexSpace indexSpace = DocumentIndexSpace.unbounded(3);
+        assertEquals(0, indexSpace.containerIndex(0L));
+        assertEquals(1, indexSpace.containerIndex(1L));
+        assertEquals(2, indexSpace.containerIndex(2L));
+        assertEquals(0, indexSpace.containerIndex(3L));
+        assertEquals(2, indexSpace.documentIndex(3L));
+        for (long index = 0L; index < 1000L; index++) {
+            assertEquals(index, indexSpace.index(indexSpace.containerIndex(index), indexSpace.documentIndex(index)));
+        }
+    }
+
+    @Test
+    public void unboundedSpaceRoundTripAtTheEnd() {
+        DocumentIndexSpace indexSpace = DocumentIndexSpace.unbounded(7);
+        long last = indexSpace.size() - 1L;
+        assertEquals(last, indexSpace.index(indexSpace.containerIndex(last), indexSpace.documentIndex(last)));
+        assertEquals(Integer.MAX_VALUE, indexSpace.documentIndex(last));
+    }
+
+    @Test
+    public void withoutContainersTheDefaultContainerIsUsed() {
+        DocumentIndexSpace indexSpace = new DocumentIndexSpace(0, 5);
+        assertEquals(5L, indexSpace.size());
+        for (long index = 0L; index < indexSpace.size(); index++) {
+            assertEquals(-1, indexSpace.containerIndex(index));
+            assertEquals(index, indexSpace.index(-1, indexSpace.documentIndex(index)));
+        }
+    }
+
+    @Test
+    public void describeDistinguishesBoundedAndUnbounded() {
+        assertEquals(new DocumentIndexSpace(2, 10).describe(), new DocumentIndexSpace(2, 10).describe());
+        assertNotEquals(new DocumentIndexSpace(2, 10).describe(), DocumentIndexSpace.unbounded(2).describe());
+    }
+}
@@ -0,0 +1,39 @@
+package com.giraone.s3.objectstore.testloader;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KeyPoolTest {
+
+    @Test
+    public void keysAreInThePoolOnlyOnce() {
+        KeyPool pool = new KeyPool(Arrays.asList("a", "b", "a"));
+        assertEquals(2, pool.size());
+        assertFalse(pool.add("b"));
+        assertTrue(pool.add("c"));
+        assertEquals(3, pool.size());
+    }
+
+    @Test
+    public void removedKeysAreNotPickedAgain() {
+        KeyPool pool = new KeyPool(Arrays.asList("a", "b"));
+        Random random = new Random(1L);
+        String removed = pool.remove(random);
+        for (int i = 0; i < 100; i++) {
+            assertFalse(removed.equals(pool.get(random)));
+        }
+        // A key uploaded again after its deletion is back in the pool
+        assertTrue(pool.add(removed));
+        pool.remove(random);
+        pool.remove(random);
+        assertNull(pool.remove(random));
+        assertEquals(0, pool.size());
+    }
+}
@@ -0,0 +1,56 @@
+package com.giraone.s3.objectstore.testloader;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LoadProfileTest {
+
+    @Test
+    public void parsesAllSegmentTypes() {
+        LoadProfile profile = LoadProfile.parse("ramp:1-16@1m;step:16,32@30s;hold:64@10m");
+        List<LoadProfile.Stage> stages = profile.getStages();
+        assertEquals(4, stages.size());
+        assertEquals("ramp 1-16", stages.get(0).getName());
+        assertEquals(1, stages.get(0).getStartConcurrency());
+        assertEquals(16, stages.get(0).getEndConcurrency());
+        assertEquals(60_000L, stages.get(0).getDurationMillis());
+        assertEquals("step 16", stages.get(1).getName());
+        assertEquals("step 32", stages.get(2).getName());
+        assertEquals(30_000L, stages.get(2).getDurationMillis());
+        assertEquals("hold 64", stages.get(3).getName());
+        assertEquals(64, profile.getMaxConcurrency());
+        assertEquals(60_000L + 2 * 30_000L + 600_000L, profile.getTotalDurationMillis());
+    }
+
+    @Test
+    public void rampIsInterpolated() {
+        LoadProfile.Stage ramp = LoadProfile.parse("ramp:1-65@64s").getStages().get(0);
+        assertEquals(1, ramp.concurrencyAt(0L));
+        assertEquals(33, ramp.concurrencyAt(32_000L));
+        assertEquals(65, ramp.concurrencyAt(64_000L));
+        assertEquals(65, ramp.concurrencyAt(100_000L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingDuration() {
+        LoadProfile.parse("hold:32");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownType() {
+        LoadProfile.parse("burst:32@1m");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidRamp() {
+        LoadProfile.parse("ramp:1-8-16@1m");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroConcurrency() {
+        LoadProfile.parse("step:0,8@30s");
+    }
+}
@@ -0,0 +1,168 @@
+package com.giraone.s3.objectstore.testloader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProgressJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final DocumentIndexSpace indexSpace = new DocumentIndexSpace(2, 10);
+
+    private List<String> lines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.US_ASCII);
+    }
+
+    private void complete(ProgressJournal journal, long... indices) {
+        for (long index : indices) {
+            journal.markCompleted(indexSpace.containerIndex(index), indexSpace.documentIndex(index));
+        }
+    }
+
+    private boolean isCompleted(ProgressJournal journal, long index) {
+        return journal.isCompleted(indexSpace.containerIndex(index), indexSpace.documentIndex(index));
+    }
+
+    @Test
+    public void completedIndicesAreWrittenAsCoalescedRanges() throws IOException {
+        File file = new File(folder.getRoot(), "journal");
+        ProgressJournal journal = ProgressJournal.open(file, indexSpace, false);
+        // Out of order, as the workers complete them
+        complete(journal, 2L, 0L, 1L, 5L, 11L, 10L, 12L);
+        journal.close();
+
+        assertEquals(Arrays.asList("# " + indexSpace.describe(), "0 3", "5 6", "10 13"), lines(file));
+    }
+
+    @Test
+    public void resumeSkipsTheRangesOfAllBatches() throws IOException {
+        File file = new File(folder.getRoot(), "journal");
+        ProgressJournal first = ProgressJournal.open(file, indexSpace, false);
+        complete(first, 0L, 1L, 2L);
+        first.close();
+        ProgressJournal second = ProgressJournal.open(file, indexSpace, true);
+        complete(second, 3L, 4L, 8L);
+        second.close();
+
+        ProgressJournal resumed = ProgressJournal.open(file, indexSpace, true);
+        for (long index = 0L; index < indexSpace.size(); index++) {
+            boolean expected = index <= 4L || index == 8L;
+            assertEquals("index " + index, expected, isCompleted(resumed, index));
+        }
+        resumed.close();
+    }
+
+    @Test
+    public void tornLastLineNeverCoversTooMuch() throws IOException {
+        File file = new File(folder.getRoot(), "journal");
+        ProgressJournal journal = ProgressJournal.open(file, indexSpace, false);
+        complete(journal, 0L, 1L);
+        journal.close();
+        // The crash tore "12 18\n" after "1", so the range is shorter than the written one
+        Files.write(file.toPath(), "12 1".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        ProgressJournal resumed = ProgressJournal.open(file, indexSpace, true);
+        assertTrue(isCompleted(resumed, 0L));
+        assertTrue(isCompleted(resumed, 1L));
+        for (long index = 2L; index < indexSpace.size(); index++) {
+            assertFalse("index " + index, isCompleted(resumed, index));
+        }
+        resumed.close();
+    }
+
+    @Test
+    public void rangesAfterATornLineAreRecovered() throws IOException {
+        File file = new File(folder.getRoot(), "journal");
+        ProgressJournal journal = ProgressJournal.open(file, indexSpace, false);
+        complete(journal, 0L, 1L);
+        journal.close();
+        Files.write(file.toPath(), "12 1".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        ProgressJournal resumed = ProgressJournal.open(file, indexSpace, true);
+        complete(resumed, 5L, 6L);
+        resumed.close();
+        assertEquals(Arrays.asList("# " + indexSpace.describe(), "0 2", "5 7"), lines(file));
+
+        ProgressJournal again = ProgressJournal.open(file, indexSpace, true);
+        assertTrue(isCompleted(again, 5L));
+        assertTrue(isCompleted(again, 6L));
+        again.close();
+    }
+
+    @Test
+    public void headerWithoutLineFeedIsCompleted() throws IOException {
+        File file = new File(folder.getRoot(), "journal");
+        Files.write(file.toPath(), ("# " + indexSpace.describe()).getBytes(StandardCharsets.US_ASCII));
+
+        ProgressJournal resumed = ProgressJournal.open(file, indexSpace, true);
+        complete(resumed, 3L);
+        resumed.close();
+        assertEquals(Arrays.asList("# " + indexSpace.describe(), "3 4"), lines(file));
+    }
+
+    @Test
+    public void tornLastLineWithOnlyTheStartIsIgnored() throws IOException {
+        File file = new File(folder.getRoot(), "journal");
+        ProgressJournal.open(file, indexSpace, false).close();
+        Files.write(file.toPath(), "7".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        ProgressJournal resumed = ProgressJournal.open(file, indexSpace, true);
+        assertFalse(isCompleted(resumed, 7L));
+        resumed.close();
+    }
+
+    @Test
+    public void invalidLinesAreIgnored() throws IOException {
+        File file = new File(folder.getRoot(), "journal");
+        ProgressJournal.open(file, indexSpace, false).close();
+        Files.write(file.toPath(), "x y\n3 5\n".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        ProgressJournal resumed = ProgressJournal.open(file, indexSpace, true);
+        assertFalse(isCompleted(resumed, 2L));
+        assertTrue(isCompleted(resumed, 3L));
+        assertTrue(isCompleted(resumed, 4L));
+        assertFalse(isCompleted(resumed, 5L));
+        resumed.close();
+    }
+
+    @Test
+    public void overlappingAndAdjacentRangesAreMerged() throws IOException {
+        File file = new File(folder.getRoot(), "journal");
+        ProgressJournal.open(file, indexSpace, false).close();
+        Files.write(file.toPath(), "5 8\n0 2\n2 4\n7 10\n".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        ProgressJournal resumed = ProgressJournal.open(file, indexSpace, true);
+        for (long index = 0L; index < indexSpace.size(); index++) {
+            assertEquals("index " + index, index != 4L && index < 10L, isCompleted(resumed, index));
+        }
+        resumed.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void existingJournalNeedsResume() throws IOException {
+        File file = new File(folder.getRoot(), "journal");
+        ProgressJournal.open(file, indexSpace, false).close();
+        ProgressJournal.open(file, indexSpace, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void journalOfAnotherIndexSpaceIsRejected() throws IOException {
+        File file = new File(folder.getRoot(), "journal");
+        ProgressJournal.open(file, indexSpace, false).close();
+        ProgressJournal.open(file, new DocumentIndexSpace(3, 10), true);
+    }
+}
@@ -0,0 +1,118 @@
+package com.giraone.s3.objectstore.testloader;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RetryPolicyTest {
+
+    /**
+     * Failure with a status code, which is resolved by the policy under test.
+     */
+    private static final class StatusException extends RuntimeException {
+        private final int statusCode;
+
+        StatusException(int statusCode) {
+            super("status " + statusCode);
+            this.statusCode = statusCode;
+        }
+    }
+
+    private static RetryPolicy policy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        return new RetryPolicy(maxAttempts, baseDelayMillis, maxDelayMillis, new CircuitBreaker(0.0, 0L),
+                throwable -> throwable instanceof StatusException ? ((StatusException) throwable).statusCode : -1);
+    }
+
+    @Test
+    public void delayStaysWithinBounds() {
+        RetryPolicy retryPolicy = policy(3, 100L, 2000L);
+        long delay = 100L;
+        for (int i = 0; i < 10_000; i++) {
+            long next = retryPolicy.nextDelay(delay);
+            assertTrue("delay " + next, next >= 100L && next <= 2000L);
+            assertTrue("delay " + next + " after " + delay, next <= Math.max(100L, 3L * delay));
+            delay = next;
+        }
+    }
+
+    @Test
+    public void delayIsBaseWhenBaseEqualsMaximum() {
+        RetryPolicy retryPolicy = policy(3, 100L, 100L);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(100L, retryPolicy.nextDelay(100L));
+        }
+    }
+
+    @Test
+    public void transientErrorsAreRetried() {
+        RetryPolicy retryPolicy = policy(3, 1L, 2L);
+        AtomicInteger attempts = new AtomicInteger();
+        String result = retryPolicy.call(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new StatusException(503);
+            }
+            return "ok";
+        });
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(Long.valueOf(2L), retryPolicy.getRetriesByStatus().get(503));
+        assertEquals(2L, retryPolicy.getThrottledCount());
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() {
+        RetryPolicy retryPolicy = policy(2, 1L, 2L);
+        RetryPolicy.Failure failure = new RetryPolicy.Failure();
+        AtomicInteger attempts = new AtomicInteger();
+        String result = retryPolicy.call(() -> {
+            attempts.incrementAndGet();
+            throw new StatusException(RetryPolicy.NETWORK_ERROR);
+        }, failure);
+        assertNull(result);
+        assertEquals(2, attempts.get());
+        assertEquals(RetryPolicy.NETWORK_ERROR, failure.getStatusCode());
+        assertEquals(Long.valueOf(1L), retryPolicy.getGiveUpsByStatus().get(RetryPolicy.NETWORK_ERROR));
+        assertEquals(2L, retryPolicy.getTimeoutCount());
+    }
+
+    @Test
+    public void permanentErrorsAreNotRetried() {
+        RetryPolicy retryPolicy = policy(5, 1L, 2L);
+        AtomicInteger attempts = new AtomicInteger();
+        String result = retryPolicy.call(() -> {
+            attempts.incrementAndGet();
+            throw new StatusException(404);
+        });
+        assertNull(result);
+        assertEquals(1, attempts.get());
+        assertTrue(retryPolicy.getRetriesByStatus().isEmpty());
+        assertEquals(Long.valueOf(1L), retryPolicy.getGiveUpsByStatus().get(404));
+    }
+
+    @Test
+    public void onlyTransientErrorsOpenTheCircuitBreaker() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(0.5, 60_000L);
+        RetryPolicy retryPolicy = new RetryPolicy(1, 1L, 1L, circuitBreaker,
+                throwable -> ((StatusException) throwable).statusCode);
+        for (int i = 0; i < 50; i++) {
+            retryPolicy.call(() -> {
+                throw new StatusException(404);
+            });
+        }
+        assertEquals(0L, circuitBreaker.remainingOpenMillis());
+        // The 404 responses count as requests of the window, so more than 50 failures are needed
+        for (int i = 0; i < 200; i++) {
+            retryPolicy.call(() -> {
+                throw new StatusException(503);
+            });
+            if (circuitBreaker.remainingOpenMillis() > 0L) {
+                break;
+            }
+        }
+        assertTrue(circuitBreaker.remainingOpenMillis() > 0L);
+    }
+}
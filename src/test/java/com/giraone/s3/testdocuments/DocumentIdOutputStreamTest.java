@@ -0,0 +1,100 @@
+package com.giraone.s3.testdocuments;
+
+import com.giraone.s3.objectstore.testdata.DefaultDynamicConfigGenerator;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentIdOutputStreamTest {
+
+    private static final String UUID = "0f8fad5b-d9cb-469f-a165-70867728950e";
+    private static final String ID = "0f8fad5bd9cb469fa16570867728950e";
+    private static final String ITEXT_ID = "/ID [<9d2a3e4c6b1f0a8e7d5c3b2a1f0e9d8c><6b1f0a8e7d5c3b2a1f0e9d8c9d2a3e4c>]";
+
+    private static String pdf(int bodyLength) {
+        char[] body = new char[bodyLength];
+        Arrays.fill(body, 'x');
+        return "%PDF-1.4\n" + new String(body) + "\nxref\n0 1\n0000000000 65535 f \ntrailer\n<</Size 1/Root 1 0 R"
+                + ITEXT_ID + ">>\n%iText-5.5.13\nstartxref\n9\n%%EOF\n";
+    }
+
+    private static String patched(String pdf) {
+        return pdf.replace(ITEXT_ID, "/ID [<" + ID + "><" + ID + ">]");
+    }
+
+    private static String writeInOneChunk(String pdf) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DocumentIdOutputStream out = new DocumentIdOutputStream(bytes, UUID)) {
+            out.write(pdf.getBytes(StandardCharsets.ISO_8859_1));
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+
+    private static String writeInChunks(String pdf, int chunkSize) throws IOException {
+        byte[] b = pdf.getBytes(StandardCharsets.ISO_8859_1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DocumentIdOutputStream out = new DocumentIdOutputStream(bytes, UUID)) {
+            for (int off = 0; off < b.length; off += chunkSize) {
+                out.write(b, off, Math.min(chunkSize, b.length - off));
+                out.flush();
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void documentIdIsTheHexOfTheUuid() {
+        assertArrayEquals(ID.getBytes(StandardCharsets.ISO_8859_1), DocumentIdOutputStream.documentId(UUID));
+    }
+
+    @Test
+    public void documentIdOfShortUuidIsPaddedWithZeros() {
+        assertEquals("abc12" + "000000000000000000000000000",
+                new String(DocumentIdOutputStream.documentId("abc-12"), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void idIsReplacedInSmallDocument() throws IOException {
+        String pdf = pdf(10);
+        assertEquals(patched(pdf), writeInOneChunk(pdf));
+    }
+
+    @Test
+    public void idIsReplacedInLargeDocument() throws IOException {
+        String pdf = pdf(10000);
+        assertEquals(patched(pdf), writeInOneChunk(pdf));
+    }
+
+    @Test
+    public void idIsReplacedForAllChunkSizes() throws IOException {
+        String pdf = pdf(3000);
+        for (int chunkSize : new int[]{1, 7, 100, 511, 512, 513, 1024, 1500}) {
+            assertEquals("chunk size " + chunkSize, patched(pdf), writeInChunks(pdf, chunkSize));
+        }
+    }
+
+    @Test
+    public void documentWithoutIdIsUnchanged() throws IOException {
+        String pdf = pdf(2000).replace(ITEXT_ID, "");
+        assertEquals(pdf, writeInChunks(pdf, 100));
+    }
+
+    @Test
+    public void generatedDocumentHasTheUuidAsId() {
+        DefaultDynamicConfigGenerator generator = new DefaultDynamicConfigGenerator();
+        generator.setSeed(42L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TestDocumentContent content = new PdfTestDocumentCreator(generator).create(0, 1, bytes);
+
+        String id = new String(DocumentIdOutputStream.documentId(content.getUuid()), StandardCharsets.ISO_8859_1);
+        String pdf = new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertTrue(pdf.contains("/ID [<" + id + "><" + id + ">]"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.giraone.s3.testdocuments;
+
+import com.giraone.s3.objectstore.testdata.DefaultDynamicConfigGenerator;
+import com.itextpdf.text.pdf.PdfReader;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PdfPaddingTest {
+
+    private static final PayloadGenerator PAYLOAD_GENERATOR = new PayloadGenerator(0.5);
+
+    private static byte[] pdf;
+
+    @BeforeClass
+    public static void createPdf() {
+        DefaultDynamicConfigGenerator generator = new DefaultDynamicConfigGenerator();
+        generator.setSeed(42L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new PdfTestDocumentCreator(generator).create(0, 1, bytes);
+        pdf = bytes.toByteArray();
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] pad(long targetSize) throws IOException {
+        PdfPadding padding = PdfPadding.create(pdf, pdf.length, targetSize);
+        assertNotNull(padding);
+        try (InputStream in = padding.newInputStream(pdf, pdf.length, PAYLOAD_GENERATOR, 7L)) {
+            return read(in);
+        }
+    }
+
+    @Test
+    public void paddedDocumentHasTheTargetSize() throws IOException {
+        // The number of digits of the payload length changes within this range
+        for (long targetSize : new long[]{pdf.length + 400L, pdf.length + 1000L, 100000L, 1234567L}) {
+            PdfPadding padding = PdfPadding.create(pdf, pdf.length, targetSize);
+            assertNotNull("target size " + targetSize + ", PDF " + pdf.length, padding);
+            assertEquals(targetSize, pdf.length + padding.getLength());
+            assertEquals(targetSize, pad(targetSize).length);
+        }
+    }
+
+    @Test
+    public void paddingIsExactWhereverTheLengthGetsAnotherDigit() {
+        int padded = 0;
+        for (long targetSize = pdf.length; targetSize < pdf.length + 1200L; targetSize++) {
+            PdfPadding padding = PdfPadding.create(pdf, pdf.length, targetSize);
+            if (padding != null) {
+                assertEquals(targetSize, pdf.length + padding.getLength());
+                padded++;
+            }
+        }
+        assertTrue(padded > 0);
+    }
+
+    @Test
+    public void paddedDocumentStartsWithTheOriginal() throws IOException {
+        byte[] padded = pad(50000L);
+        byte[] start = new byte[pdf.length];
+        System.arraycopy(padded, 0, start, 0, pdf.length);
+        assertArrayEquals(pdf, start);
+    }
+
+    @Test
+    public void xrefPointsToThePaddingObject() throws IOException {
+        String padded = new String(pad(50000L), StandardCharsets.ISO_8859_1);
+        Matcher startxref = Pattern.compile("startxref\\n(\\d+)\\n%%EOF\\n$").matcher(padded);
+        assertTrue(startxref.find());
+        int xref = Integer.parseInt(startxref.group(1));
+        assertTrue(padded.startsWith("xref\n", xref));
+
+        Matcher entry = Pattern.compile("xref\\n(\\d+) 1\\n(\\d{10}) 00000 n \\n").matcher(padded.substring(xref));
+        assertTrue(entry.find());
+        int objectOffset = Integer.parseInt(entry.group(2));
+        assertEquals(pdf.length + 1, objectOffset);
+        assertTrue(padded.startsWith(entry.group(1) + " 0 obj\n", objectOffset));
+    }
+
+    @Test
+    public void paddedDocumentIsReadWithoutRepair() throws IOException {
+        PdfReader original = new PdfReader(pdf);
+        PdfReader padded = new PdfReader(pad(50000L));
+        try {
+            assertFalse(padded.isRebuilt());
+            assertEquals(original.getNumberOfPages(), padded.getNumberOfPages());
+        } finally {
+            original.close();
+            padded.close();
+        }
+    }
+
+    @Test
+    public void resetReadsTheSameBytesAgain() throws IOException {
+        PdfPadding padding = PdfPadding.create(pdf, pdf.length, 50000L);
+        assertNotNull(padding);
+        InputStream in = padding.newInputStream(pdf, pdf.length, PAYLOAD_GENERATOR, 7L);
+        in.mark(Integer.MAX_VALUE);
+        byte[] first = read(in);
+        in.reset();
+        assertArrayEquals(first, read(in));
+    }
+
+    @Test
+    public void documentLargerThanTheTargetIsNotPadded() {
+        assertNull(PdfPadding.create(pdf, pdf.length, pdf.length));
+        assertNull(PdfPadding.create(pdf, pdf.length, pdf.length / 2));
+    }
+}